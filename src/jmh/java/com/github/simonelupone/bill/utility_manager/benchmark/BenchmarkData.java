@@ -0,0 +1,84 @@
+package com.github.simonelupone.bill.utility_manager.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.CostComponent;
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.SocialBonus;
+
+/**
+ * Deterministic input generators shared by the benchmarks. Every generator is
+ * seeded, so the same parameters always produce the same data set.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 20240101L;
+    static final LocalDate ORIGIN = LocalDate.of(2000, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a monotonic counter series with one reading every 1 to 3 days.
+     */
+    static List<Reading> readings(int size) {
+        Random random = new Random(SEED);
+        List<Reading> readings = new ArrayList<>(size);
+        LocalDate date = ORIGIN;
+        double counter = 1_000;
+        for (int i = 0; i < size; i++) {
+            readings.add(Reading.of(date, counter));
+            date = date.plusDays(1 + random.nextInt(3));
+            counter += random.nextInt(40) + random.nextInt(100) / 100.0;
+        }
+        return readings;
+    }
+
+    /**
+     * Builds consecutive bimestral periods covered by a series of the given size.
+     */
+    static List<BillPeriod> periods(List<Reading> readings) {
+        LocalDate first = readings.get(0).date();
+        LocalDate last = readings.get(readings.size() - 1).date();
+        List<BillPeriod> periods = new ArrayList<>();
+        for (int year = first.getYear() + 1; year < last.getYear(); year++) {
+            for (int bimester = 1; bimester <= 6; bimester++) {
+                periods.add(BillPeriod.ofBimester(bimester, year));
+            }
+        }
+        if (periods.isEmpty()) {
+            periods.add(BillPeriod.of(first.plusDays(1), last.minusDays(1)));
+        }
+        return periods;
+    }
+
+    static Bill bill(boolean tvTax, boolean socialBonus) {
+        BillCharges charges = new BillCharges(
+                CostComponent.of(new BigDecimal("187.43"), new BigDecimal("0.15")),
+                CostComponent.ofAmount("31.22"),
+                CostComponent.ofAmount("19.87"),
+                CostComponent.ofAmount("52.18"),
+                tvTax ? Optional.of(new BigDecimal("18.00")) : Optional.empty(),
+                socialBonus ? Optional.of(SocialBonus.of(2, "-48.30")) : Optional.empty());
+        return new Bill("2024000123", BillPeriod.ofBimester(3, 2024), new BigDecimal("1249.58"), charges);
+    }
+
+    static String[] csvLines(int count) {
+        Random random = new Random(SEED);
+        String[] lines = new String[count];
+        LocalDate date = ORIGIN;
+        for (int i = 0; i < count; i++) {
+            lines[i] = date + ", " + (10_000 + random.nextInt(90_000)) + "." + random.nextInt(100);
+            date = date.plusDays(1);
+        }
+        return lines;
+    }
+}
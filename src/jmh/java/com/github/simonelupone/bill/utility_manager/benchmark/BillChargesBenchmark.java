@@ -0,0 +1,47 @@
+package com.github.simonelupone.bill.utility_manager.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+
+/**
+ * {@link BillCharges#getTotalAmount()} with and without the optional charges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BillChargesBenchmark {
+
+    @Param({ "none", "tvTax", "socialBonus", "both" })
+    public String optionalCharges;
+
+    private BillCharges charges;
+
+    @Setup
+    public void setUp() {
+        boolean tvTax = optionalCharges.equals("tvTax") || optionalCharges.equals("both");
+        boolean socialBonus = optionalCharges.equals("socialBonus") || optionalCharges.equals("both");
+        charges = BenchmarkData.bill(tvTax, socialBonus).charges();
+    }
+
+    @Benchmark
+    public BigDecimal getTotalAmount() {
+        return charges.getTotalAmount();
+    }
+}
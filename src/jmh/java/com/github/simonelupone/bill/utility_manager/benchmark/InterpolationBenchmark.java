@@ -0,0 +1,74 @@
+package com.github.simonelupone.bill.utility_manager.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.service.ConsumptionInterpolationService;
+
+/**
+ * Consumption interpolation at various reading-series sizes: the single-period
+ * entry points (from a raw list and from a prepared series) and the batch
+ * sweep over every bimester covered by the series.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InterpolationBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    public int seriesSize;
+
+    private final ConsumptionInterpolationService service = new ConsumptionInterpolationService();
+
+    private List<Reading> readings;
+    private ReadingSeries series;
+    private List<BillPeriod> periods;
+    private BillPeriod period;
+
+    @Setup
+    public void setUp() {
+        readings = BenchmarkData.readings(seriesSize);
+        series = ReadingSeries.of(readings);
+        periods = BenchmarkData.periods(readings);
+        period = periods.get(periods.size() / 2);
+    }
+
+    @Benchmark
+    public BigDecimal calculateConsumptionFromList() {
+        return service.calculateConsumption(period.start(), period.end(), readings);
+    }
+
+    @Benchmark
+    public BigDecimal calculateConsumptionFromSeries() {
+        return service.calculateConsumption(period.start(), period.end(), series);
+    }
+
+    @Benchmark
+    public List<BigDecimal> calculateConsumptionBatch() {
+        return service.calculateConsumption(periods, series);
+    }
+
+    @Benchmark
+    public ReadingSeries buildSeries() {
+        return ReadingSeries.of(readings);
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.simonelupone.bill.utility_manager.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.service.ReadingEntityMapper;
+
+/**
+ * Mapping of loaded {@link ReadingEntity} rows into a {@link ReadingSeries},
+ * the step between every reading query and the interpolation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReadingEntityMapperBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    public int seriesSize;
+
+    private List<ReadingEntity> entities;
+
+    @Setup
+    public void setUp() {
+        entities = new ArrayList<>(seriesSize);
+        for (Reading reading : BenchmarkData.readings(seriesSize)) {
+            ReadingEntity entity = new ReadingEntity();
+            entity.setBuildingId("building-1");
+            entity.setMeterId("meter-1");
+            entity.setReadingDate(reading.date());
+            entity.setKwhValue(BigDecimal.valueOf(reading.kWh()).setScale(2, RoundingMode.HALF_UP));
+            entities.add(entity);
+        }
+    }
+
+    @Benchmark
+    public ReadingSeries toSeries() {
+        return ReadingEntityMapper.toSeries(entities);
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.simonelupone.bill.utility_manager.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.service.MappedReadingStore;
+import com.github.simonelupone.bill.utility_manager.service.MetricsRecorder;
+import com.github.simonelupone.bill.utility_manager.service.ReadingSeriesCache;
+
+/**
+ * Snapshot lookups on the reading series cache: read-only throughput (run with
+ * {@code -t 1,2,4,...} to check it scales with threads), and lookups while a
+ * writer keeps appending readings to the same meters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReadingSeriesCacheBenchmark {
+
+    private static final int METERS = 64;
+
+    @Param({ "1000", "10000" })
+    public int seriesSize;
+
+    private Path directory;
+    private MappedReadingStore store;
+    private ReadingSeriesCache cache;
+    private String[] meterIds;
+    private LocalDate next;
+
+    /**
+     * Per-thread position in the meters, so threads do not share a counter.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int position;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Reading> readings = BenchmarkData.readings(seriesSize);
+        next = readings.get(readings.size() - 1).date();
+        directory = Files.createTempDirectory("reading-cache-benchmark");
+        // Every meter holds the same series, loaded once per meter below
+        store = new MappedReadingStore(directory, false, event -> {
+        });
+        cache = new ReadingSeriesCache(store, MetricsRecorder.disabled(), METERS);
+        meterIds = new String[METERS];
+        for (int i = 0; i < METERS; i++) {
+            meterIds[i] = "meter-" + i;
+            store.append("building-0", meterIds[i], readings);
+            cache.get(meterIds[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public ReadingSeriesCache.Snapshot lookup(Cursor cursor) {
+        return cache.snapshot(meterIds[cursor.position++ & (METERS - 1)]);
+    }
+
+    @Benchmark
+    @Group("readWhileAppending")
+    @GroupThreads(7)
+    public ReadingSeriesCache.Snapshot lookupWhileAppending(Cursor cursor) {
+        return cache.snapshot(meterIds[cursor.position++ & (METERS - 1)]);
+    }
+
+    @Benchmark
+    @Group("readWhileAppending")
+    @GroupThreads(1)
+    public void append(Cursor cursor) {
+        int meter = cursor.position++ & (METERS - 1);
+        if (meter == 0) {
+            next = next.plusDays(1);
+        }
+        cache.append(meterIds[meter], ReadingSeries.of(List.of(Reading.of(next, seriesSize * 100.0))));
+    }
+}
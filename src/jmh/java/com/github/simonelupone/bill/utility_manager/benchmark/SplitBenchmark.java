@@ -0,0 +1,61 @@
+package com.github.simonelupone.bill.utility_manager.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitter;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+import com.github.simonelupone.bill.utility_manager.service.FixedPointBillSplitterService;
+
+/**
+ * Bill splitting with and without the optional TV tax and social bonus, on
+ * both splitter engines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SplitBenchmark {
+
+    @Param({ "none", "tvTax", "socialBonus", "both" })
+    public String optionalCharges;
+
+    @Param({ "bigdecimal", "fixed-point" })
+    public String engine;
+
+    private final BigDecimal tenantKwh = new BigDecimal("517.36");
+
+    private Bill bill;
+    private BillSplitter splitter;
+
+    @Setup
+    public void setUp() {
+        boolean tvTax = optionalCharges.equals("tvTax") || optionalCharges.equals("both");
+        boolean socialBonus = optionalCharges.equals("socialBonus") || optionalCharges.equals("both");
+        bill = BenchmarkData.bill(tvTax, socialBonus);
+
+        BillSplitterService reference = new BillSplitterService();
+        splitter = engine.equals("fixed-point") ? new FixedPointBillSplitterService(reference) : reference;
+    }
+
+    @Benchmark
+    public SplitResult splitBill() {
+        return splitter.splitBill(bill, tenantKwh);
+    }
+}
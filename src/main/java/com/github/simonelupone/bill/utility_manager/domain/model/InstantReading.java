@@ -0,0 +1,35 @@
+package com.github.simonelupone.bill.utility_manager.domain.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Counter value of an interval meter at an instant.
+ *
+ * @param timestamp instant of the reading
+ * @param kWh       counter value at that instant
+ */
+public record InstantReading(Instant timestamp, double kWh) implements Comparable<InstantReading> {
+
+    /**
+     * Creates a new {@code InstantReading}.
+     *
+     * @throws NullPointerException     when timestamp is null
+     * @throws IllegalArgumentException when kWh are negative
+     */
+    public InstantReading {
+        Objects.requireNonNull(timestamp, "Timestamp cannot be null");
+
+        if (kWh < 0)
+            throw new IllegalArgumentException("Consumption cannot be negative");
+    }
+
+    public static InstantReading of(Instant timestamp, double kWh) {
+        return new InstantReading(timestamp, kWh);
+    }
+
+    @Override
+    public int compareTo(InstantReading other) {
+        return this.timestamp.compareTo(other.timestamp);
+    }
+}
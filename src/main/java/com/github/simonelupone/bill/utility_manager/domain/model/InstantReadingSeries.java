@@ -0,0 +1,239 @@
+package com.github.simonelupone.bill.utility_manager.domain.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, time-ordered series of interval meter readings.
+ * <p>
+ * Like {@link ReadingSeries}, the series is stored as parallel primitive
+ * arrays: timestamps as epoch seconds and counter values as whole watt-hours,
+ * so a year of 15-minute readings takes about half a megabyte of heap.
+ * Counter values are therefore kept with three decimals of kWh.
+ * </p>
+ * <p>
+ * Timestamps are unique: when the source contains several readings for the
+ * same second, the last one wins.
+ * </p>
+ */
+public final class InstantReadingSeries {
+
+    private static final InstantReadingSeries EMPTY = new InstantReadingSeries(new long[0], new long[0]);
+
+    private final long[] epochSeconds;
+    private final long[] wattHours;
+
+    private InstantReadingSeries(long[] epochSeconds, long[] wattHours) {
+        this.epochSeconds = epochSeconds;
+        this.wattHours = wattHours;
+    }
+
+    /**
+     * Creates a series from an unordered collection of readings.
+     *
+     * @param readings the readings to index
+     * @return a new {@code InstantReadingSeries} ordered by timestamp
+     * @throws NullPointerException if {@code readings} or any reading is
+     *                              {@code null}
+     */
+    public static InstantReadingSeries of(Collection<InstantReading> readings) {
+        Objects.requireNonNull(readings, "Readings cannot be null");
+        if (readings.isEmpty()) {
+            return EMPTY;
+        }
+
+        InstantReading[] sorted = readings.toArray(new InstantReading[0]);
+        // Stable sort: for equal timestamps the input order is preserved
+        Arrays.sort(sorted);
+
+        long[] seconds = new long[sorted.length];
+        long[] values = new long[sorted.length];
+        int size = 0;
+        for (InstantReading r : sorted) {
+            long second = r.timestamp().getEpochSecond();
+            long wh = Math.round(r.kWh() * 1000);
+            if (size > 0 && seconds[size - 1] == second) {
+                values[size - 1] = wh;
+            } else {
+                seconds[size] = second;
+                values[size] = wh;
+                size++;
+            }
+        }
+
+        return new InstantReadingSeries(Arrays.copyOf(seconds, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * Creates a series from parallel arrays already ordered by timestamp. The
+     * arrays are copied.
+     *
+     * @param epochSeconds strictly increasing timestamps, as epoch seconds
+     * @param wattHours    counter values, in watt-hours
+     * @return a new {@code InstantReadingSeries}
+     * @throws IllegalArgumentException if the arrays differ in length, the
+     *                                  timestamps are not strictly increasing or
+     *                                  a value is negative
+     */
+    public static InstantReadingSeries ofSorted(long[] epochSeconds, long[] wattHours) {
+        if (epochSeconds.length != wattHours.length) {
+            throw new IllegalArgumentException("Timestamps and values must have the same length");
+        }
+        for (int i = 0; i < epochSeconds.length; i++) {
+            if (i > 0 && epochSeconds[i] <= epochSeconds[i - 1]) {
+                throw new IllegalArgumentException("Timestamps must be strictly increasing");
+            }
+            if (wattHours[i] < 0) {
+                throw new IllegalArgumentException("Consumption cannot be negative");
+            }
+        }
+        return epochSeconds.length == 0
+                ? EMPTY
+                : new InstantReadingSeries(epochSeconds.clone(), wattHours.clone());
+    }
+
+    /**
+     * Returns the number of readings in the series.
+     *
+     * @return the series size
+     */
+    public int size() {
+        return epochSeconds.length;
+    }
+
+    /**
+     * Returns {@code true} if the series contains no readings.
+     *
+     * @return whether the series is empty
+     */
+    public boolean isEmpty() {
+        return epochSeconds.length == 0;
+    }
+
+    /**
+     * Returns the timestamp of the reading at the given position as epoch
+     * second.
+     *
+     * @param index position in the series
+     * @return the epoch second of the reading
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     */
+    public long epochSecondAt(int index) {
+        return epochSeconds[index];
+    }
+
+    /**
+     * Returns the timestamp of the reading at the given position.
+     *
+     * @param index position in the series
+     * @return the instant of the reading
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     */
+    public Instant instantAt(int index) {
+        return Instant.ofEpochSecond(epochSeconds[index]);
+    }
+
+    /**
+     * Returns the counter value of the reading at the given position.
+     *
+     * @param index position in the series
+     * @return the counter value in watt-hours
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     */
+    public long wattHoursAt(int index) {
+        return wattHours[index];
+    }
+
+    /**
+     * Returns the counter value of the reading at the given position.
+     *
+     * @param index position in the series
+     * @return the counter value in kWh
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     */
+    public double kWhAt(int index) {
+        return wattHours[index] / 1000.0;
+    }
+
+    /**
+     * Returns the position of the latest reading taken at or before the given
+     * epoch second.
+     *
+     * @param epochSecond the target instant as epoch second
+     * @return the index of the floor reading, or {@code -1} if every reading is
+     *         after the target
+     */
+    public int floorIndex(long epochSecond) {
+        int low = 0;
+        int high = epochSeconds.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (epochSeconds[mid] <= epochSecond) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Returns the position of the earliest reading taken at or after the given
+     * epoch second.
+     *
+     * @param epochSecond the target instant as epoch second
+     * @return the index of the ceiling reading, or {@code -1} if every reading
+     *         is before the target
+     */
+    public int ceilingIndex(long epochSecond) {
+        int low = 0;
+        int high = epochSeconds.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (epochSeconds[mid] < epochSecond) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low < epochSeconds.length ? low : -1;
+    }
+
+    /**
+     * Returns one daily reading per day with at least one reading: the latest
+     * reading of the day in the given time zone.
+     *
+     * @param zone the time zone defining the days
+     * @return the daily readings, ordered by date
+     */
+    public List<Reading> toDailyReadings(ZoneId zone) {
+        Objects.requireNonNull(zone, "Zone cannot be null");
+        List<Reading> readings = new ArrayList<>();
+        int i = 0;
+        while (i < epochSeconds.length) {
+            LocalDate day = LocalDate.ofInstant(instantAt(i), zone);
+            long nextDay = day.plusDays(1).atStartOfDay(zone).toEpochSecond();
+            int last = floorIndex(nextDay - 1);
+            readings.add(Reading.of(day, kWhAt(last)));
+            i = last + 1;
+        }
+        return readings;
+    }
+
+    /**
+     * Returns the daily series of {@link #toDailyReadings(ZoneId)}, so that
+     * interval data can be used wherever daily readings are expected.
+     *
+     * @param zone the time zone defining the days
+     * @return the daily series
+     */
+    public ReadingSeries toDailySeries(ZoneId zone) {
+        return ReadingSeries.of(toDailyReadings(zone));
+    }
+}
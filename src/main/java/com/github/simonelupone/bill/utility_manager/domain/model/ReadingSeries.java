@@ -0,0 +1,251 @@
+package com.github.simonelupone.bill.utility_manager.domain.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Immutable, date-ordered series of meter readings.
+ * <p>
+ * The series is stored as two parallel primitive arrays (epoch days and kWh
+ * values) instead of one {@link Reading} object per entry, so large histories
+ * take little heap and floor/ceiling lookups are plain binary searches that do
+ * not allocate.
+ * </p>
+ * <p>
+ * Dates are unique: when the source contains several readings for the same
+ * date, the last one wins.
+ * </p>
+ */
+public final class ReadingSeries {
+
+    private static final ReadingSeries EMPTY = new ReadingSeries(new int[0], new double[0]);
+
+    private final int[] epochDays;
+    private final double[] kWh;
+
+    private ReadingSeries(int[] epochDays, double[] kWh) {
+        this.epochDays = epochDays;
+        this.kWh = kWh;
+    }
+
+    /**
+     * Creates a series from an unordered collection of readings.
+     *
+     * @param readings the readings to index
+     * @return a new {@code ReadingSeries} ordered by date
+     * @throws NullPointerException if {@code readings} or any reading is
+     *                              {@code null}
+     */
+    public static ReadingSeries of(Collection<Reading> readings) {
+        Objects.requireNonNull(readings, "Readings cannot be null");
+        if (readings.isEmpty()) {
+            return EMPTY;
+        }
+
+        Reading[] sorted = readings.toArray(new Reading[0]);
+        // Stable sort: for equal dates the input order is preserved
+        Arrays.sort(sorted);
+
+        int[] days = new int[sorted.length];
+        double[] values = new double[sorted.length];
+        int size = 0;
+        for (Reading r : sorted) {
+            int day = Math.toIntExact(r.date().toEpochDay());
+            if (size > 0 && days[size - 1] == day) {
+                values[size - 1] = r.kWh();
+            } else {
+                days[size] = day;
+                values[size] = r.kWh();
+                size++;
+            }
+        }
+
+        return new ReadingSeries(Arrays.copyOf(days, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * Creates a series from parallel arrays already ordered by date. The arrays
+     * are copied.
+     *
+     * @param epochDays strictly increasing dates, as epoch days
+     * @param kWh       counter values, in kWh
+     * @return a new {@code ReadingSeries}
+     * @throws IllegalArgumentException if the arrays differ in length, the
+     *                                  dates are not strictly increasing or a
+     *                                  value is negative
+     */
+    public static ReadingSeries ofSorted(int[] epochDays, double[] kWh) {
+        if (epochDays.length != kWh.length) {
+            throw new IllegalArgumentException("Dates and values must have the same length");
+        }
+        for (int i = 0; i < epochDays.length; i++) {
+            if (i > 0 && epochDays[i] <= epochDays[i - 1]) {
+                throw new IllegalArgumentException("Dates must be strictly increasing");
+            }
+            if (kWh[i] < 0) {
+                throw new IllegalArgumentException("Consumption cannot be negative");
+            }
+        }
+        return epochDays.length == 0 ? EMPTY : new ReadingSeries(epochDays.clone(), kWh.clone());
+    }
+
+    /**
+     * Returns a new series with the readings of both series. Neither series is
+     * modified: readers holding this series keep seeing it unchanged.
+     * <p>
+     * For a date present in both, the reading of {@code newer} wins. When every
+     * reading of {@code newer} comes after the last reading of this series, the
+     * usual case of readings arriving in order, the arrays are extended by a
+     * single copy.
+     * </p>
+     *
+     * @param newer the readings to add or replace
+     * @return the merged series, or this series if {@code newer} is empty
+     * @throws NullPointerException if {@code newer} is {@code null}
+     */
+    public ReadingSeries merge(ReadingSeries newer) {
+        Objects.requireNonNull(newer, "Readings cannot be null");
+        if (newer.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return newer;
+        }
+
+        int size = epochDays.length;
+        if (newer.epochDays[0] > epochDays[size - 1]) {
+            int[] days = Arrays.copyOf(epochDays, size + newer.size());
+            double[] values = Arrays.copyOf(kWh, size + newer.size());
+            System.arraycopy(newer.epochDays, 0, days, size, newer.size());
+            System.arraycopy(newer.kWh, 0, values, size, newer.size());
+            return new ReadingSeries(days, values);
+        }
+
+        int[] days = new int[size + newer.size()];
+        double[] values = new double[days.length];
+        int i = 0;
+        int j = 0;
+        int merged = 0;
+        while (i < size || j < newer.size()) {
+            if (j == newer.size() || i < size && epochDays[i] < newer.epochDays[j]) {
+                days[merged] = epochDays[i];
+                values[merged++] = kWh[i++];
+            } else {
+                if (i < size && epochDays[i] == newer.epochDays[j]) {
+                    i++;
+                }
+                days[merged] = newer.epochDays[j];
+                values[merged++] = newer.kWh[j++];
+            }
+        }
+        return new ReadingSeries(Arrays.copyOf(days, merged), Arrays.copyOf(values, merged));
+    }
+
+    /**
+     * Returns the number of readings in the series.
+     *
+     * @return the series size
+     */
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * Returns {@code true} if the series contains no readings.
+     *
+     * @return whether the series is empty
+     */
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    /**
+     * Returns the date of the reading at the given position as epoch day.
+     *
+     * @param index position in the series
+     * @return the epoch day of the reading
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     */
+    public int epochDayAt(int index) {
+        return epochDays[index];
+    }
+
+    /**
+     * Returns the date of the reading at the given position.
+     *
+     * @param index position in the series
+     * @return the date of the reading
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     */
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    /**
+     * Returns the counter value of the reading at the given position.
+     *
+     * @param index position in the series
+     * @return the counter value in kWh
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     */
+    public double kWhAt(int index) {
+        return kWh[index];
+    }
+
+    /**
+     * Returns the reading at the given position.
+     *
+     * @param index position in the series
+     * @return a new {@link Reading} for that position
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     */
+    public Reading readingAt(int index) {
+        return new Reading(dateAt(index), kWh[index]);
+    }
+
+    /**
+     * Returns the position of the latest reading taken on or before the given
+     * epoch day.
+     *
+     * @param epochDay the target date as epoch day
+     * @return the index of the floor reading, or {@code -1} if every reading is
+     *         after the target
+     */
+    public int floorIndex(long epochDay) {
+        int low = 0;
+        int high = epochDays.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] <= epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Returns the position of the earliest reading taken on or after the given
+     * epoch day.
+     *
+     * @param epochDay the target date as epoch day
+     * @return the index of the ceiling reading, or {@code -1} if every reading is
+     *         before the target
+     */
+    public int ceilingIndex(long epochDay) {
+        int low = 0;
+        int high = epochDays.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low < epochDays.length ? low : -1;
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.simonelupone.bill.utility_manager.persistence;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Application event published whenever a {@link BillEntity} is inserted,
+ * updated or deleted through the persistence context.
+ *
+ * @param billId      id of the changed bill
+ * @param periodStart start of the bill period
+ * @param periodEnd   end of the bill period
+ * @param type        kind of change
+ */
+public record BillChangedEvent(long billId, LocalDate periodStart, LocalDate periodEnd, ChangeType type) {
+
+    /**
+     * Kind of change applied to a bill.
+     */
+    public enum ChangeType {
+        INSERTED, UPDATED, DELETED
+    }
+
+    /**
+     * Compact constructor for validation.
+     *
+     * @throws NullPointerException if any field is null
+     */
+    public BillChangedEvent {
+        Objects.requireNonNull(periodStart, "Period start cannot be null");
+        Objects.requireNonNull(periodEnd, "Period end cannot be null");
+        Objects.requireNonNull(type, "Change type cannot be null");
+    }
+}
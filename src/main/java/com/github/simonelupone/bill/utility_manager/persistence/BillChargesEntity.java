@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -21,7 +22,8 @@ import lombok.Setter;
 @NoArgsConstructor
 public class BillChargesEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_charges_seq")
+    @SequenceGenerator(name = "bill_charges_seq", sequenceName = "bill_charges_seq", allocationSize = 50)
     private long id;
 
     @OneToOne
@@ -31,7 +33,7 @@ public class BillChargesEntity {
     // CostComponent energyvalue
     @Column(name = "energy_variable_amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal energyVariableAmount;
-    @Column(name = "energy_variable_unit_price", nullable = false, precision = 16, scale = 2)
+    @Column(name = "energy_variable_unit_price", precision = 16, scale = 10)
     private BigDecimal energyVariableUnitPrice;
 
     // Costcomponent transportfixed
@@ -1,32 +1,50 @@
 package com.github.simonelupone.bill.utility_manager.persistence;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "bills")
+@EntityListeners(BillEntityListener.class)
+@Table(name = "bills", indexes = {
+        @Index(columnList = "building_id, period_start"),
+        @Index(columnList = "period_start, id"),
+        @Index(columnList = "period_end"),
+        @Index(columnList = "tenant_meter_id, period_start"),
+        @Index(columnList = "tenant_meter_id, period_end") })
 @Getter
 @Setter
 @NoArgsConstructor
 public class BillEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bills_seq")
+    @SequenceGenerator(name = "bills_seq", sequenceName = "bills_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "invoice_number", nullable = false, unique = true)
     private String invoiceNumber;
 
+    @Column(name = "building_id", nullable = false)
+    private String buildingId;
+
+    // Sub-meter whose consumption is split against the bill total
+    @Column(name = "tenant_meter_id", nullable = false)
+    private String tenantMeterId;
+
     @Column(name = "period_start", nullable = false)
     private LocalDate periodStart;
 
@@ -34,7 +52,7 @@ public class BillEntity {
     private LocalDate periodEnd;
 
     @Column(name = "total_kwh", nullable = false, precision = 10, scale = 2)
-    private LocalDate totalKwh;
+    private BigDecimal totalKwh;
 
     @OneToOne(mappedBy = "bill", cascade = CascadeType.ALL)
     private BillChargesEntity charges;
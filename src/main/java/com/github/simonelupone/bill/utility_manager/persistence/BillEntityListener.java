@@ -0,0 +1,46 @@
+package com.github.simonelupone.bill.utility_manager.persistence;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.github.simonelupone.bill.utility_manager.persistence.BillChangedEvent.ChangeType;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that turns writes on {@link BillEntity} into
+ * {@link BillChangedEvent}s, so that in-memory indexes over the bills table
+ * stay in sync.
+ * <p>
+ * Instantiated by Hibernate through the Spring bean container. Note that bulk
+ * JPQL updates/deletes bypass entity callbacks and therefore publish no event.
+ * </p>
+ */
+public class BillEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public BillEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    void onInsert(BillEntity bill) {
+        publish(bill, ChangeType.INSERTED);
+    }
+
+    @PostUpdate
+    void onUpdate(BillEntity bill) {
+        publish(bill, ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    void onDelete(BillEntity bill) {
+        publish(bill, ChangeType.DELETED);
+    }
+
+    private void publish(BillEntity bill, ChangeType type) {
+        publisher.publishEvent(new BillChangedEvent(bill.getId(), bill.getPeriodStart(), bill.getPeriodEnd(), type));
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.simonelupone.bill.utility_manager.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "daily_consumption", uniqueConstraints = @UniqueConstraint(columnNames = { "meter_id",
+        "consumption_date" }))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DailyConsumptionEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_consumption_seq")
+    @SequenceGenerator(name = "daily_consumption_seq", sequenceName = "daily_consumption_seq", allocationSize = 50)
+    private long id;
+
+    @Column(name = "meter_id", nullable = false)
+    private String meterId;
+
+    @Column(name = "consumption_date", nullable = false)
+    private LocalDate consumptionDate;
+
+    // Interpolated counter value at the day
+    @Column(name = "counter_kwh", nullable = false, precision = 12, scale = 2)
+    private BigDecimal counterKwh;
+
+    // Counter increase since the previous day (zero on the first day)
+    @Column(name = "consumption_kwh", nullable = false, precision = 12, scale = 2)
+    private BigDecimal consumptionKwh;
+}
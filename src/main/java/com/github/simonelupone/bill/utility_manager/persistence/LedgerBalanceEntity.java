@@ -0,0 +1,48 @@
+package com.github.simonelupone.bill.utility_manager.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "split_ledger_balances")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerBalanceEntity {
+    @Id
+    @Column(name = "building_id")
+    private String buildingId;
+
+    // Concurrent appends to the same building fail instead of losing an update
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Sequence number of the latest entry of the building
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    @Column(name = "last_posting_date", nullable = false)
+    private LocalDate lastPostingDate;
+
+    @Column(name = "tenant_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal tenantAmount;
+
+    @Column(name = "tenant_kwh", nullable = false, precision = 14, scale = 2)
+    private BigDecimal tenantKwh;
+
+    @Column(name = "owner_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal ownerAmount;
+
+    @Column(name = "owner_kwh", nullable = false, precision = 14, scale = 2)
+    private BigDecimal ownerKwh;
+}
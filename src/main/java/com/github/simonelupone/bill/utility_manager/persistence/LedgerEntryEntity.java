@@ -0,0 +1,90 @@
+package com.github.simonelupone.bill.utility_manager.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "split_ledger", uniqueConstraints = @UniqueConstraint(columnNames = { "building_id",
+        "sequence_number" }), indexes = {
+        @Index(columnList = "building_id, party, posting_date, sequence_number"),
+        @Index(columnList = "invoice_number, party, sequence_number") })
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerEntryEntity {
+
+    public enum Party {
+        TENANT, OWNER
+    }
+
+    public enum EntryType {
+        SPLIT, ADJUSTMENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "split_ledger_seq")
+    @SequenceGenerator(name = "split_ledger_seq", sequenceName = "split_ledger_seq", allocationSize = 50)
+    private long id;
+
+    @Column(name = "building_id", nullable = false)
+    private String buildingId;
+
+    // Position of the entry in its building's ledger, assigned from the
+    // version-guarded balance row: pooled ids are not in append order
+    @Column(name = "sequence_number", nullable = false)
+    private long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "party", nullable = false, length = 16)
+    private Party party;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 16)
+    private EntryType entryType;
+
+    @Column(name = "invoice_number", nullable = false)
+    private String invoiceNumber;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    // Date the entry counts from in "balance as of" queries; never earlier
+    // than the previous entry of the building
+    @Column(name = "posting_date", nullable = false)
+    private LocalDate postingDate;
+
+    @Column(name = "amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "kwh", nullable = false, precision = 12, scale = 2)
+    private BigDecimal kwh;
+
+    // Net amount and kWh of the invoice for this party after this entry
+    @Column(name = "invoice_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal invoiceAmount;
+
+    @Column(name = "invoice_kwh", nullable = false, precision = 12, scale = 2)
+    private BigDecimal invoiceKwh;
+
+    // Running balance of the party after this entry
+    @Column(name = "balance_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal balanceAmount;
+
+    @Column(name = "balance_kwh", nullable = false, precision = 14, scale = 2)
+    private BigDecimal balanceKwh;
+}
@@ -0,0 +1,52 @@
+package com.github.simonelupone.bill.utility_manager.persistence;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "reading_blocks", uniqueConstraints = @UniqueConstraint(columnNames = { "meter_id",
+        "block_date" }))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReadingBlockEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reading_blocks_seq")
+    @SequenceGenerator(name = "reading_blocks_seq", sequenceName = "reading_blocks_seq", allocationSize = 50)
+    private long id;
+
+    @Column(name = "building_id", nullable = false)
+    private String buildingId;
+
+    @Column(name = "meter_id", nullable = false)
+    private String meterId;
+
+    // UTC day covered by the block
+    @Column(name = "block_date", nullable = false)
+    private LocalDate blockDate;
+
+    @Column(name = "first_reading_at", nullable = false)
+    private Instant firstReadingAt;
+
+    @Column(name = "last_reading_at", nullable = false)
+    private Instant lastReadingAt;
+
+    @Column(name = "reading_count", nullable = false)
+    private int readingCount;
+
+    // Delta/varint encoded readings, see ReadingBlockCodec
+    @Column(name = "payload", nullable = false, length = 1_048_576)
+    private byte[] payload;
+}
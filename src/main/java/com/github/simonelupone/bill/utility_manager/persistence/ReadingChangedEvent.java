@@ -0,0 +1,66 @@
+package com.github.simonelupone.bill.utility_manager.persistence;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Application event published whenever a {@link ReadingEntity} is inserted,
+ * updated or deleted through the persistence context.
+ *
+ * @param meterId             identifier of the meter the reading belongs to
+ * @param readingDate         date of the changed reading
+ * @param previousReadingDate date the reading had before an update moved it,
+ *                            {@code null} if the date did not change
+ * @param type                kind of change
+ * @param kWh                 counter value after the change, {@code null} for
+ *                            a deletion or when the writer does not report it
+ */
+public record ReadingChangedEvent(String meterId, LocalDate readingDate, LocalDate previousReadingDate,
+        ChangeType type, Double kWh) {
+
+    /**
+     * Kind of change applied to a reading.
+     */
+    public enum ChangeType {
+        INSERTED, UPDATED, DELETED
+    }
+
+    /**
+     * Compact constructor for validation.
+     *
+     * @throws NullPointerException if any field but
+     *                              {@code previousReadingDate} and
+     *                              {@code kWh} is null
+     */
+    public ReadingChangedEvent {
+        Objects.requireNonNull(meterId, "Meter id cannot be null");
+        Objects.requireNonNull(readingDate, "Reading date cannot be null");
+        Objects.requireNonNull(type, "Change type cannot be null");
+    }
+
+    /**
+     * Creates an event that does not report the new counter value.
+     *
+     * @param meterId             identifier of the meter the reading belongs to
+     * @param readingDate         date of the changed reading
+     * @param previousReadingDate date the reading had before an update moved
+     *                            it, {@code null} if the date did not change
+     * @param type                kind of change
+     */
+    public ReadingChangedEvent(String meterId, LocalDate readingDate, LocalDate previousReadingDate,
+            ChangeType type) {
+        this(meterId, readingDate, previousReadingDate, type, null);
+    }
+
+    /**
+     * Creates an event for a change that did not move the reading to another
+     * date.
+     *
+     * @param meterId     identifier of the meter the reading belongs to
+     * @param readingDate date of the changed reading
+     * @param type        kind of change
+     */
+    public ReadingChangedEvent(String meterId, LocalDate readingDate, ChangeType type) {
+        this(meterId, readingDate, null, type, null);
+    }
+}
@@ -5,27 +5,49 @@ import java.time.LocalDate;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "readings")
+@EntityListeners(ReadingEntityListener.class)
+@Table(name = "readings", uniqueConstraints = @UniqueConstraint(columnNames = { "meter_id",
+        "reading_date" }), indexes = @Index(columnList = "building_id"))
 @Getter
 @Setter
 @NoArgsConstructor
 public class ReadingEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "readings_seq")
+    @SequenceGenerator(name = "readings_seq", sequenceName = "readings_seq", allocationSize = 50)
     private long id;
 
-    @Column(name = "reading_date", nullable = false, unique = true)
+    @Column(name = "building_id", nullable = false)
+    private String buildingId;
+
+    @Column(name = "meter_id", nullable = false)
+    private String meterId;
+
+    @Column(name = "reading_date", nullable = false)
     private LocalDate readingDate;
 
     @Column(name = "kwh_value", nullable = false, precision = 10, scale = 2)
     private BigDecimal kwhValue;
+
+    // Meter and reading date as last loaded or flushed, so that an update can
+    // report the meter and date it moved the reading away from
+    @Transient
+    private String persistedMeterId;
+
+    @Transient
+    private LocalDate persistedReadingDate;
 }
@@ -0,0 +1,74 @@
+package com.github.simonelupone.bill.utility_manager.persistence;
+
+import java.time.LocalDate;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent.ChangeType;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that turns writes on {@link ReadingEntity} into
+ * {@link ReadingChangedEvent}s, so that caches built on top of the readings
+ * table are invalidated automatically.
+ * <p>
+ * Instantiated by Hibernate through the Spring bean container. Note that bulk
+ * JPQL updates/deletes bypass entity callbacks and therefore publish no event.
+ * </p>
+ */
+public class ReadingEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public ReadingEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostLoad
+    void onLoad(ReadingEntity reading) {
+        remember(reading);
+    }
+
+    @PostPersist
+    void onInsert(ReadingEntity reading) {
+        publish(reading, ChangeType.INSERTED);
+    }
+
+    @PostUpdate
+    void onUpdate(ReadingEntity reading) {
+        String previousMeterId = reading.getPersistedMeterId();
+        if (previousMeterId != null && !previousMeterId.equals(reading.getMeterId())) {
+            // Moved to another meter: gone from the old meter, new on the other
+            publisher.publishEvent(new ReadingChangedEvent(previousMeterId, reading.getPersistedReadingDate(), null,
+                    ChangeType.DELETED, null));
+            publish(reading, ChangeType.INSERTED);
+            return;
+        }
+        publish(reading, ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    void onDelete(ReadingEntity reading) {
+        publish(reading, ChangeType.DELETED);
+    }
+
+    private void publish(ReadingEntity reading, ChangeType type) {
+        LocalDate previous = reading.getPersistedReadingDate();
+        LocalDate moved = type == ChangeType.UPDATED && previous != null && !previous.equals(reading.getReadingDate())
+                ? previous
+                : null;
+        Double kWh = type == ChangeType.DELETED ? null : reading.getKwhValue().doubleValue();
+        publisher.publishEvent(new ReadingChangedEvent(reading.getMeterId(), reading.getReadingDate(), moved, type,
+                kWh));
+        remember(reading);
+    }
+
+    private static void remember(ReadingEntity reading) {
+        reading.setPersistedMeterId(reading.getMeterId());
+        reading.setPersistedReadingDate(reading.getReadingDate());
+    }
+}
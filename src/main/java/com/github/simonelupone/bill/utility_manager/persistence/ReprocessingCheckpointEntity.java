@@ -0,0 +1,35 @@
+package com.github.simonelupone.bill.utility_manager.persistence;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "reprocessing_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReprocessingCheckpointEntity {
+    @Id
+    @Column(name = "job_name")
+    private String jobName;
+
+    // Keyset position of the last bill of the last committed chunk
+    @Column(name = "last_period_start", nullable = false)
+    private LocalDate lastPeriodStart;
+
+    @Column(name = "last_bill_id", nullable = false)
+    private long lastBillId;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    @Column(name = "skipped", nullable = false)
+    private long skipped;
+}
@@ -3,9 +3,9 @@ package com.github.simonelupone.bill.utility_manager.persistence.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+import com.github.simonelupone.bill.utility_manager.persistence.BillChargesEntity;
 
 @Repository
-public interface BillChargesRepository extends JpaRepository<BillCharges, Long> {
+public interface BillChargesRepository extends JpaRepository<BillChargesEntity, Long> {
 
 }
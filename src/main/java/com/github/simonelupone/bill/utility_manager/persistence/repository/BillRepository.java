@@ -1,13 +1,110 @@
 package com.github.simonelupone.bill.utility_manager.persistence.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
 
 @Repository
 public interface BillRepository extends JpaRepository<BillEntity, Long> {
+
+    /**
+     * Id and period of a bill, enough to build an in-memory period index.
+     */
+    interface PeriodView {
+        long getId();
+
+        LocalDate getPeriodStart();
+
+        LocalDate getPeriodEnd();
+    }
+
     Optional<BillEntity> findByInvoiceNumber(String invoiceNumber);
+
+    @Query("select b.invoiceNumber from BillEntity b where b.invoiceNumber in :invoiceNumbers")
+    List<String> findExistingInvoiceNumbers(@Param("invoiceNumbers") Collection<String> invoiceNumbers);
+
+    // Keyset pagination over the unique invoice number index, used to load the
+    // stored invoice numbers in chunks
+    @Query("select b.invoiceNumber from BillEntity b where b.invoiceNumber > :after order by b.invoiceNumber")
+    List<String> findInvoiceNumbersAfter(@Param("after") String after, Pageable pageable);
+
+    List<BillEntity> findByBuildingIdOrderByPeriodStartAsc(String buildingId);
+
+    // Bills with their charges in a single joined query (no query per bill for
+    // the inverse one-to-one side)
+    @Query("""
+            select b from BillEntity b left join fetch b.charges
+            where b.periodStart between :from and :to
+            order by b.periodStart, b.id""")
+    List<BillEntity> findWithChargesByPeriodStartBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(value = """
+            select b from BillEntity b left join fetch b.charges
+            where b.buildingId = :buildingId
+            order by b.periodStart, b.id""",
+            countQuery = "select count(b) from BillEntity b where b.buildingId = :buildingId")
+    Page<BillEntity> findWithChargesByBuildingId(@Param("buildingId") String buildingId, Pageable pageable);
+
+    // Keyset pagination over the whole history, ordered by (periodStart, id).
+    // The redundant periodStart lower bound gives the planner a seek into the
+    // (period_start, id) index, which the OR alone does not: every chunk is an
+    // index range scan, however deep into the history
+    @Query("""
+            select b from BillEntity b left join fetch b.charges
+            order by b.periodStart, b.id""")
+    List<BillEntity> findFirstChunkWithCharges(Pageable pageable);
+
+    @Query("""
+            select b from BillEntity b left join fetch b.charges
+            where b.periodStart >= :periodStart
+              and (b.periodStart > :periodStart or b.id > :id)
+            order by b.periodStart, b.id""")
+    List<BillEntity> findNextChunkWithCharges(@Param("periodStart") LocalDate periodStart, @Param("id") long id,
+            Pageable pageable);
+
+    // Bills of a tenant sub-meter with a period boundary inside a date window
+    @Query("""
+            select b from BillEntity b left join fetch b.charges
+            where b.tenantMeterId = :meterId
+              and (b.periodStart between :from and :to or b.periodEnd between :from and :to)
+            order by b.periodStart, b.id""")
+    List<BillEntity> findWithChargesByTenantMeterIdAndBoundaryBetween(@Param("meterId") String meterId,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Bills whose period covers a date or overlaps a range; both bounds are
+    // range conditions on the period_start and period_end indexes
+    @Query("""
+            select b from BillEntity b left join fetch b.charges
+            where b.periodStart <= :date and b.periodEnd >= :date
+            order by b.periodStart, b.id""")
+    List<BillEntity> findCoveringDate(@Param("date") LocalDate date);
+
+    @Query("""
+            select b from BillEntity b left join fetch b.charges
+            where b.periodStart <= :to and b.periodEnd >= :from
+            order by b.periodStart, b.id""")
+    List<BillEntity> findOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+            select b from BillEntity b left join fetch b.charges
+            where b.id in :ids
+            order by b.periodStart, b.id""")
+    List<BillEntity> findWithChargesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select b from BillEntity b left join fetch b.charges
+            where b.invoiceNumber = :invoiceNumber""")
+    Optional<BillEntity> findWithChargesByInvoiceNumber(@Param("invoiceNumber") String invoiceNumber);
+
+    List<PeriodView> findAllProjectedBy();
 }
@@ -0,0 +1,32 @@
+package com.github.simonelupone.bill.utility_manager.persistence.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.github.simonelupone.bill.utility_manager.persistence.DailyConsumptionEntity;
+
+@Repository
+public interface DailyConsumptionRepository extends JpaRepository<DailyConsumptionEntity, Long> {
+    List<DailyConsumptionEntity> findByMeterIdAndConsumptionDateIn(String meterId, Collection<LocalDate> dates);
+
+    List<DailyConsumptionEntity> findByMeterIdAndConsumptionDateBetweenOrderByConsumptionDateAsc(String meterId,
+            LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("""
+            delete from DailyConsumptionEntity d
+            where d.meterId = :meterId and d.consumptionDate between :from and :to""")
+    int deleteByMeterIdAndConsumptionDateBetween(@Param("meterId") String meterId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from DailyConsumptionEntity d where d.meterId = :meterId")
+    int deleteByMeterId(@Param("meterId") String meterId);
+}
@@ -0,0 +1,10 @@
+package com.github.simonelupone.bill.utility_manager.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerBalanceEntity;
+
+@Repository
+public interface LedgerBalanceRepository extends JpaRepository<LedgerBalanceEntity, String> {
+}
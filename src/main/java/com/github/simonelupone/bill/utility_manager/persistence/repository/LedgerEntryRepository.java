@@ -0,0 +1,21 @@
+package com.github.simonelupone.bill.utility_manager.persistence.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity.Party;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntryEntity, Long> {
+    Optional<LedgerEntryEntity> findFirstByBuildingIdAndPartyAndPostingDateLessThanEqualOrderByPostingDateDescSequenceDesc(
+            String buildingId, Party party, LocalDate postingDate);
+
+    Optional<LedgerEntryEntity> findFirstByInvoiceNumberAndPartyOrderBySequenceDesc(String invoiceNumber, Party party);
+
+    List<LedgerEntryEntity> findByBuildingIdOrderBySequenceAsc(String buildingId);
+}
@@ -0,0 +1,26 @@
+package com.github.simonelupone.bill.utility_manager.persistence.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingBlockEntity;
+
+@Repository
+public interface ReadingBlockRepository extends JpaRepository<ReadingBlockEntity, Long> {
+    List<ReadingBlockEntity> findByMeterIdAndBlockDateIn(String meterId, Collection<LocalDate> blockDates);
+
+    List<ReadingBlockEntity> findByMeterIdAndBlockDateBetweenOrderByBlockDateAsc(String meterId, LocalDate from,
+            LocalDate to);
+
+    // Nearest blocks outside a range, holding the readings that bracket it
+    Optional<ReadingBlockEntity> findFirstByMeterIdAndBlockDateLessThanOrderByBlockDateDesc(String meterId,
+            LocalDate date);
+
+    Optional<ReadingBlockEntity> findFirstByMeterIdAndBlockDateGreaterThanOrderByBlockDateAsc(String meterId,
+            LocalDate date);
+}
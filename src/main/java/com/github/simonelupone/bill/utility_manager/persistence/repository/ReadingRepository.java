@@ -1,8 +1,12 @@
 package com.github.simonelupone.bill.utility_manager.persistence.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
@@ -10,5 +14,31 @@ import java.time.LocalDate;
 
 @Repository
 public interface ReadingRepository extends JpaRepository<ReadingEntity, Long> {
-    Optional<ReadingEntity> findByReadingDate(LocalDate date);
+    Optional<ReadingEntity> findByMeterIdAndReadingDate(String meterId, LocalDate date);
+
+    List<ReadingEntity> findByMeterIdOrderByReadingDateAsc(String meterId);
+
+    @Query("select distinct r.meterId from ReadingEntity r where r.buildingId = :buildingId order by r.meterId")
+    List<String> findMeterIdsByBuildingId(@Param("buildingId") String buildingId);
+
+    @Query("select distinct r.meterId from ReadingEntity r order by r.meterId")
+    List<String> findAllMeterIds();
+
+    @Query("select r.readingDate from ReadingEntity r where r.meterId = :meterId")
+    List<LocalDate> findReadingDatesByMeterId(@Param("meterId") String meterId);
+
+    @Query("select r.readingDate from ReadingEntity r where r.meterId = :meterId and r.readingDate in :dates")
+    List<LocalDate> findExistingReadingDates(@Param("meterId") String meterId,
+            @Param("dates") Collection<LocalDate> dates);
+
+    // Range queries on the (meter_id, reading_date) unique index, used to fetch
+    // only the readings bracketing a billing period
+    Optional<ReadingEntity> findFirstByMeterIdAndReadingDateLessThanEqualOrderByReadingDateDesc(String meterId,
+            LocalDate date);
+
+    Optional<ReadingEntity> findFirstByMeterIdAndReadingDateGreaterThanEqualOrderByReadingDateAsc(String meterId,
+            LocalDate date);
+
+    List<ReadingEntity> findByMeterIdAndReadingDateBetweenOrderByReadingDateAsc(String meterId, LocalDate from,
+            LocalDate to);
 }
@@ -0,0 +1,153 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * Service splitting a whole billing cycle, across many buildings, in parallel.
+ * <p>
+ * Jobs are cut into contiguous chunks and run on a dedicated
+ * {@link ForkJoinPool}. Every job only depends on its own input, and results
+ * are written back at the position of their job, so the output is identical
+ * and in the same order as the input whatever the parallelism.
+ * </p>
+ * <p>
+ * Results are memoized by the {@link SplitResultCache}, so splitting a bill
+ * whose readings did not change does not interpolate again.
+ * </p>
+ */
+@Service
+public class BatchSplitService implements DisposableBean {
+
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    /**
+     * A bill to split, with the building it belongs to and the sub-meter whose
+     * consumption is charged to the tenant.
+     *
+     * @param buildingId    identifier of the building
+     * @param bill          the bill to split
+     * @param tenantMeterId identifier of the tenant's sub-meter
+     */
+    public record SplitJob(String buildingId, Bill bill, String tenantMeterId) {
+
+        public SplitJob {
+            Objects.requireNonNull(buildingId, "Building id cannot be null");
+            Objects.requireNonNull(bill, "Bill cannot be null");
+            Objects.requireNonNull(tenantMeterId, "Tenant meter id cannot be null");
+        }
+    }
+
+    private final MeterConsumptionService consumptionService;
+    private final BillSplitter splitter;
+    private final SplitResultCache resultCache;
+    private final MetricsRecorder metrics;
+    private final ForkJoinPool pool;
+
+    public BatchSplitService(MeterConsumptionService consumptionService, BillSplitter splitter,
+            SplitResultCache resultCache, MetricsRecorder metrics,
+            @Value("${utility-manager.split.parallelism:0}") int parallelism) {
+        this.consumptionService = consumptionService;
+        this.splitter = splitter;
+        this.resultCache = resultCache;
+        this.metrics = metrics;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Splits every job of a billing cycle.
+     *
+     * @param jobs the bills to split
+     * @return one {@link SplitResult} per job, in the same order as {@code jobs}
+     * @throws IllegalArgumentException if a job cannot be split; when several jobs
+     *                                  fail, the first failing job in input order
+     *                                  is reported
+     */
+    public List<SplitResult> splitAll(List<SplitJob> jobs) {
+        Objects.requireNonNull(jobs, "Jobs cannot be null");
+        SplitJob[] input = jobs.toArray(new SplitJob[0]);
+        SplitResult[] results = new SplitResult[input.length];
+
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, input.length / (pool.getParallelism() * 4) + 1);
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < input.length; from += chunkSize) {
+            int start = from;
+            int end = Math.min(input.length, from + chunkSize);
+            chunks.add(pool.submit(() -> {
+                for (int i = start; i < end; i++) {
+                    results[i] = split(input[i]);
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunks.forEach(c -> c.cancel(true));
+            throw new IllegalStateException("Interrupted while splitting bills", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(c -> c.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Failed to split bills", e.getCause());
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Splits a single job.
+     *
+     * @param job the bill to split
+     * @return the split result
+     * @throws IllegalArgumentException if the tenant readings do not cover the
+     *                                  bill period
+     */
+    public SplitResult split(SplitJob job) {
+        return resultCache.get(job, this::splitUncached);
+    }
+
+    /**
+     * Splits a single job from the current readings, bypassing the
+     * {@link SplitResultCache} both for the lookup and the result.
+     *
+     * @param job the bill to split
+     * @return the split result
+     * @throws IllegalArgumentException if the tenant readings do not cover the
+     *                                  bill period
+     */
+    SplitResult splitUncached(SplitJob job) {
+        MetricsRecorder.Sample computation = metrics.startComputation();
+        Bill bill = job.bill();
+        BigDecimal tenantKwh = consumptionService.calculateConsumption(job.tenantMeterId(),
+                bill.period().start(), bill.period().end());
+
+        MetricsRecorder.Sample split = metrics.startSplit();
+        SplitResult result = splitter.splitBill(bill, tenantKwh);
+        metrics.stopSplit(split, bill.invoiceNumber());
+        metrics.stopComputation(computation, bill.invoiceNumber(), job.tenantMeterId());
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,532 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * Staged pipeline ingesting new bills: ingest, interpolate, split, persist.
+ * <p>
+ * Every stage runs on its own threads and hands bills to the next one through
+ * a bounded queue, so reading the source, interpolating (CPU and series
+ * loads), splitting (CPU) and writing (database I/O) overlap. The number of
+ * threads of each stage and the queue capacity are configurable under
+ * {@code utility-manager.pipeline}. A full queue blocks the stage feeding it:
+ * when the database falls behind, the persist queues fill up, splitting and
+ * interpolation stop, and the source is no longer read, so memory stays
+ * bounded by the queue capacities.
+ * </p>
+ * <p>
+ * Persistence is partitioned by building: each persist thread owns the
+ * buildings hashed to it, so the ledger of a building is only ever appended
+ * by one thread. A persist thread writes whatever is waiting in its queue, up
+ * to {@code batch-size} bills, in one transaction: the bills through the
+ * {@link BulkPersistenceService} and their split results through the
+ * {@link SplitResultWriter}. Batches grow by themselves when the database is
+ * slower than the upstream stages. A failing batch is retried one bill per
+ * transaction, so only the failing bills are rejected.
+ * </p>
+ * <p>
+ * Invalid bills, bills whose readings do not cover their period and bills that
+ * cannot be persisted are reported in the {@link PipelineReport} and do not
+ * stop the run. Queue depths, per-bill latency and throughput are published
+ * through the {@link MetricsRecorder}.
+ * </p>
+ */
+@Service
+public class BillIngestPipeline {
+
+    /**
+     * Source of the bills to ingest.
+     */
+    @FunctionalInterface
+    public interface Source {
+
+        /**
+         * Reads the next bill.
+         *
+         * @return the next bill, or {@code null} when the source is exhausted
+         * @throws IllegalArgumentException if the next element is not a valid
+         *                                  bill; the source moves past it
+         * @throws IOException              if the source cannot be read
+         */
+        SplitJob next() throws IOException;
+
+        /**
+         * Returns a source reading the jobs of an iterable.
+         *
+         * @param jobs the jobs to ingest
+         * @return the source
+         */
+        static Source of(Iterable<SplitJob> jobs) {
+            Iterator<SplitJob> iterator = jobs.iterator();
+            return () -> iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+
+    /**
+     * A bill that left the pipeline without being persisted.
+     *
+     * @param index         0-based position of the bill in the source
+     * @param invoiceNumber invoice number of the bill, {@code null} if it could
+     *                      not be read
+     * @param stage         the stage that rejected the bill
+     * @param message       why the bill was rejected
+     */
+    public record Rejection(long index, String invoiceNumber, String stage, String message) {
+    }
+
+    /**
+     * Outcome of a pipeline run.
+     *
+     * @param ingested       number of elements read from the source
+     * @param persisted      number of bills persisted with their split
+     * @param rejectedCount  number of rejected bills
+     * @param rejections     the rejected bills, up to the configured report
+     *                       limit
+     * @param elapsed        wall-clock duration of the run
+     */
+    public record PipelineReport(long ingested, long persisted, long rejectedCount, List<Rejection> rejections,
+            Duration elapsed) {
+
+        public PipelineReport {
+            rejections = List.copyOf(rejections);
+        }
+
+        /**
+         * Returns the end-to-end throughput of the run.
+         *
+         * @return bills persisted per second
+         */
+        public double billsPerSecond() {
+            return elapsed.isZero() ? 0 : persisted * 1e9 / elapsed.toNanos();
+        }
+    }
+
+    static final String INGEST = "ingest";
+    static final String INTERPOLATE = "interpolate";
+    static final String SPLIT = "split";
+    static final String PERSIST = "persist";
+
+    private record Ingested(long index, SplitJob job, long startNanos) {
+    }
+
+    private record Interpolated(Ingested bill, BigDecimal tenantKwh) {
+    }
+
+    private record Split(Ingested bill, SplitResult result) {
+    }
+
+    private static final Ingested END_INGESTED = new Ingested(-1, null, 0);
+    private static final Interpolated END_INTERPOLATED = new Interpolated(null, null);
+    private static final Split END_SPLIT = new Split(null, null);
+
+    private final MeterConsumptionService consumptionService;
+    private final BillSplitter splitter;
+    private final BulkPersistenceService persistenceService;
+    private final BillMapper billMapper;
+    private final SplitLedgerService ledger;
+    private final MetricsRecorder metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int queueCapacity;
+    private final int interpolateThreads;
+    private final int splitThreads;
+    private final int persistThreads;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final Set<Run> activeRuns = ConcurrentHashMap.newKeySet();
+
+    public BillIngestPipeline(MeterConsumptionService consumptionService, BillSplitter splitter,
+            BulkPersistenceService persistenceService, BillMapper billMapper, SplitLedgerService ledger,
+            MetricsRecorder metrics, PlatformTransactionManager transactionManager,
+            @Value("${utility-manager.pipeline.queue-capacity:1000}") int queueCapacity,
+            @Value("${utility-manager.pipeline.interpolate-parallelism:0}") int interpolateThreads,
+            @Value("${utility-manager.pipeline.split-parallelism:0}") int splitThreads,
+            @Value("${utility-manager.pipeline.persist-parallelism:2}") int persistThreads,
+            @Value("${utility-manager.pipeline.batch-size:500}") int batchSize,
+            @Value("${utility-manager.import.max-reported-errors:1000}") int maxReportedErrors) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive. Got: " + queueCapacity);
+        }
+        if (persistThreads <= 0) {
+            throw new IllegalArgumentException("Persist parallelism must be positive. Got: " + persistThreads);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive. Got: " + batchSize);
+        }
+        this.consumptionService = consumptionService;
+        this.splitter = splitter;
+        this.persistenceService = persistenceService;
+        this.billMapper = billMapper;
+        this.ledger = ledger;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queueCapacity = queueCapacity;
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.interpolateThreads = interpolateThreads > 0 ? interpolateThreads : processors;
+        this.splitThreads = splitThreads > 0 ? splitThreads : processors;
+        this.persistThreads = persistThreads;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        metrics.registerPipelineQueue(INTERPOLATE, () -> depth(run -> run.interpolateQueue.size()));
+        metrics.registerPipelineQueue(SPLIT, () -> depth(run -> run.splitQueue.size()));
+        metrics.registerPipelineQueue(PERSIST, () -> depth(Run::persistDepth));
+    }
+
+    /**
+     * Ingests every bill of a JSON file in the {@link BillJsonWriter} format,
+     * appending the splits to the {@link SplitLedgerService ledger}.
+     *
+     * @param file the JSON file to read
+     * @return the outcome of the run
+     * @throws UncheckedIOException     if the file cannot be read or is not
+     *                                  well-formed JSON
+     * @throws IllegalArgumentException if the file does not contain a JSON array
+     */
+    public PipelineReport ingestFile(Path file) {
+        Objects.requireNonNull(file, "File cannot be null");
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+                BillJsonReader reader = new BillJsonReader(in)) {
+            return run(reader::next, ledger);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+    }
+
+    /**
+     * Runs the pipeline over a source, until the source is exhausted and every
+     * bill has left the pipeline.
+     *
+     * @param source the bills to ingest; they must not be stored yet
+     * @param writer destination of the split results, called in the transaction
+     *               persisting the bill
+     * @return the outcome of the run
+     * @throws UncheckedIOException  if the source cannot be read; bills already
+     *                               persisted stay persisted
+     * @throws IllegalStateException if the run is interrupted or a stage fails
+     *                               unexpectedly
+     */
+    public PipelineReport run(Source source, SplitResultWriter writer) {
+        Objects.requireNonNull(source, "Source cannot be null");
+        Objects.requireNonNull(writer, "Writer cannot be null");
+
+        MetricsRecorder.Sample sample = metrics.startPipeline();
+        long start = System.nanoTime();
+        Run run = new Run(writer);
+        activeRuns.add(run);
+        try {
+            run.start();
+            run.ingest(source);
+            run.await();
+        } finally {
+            activeRuns.remove(run);
+        }
+        metrics.stopPipeline(sample, run.ingested, run.persisted.get(), run.rejectedCount.get());
+
+        return new PipelineReport(run.ingested, run.persisted.get(), run.rejectedCount.get(),
+                run.rejections, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private int depth(ToIntFunction<Run> queueDepth) {
+        int depth = 0;
+        for (Run run : activeRuns) {
+            depth += queueDepth.applyAsInt(run);
+        }
+        return depth;
+    }
+
+    /**
+     * State of a single run: queues, stage threads and report.
+     */
+    private final class Run {
+
+        private final SplitResultWriter writer;
+        private final BlockingQueue<Ingested> interpolateQueue = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<Interpolated> splitQueue = new ArrayBlockingQueue<>(queueCapacity);
+        private final List<BlockingQueue<Split>> persistQueues = new ArrayList<>(persistThreads);
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicInteger interpolatorsLeft = new AtomicInteger(interpolateThreads);
+        private final AtomicInteger splittersLeft = new AtomicInteger(splitThreads);
+        private final CountDownLatch finished;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicLong persisted = new AtomicLong();
+        private final AtomicLong rejectedCount = new AtomicLong();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private long ingested;
+
+        private Run(SplitResultWriter writer) {
+            this.writer = writer;
+            for (int i = 0; i < persistThreads; i++) {
+                persistQueues.add(new ArrayBlockingQueue<>(queueCapacity));
+            }
+            this.finished = new CountDownLatch(interpolateThreads + splitThreads + persistThreads);
+        }
+
+        private void start() {
+            for (int i = 0; i < interpolateThreads; i++) {
+                launch(INTERPOLATE + "-" + i, this::interpolate);
+            }
+            for (int i = 0; i < splitThreads; i++) {
+                launch(SPLIT + "-" + i, this::split);
+            }
+            for (int i = 0; i < persistThreads; i++) {
+                BlockingQueue<Split> queue = persistQueues.get(i);
+                launch(PERSIST + "-" + i, () -> persist(queue));
+            }
+        }
+
+        private void launch(String name, InterruptibleTask task) {
+            Thread thread = new Thread(() -> {
+                try {
+                    task.run();
+                } catch (InterruptedException e) {
+                    // Aborted: the failure is already recorded
+                } catch (Throwable e) {
+                    abort(e);
+                } finally {
+                    finished.countDown();
+                }
+            }, "bill-pipeline-" + name);
+            threads.add(thread);
+            thread.start();
+        }
+
+        /**
+         * Ingest stage, on the calling thread.
+         */
+        private void ingest(Source source) {
+            try {
+                while (failure.get() == null) {
+                    SplitJob job;
+                    try {
+                        job = source.next();
+                    } catch (IllegalArgumentException e) {
+                        reject(ingested++, null, INGEST, e.getMessage(), 0);
+                        continue;
+                    }
+                    if (job == null) {
+                        for (int i = 0; i < interpolateThreads; i++) {
+                            offer(END_INGESTED);
+                        }
+                        return;
+                    }
+                    offer(new Ingested(ingested++, job, metrics.startPipelineItem()));
+                }
+            } catch (IOException | RuntimeException e) {
+                abort(e);
+            } catch (InterruptedException e) {
+                abort(e);
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Queues an ingested bill, blocking while the interpolation stage is
+         * behind. The calling thread is not interrupted when another stage
+         * fails, so the wait is cut short by polling the failure instead.
+         */
+        private void offer(Ingested bill) throws InterruptedException {
+            while (!interpolateQueue.offer(bill, 100, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) {
+                    return;
+                }
+            }
+        }
+
+        private void interpolate() throws InterruptedException {
+            while (true) {
+                Ingested bill = interpolateQueue.take();
+                if (bill == END_INGESTED) {
+                    break;
+                }
+                SplitJob job = bill.job();
+                try {
+                    BigDecimal tenantKwh = consumptionService.calculateConsumption(job.tenantMeterId(),
+                            job.bill().period().start(), job.bill().period().end());
+                    splitQueue.put(new Interpolated(bill, tenantKwh));
+                } catch (RuntimeException e) {
+                    reject(bill, INTERPOLATE, e.getMessage());
+                }
+            }
+            if (interpolatorsLeft.decrementAndGet() == 0) {
+                for (int i = 0; i < splitThreads; i++) {
+                    splitQueue.put(END_INTERPOLATED);
+                }
+            }
+        }
+
+        private void split() throws InterruptedException {
+            while (true) {
+                Interpolated bill = splitQueue.take();
+                if (bill == END_INTERPOLATED) {
+                    break;
+                }
+                SplitJob job = bill.bill().job();
+                try {
+                    SplitResult result = splitter.splitBill(job.bill(), bill.tenantKwh());
+                    persistQueue(job.buildingId()).put(new Split(bill.bill(), result));
+                } catch (RuntimeException e) {
+                    reject(bill.bill(), SPLIT, e.getMessage());
+                }
+            }
+            if (splittersLeft.decrementAndGet() == 0) {
+                for (BlockingQueue<Split> queue : persistQueues) {
+                    queue.put(END_SPLIT);
+                }
+            }
+        }
+
+        private void persist(BlockingQueue<Split> queue) throws InterruptedException {
+            List<Split> batch = new ArrayList<>(batchSize);
+            boolean done = false;
+            while (!done) {
+                // Take whatever is waiting, without waiting for a full batch
+                Split bill = queue.take();
+                do {
+                    if (bill == END_SPLIT) {
+                        done = true;
+                        break;
+                    }
+                    batch.add(bill);
+                } while (batch.size() < batchSize && (bill = queue.poll()) != null);
+
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        private void write(List<Split> batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> save(batch));
+                for (Split bill : batch) {
+                    persisted(bill.bill());
+                }
+            } catch (RuntimeException batchFailure) {
+                for (Split bill : batch) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> save(List.of(bill)));
+                        persisted(bill.bill());
+                    } catch (RuntimeException e) {
+                        reject(bill.bill(), PERSIST, e.getMessage());
+                    }
+                }
+            }
+        }
+
+        private void save(List<Split> batch) {
+            List<BillEntity> entities = new ArrayList<>(batch.size());
+            for (Split bill : batch) {
+                SplitJob job = bill.bill().job();
+                entities.add(billMapper.toEntity(job.bill(), job.buildingId(), job.tenantMeterId()));
+            }
+            persistenceService.saveBills(entities);
+            for (Split bill : batch) {
+                writer.write(bill.bill().job(), bill.result());
+            }
+        }
+
+        private BlockingQueue<Split> persistQueue(String buildingId) {
+            return persistQueues.get(Math.floorMod(buildingId.hashCode(), persistQueues.size()));
+        }
+
+        private int persistDepth() {
+            int depth = 0;
+            for (BlockingQueue<Split> queue : persistQueues) {
+                depth += queue.size();
+            }
+            return depth;
+        }
+
+        private void persisted(Ingested bill) {
+            persisted.incrementAndGet();
+            metrics.stopPipelineItem(bill.startNanos(), true);
+        }
+
+        private void reject(Ingested bill, String stage, String message) {
+            reject(bill.index(), bill.job().bill().invoiceNumber(), stage, message, bill.startNanos());
+        }
+
+        private void reject(long index, String invoiceNumber, String stage, String message, long startNanos) {
+            rejectedCount.incrementAndGet();
+            metrics.stopPipelineItem(startNanos, false);
+            synchronized (rejections) {
+                if (rejections.size() < maxReportedErrors) {
+                    rejections.add(new Rejection(index, invoiceNumber, stage, message));
+                }
+            }
+        }
+
+        private void abort(Throwable cause) {
+            if (!failure.compareAndSet(null, cause)) {
+                return;
+            }
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+
+        private void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // Stop the stages, then wait for them to exit
+                    interrupted = true;
+                    abort(e);
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            Throwable cause = failure.get();
+            if (cause instanceof IOException io) {
+                throw new UncheckedIOException("Failed to read the bill source", io);
+            }
+            if (cause instanceof InterruptedException) {
+                throw new IllegalStateException("Interrupted while ingesting bills", cause);
+            }
+            if (cause != null) {
+                throw new IllegalStateException("Bill pipeline failed", cause);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleTask {
+        void run() throws InterruptedException;
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+
+/**
+ * Exports every stored bill as a JSON array in the {@link BillJsonWriter}
+ * format.
+ * <p>
+ * Bills are loaded in keyset chunks ordered by period start, each in its own
+ * read-only transaction, and written as soon as they are loaded, so memory use
+ * is bounded by one chunk whatever the number of bills.
+ * </p>
+ */
+@Service
+public class BillJsonExporter {
+
+    private final BillRepository billRepository;
+    private final BillMapper billMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BillJsonExporter(BillRepository billRepository, BillMapper billMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${utility-manager.export.chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive. Got: " + chunkSize);
+        }
+        this.billRepository = billRepository;
+        this.billMapper = billMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Exports every bill to a JSON file, replacing it if it exists.
+     *
+     * @param file the file to write
+     * @return the number of bills exported
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public long exportFile(Path file) {
+        Objects.requireNonNull(file, "File cannot be null");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            return exportBills(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + file, e);
+        }
+    }
+
+    /**
+     * Exports every bill to a stream, ordered by period start. The stream is
+     * closed once the array is complete.
+     *
+     * @param out the stream to write to
+     * @return the number of bills exported
+     * @throws IOException if the stream cannot be written
+     */
+    public long exportBills(OutputStream out) throws IOException {
+        Objects.requireNonNull(out, "Output stream cannot be null");
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        try (BillJsonWriter writer = new BillJsonWriter(out)) {
+            BillEntity last = null;
+            while (true) {
+                BillEntity from = last;
+                List<BillEntity> bills = transactionTemplate.execute(status -> from == null
+                        ? billRepository.findFirstChunkWithCharges(chunk)
+                        : billRepository.findNextChunkWithCharges(from.getPeriodStart(), from.getId(), chunk));
+                if (bills.isEmpty()) {
+                    return writer.written();
+                }
+                for (BillEntity bill : bills) {
+                    writer.write(new SplitJob(bill.getBuildingId(), billMapper.toDomain(bill),
+                            bill.getTenantMeterId()));
+                }
+                last = bills.get(bills.size() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+
+/**
+ * Bulk importer of bills from JSON arrays in the {@link BillJsonWriter} format.
+ * <p>
+ * Bills are read one at a time by a {@link BillJsonReader} and inserted in
+ * batches through the {@link BulkPersistenceService}, so only one batch is
+ * held in memory however large the file. Invalid bills and bills whose invoice
+ * number is already stored (or repeated within the batch) are collected in the
+ * {@link ImportReport} and do not stop the import.
+ * </p>
+ * <p>
+ * Invoice numbers are checked against a {@link DuplicateFilter} loaded with
+ * the stored invoice numbers when the import starts: only the numbers it may
+ * contain are looked up in the database, once per batch, and a batch of new
+ * bills reaches the database with its inserts alone.
+ * </p>
+ */
+@Service
+public class BillJsonImporter {
+
+    /**
+     * A rejected bill.
+     *
+     * @param index         0-based position of the bill in the array
+     * @param invoiceNumber invoice number of the bill, {@code null} if it could
+     *                      not be read
+     * @param message       why the bill was rejected
+     */
+    public record ImportError(long index, String invoiceNumber, String message) {
+    }
+
+    /**
+     * Outcome of an import.
+     *
+     * @param read           number of array elements read
+     * @param imported       number of bills saved
+     * @param errorCount     number of rejected bills
+     * @param errors         the rejected bills, up to the configured report
+     *                       limit
+     * @param duplicateCheck outcome of the invoice number pre-check
+     */
+    public record ImportReport(long read, long imported, long errorCount, List<ImportError> errors,
+            DuplicateFilter.Report duplicateCheck) {
+    }
+
+    // Stored invoice numbers loaded per query when the import starts
+    private static final int KEY_CHUNK_SIZE = 10_000;
+
+    private final BulkPersistenceService persistenceService;
+    private final BillRepository billRepository;
+    private final BillMapper billMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final double duplicateFilterFpp;
+    private final long duplicateFilterMaxBytes;
+
+    public BillJsonImporter(BulkPersistenceService persistenceService, BillRepository billRepository,
+            BillMapper billMapper,
+            @Value("${utility-manager.import.batch-size:1000}") int batchSize,
+            @Value("${utility-manager.import.max-reported-errors:1000}") int maxReportedErrors,
+            @Value("${utility-manager.import.duplicate-filter.fpp:0.01}") double duplicateFilterFpp,
+            @Value("${utility-manager.import.duplicate-filter.max-bytes:16777216}") long duplicateFilterMaxBytes) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive. Got: " + batchSize);
+        }
+        this.persistenceService = persistenceService;
+        this.billRepository = billRepository;
+        this.billMapper = billMapper;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.duplicateFilterFpp = duplicateFilterFpp;
+        this.duplicateFilterMaxBytes = duplicateFilterMaxBytes;
+    }
+
+    /**
+     * Imports every bill of a JSON file.
+     *
+     * @param file the JSON file to read
+     * @return the import report
+     * @throws UncheckedIOException     if the file cannot be read or is not
+     *                                  well-formed JSON
+     * @throws IllegalArgumentException if the file does not contain a JSON array
+     */
+    public ImportReport importFile(Path file) {
+        Objects.requireNonNull(file, "File cannot be null");
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return importBills(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+    }
+
+    /**
+     * Imports every bill of a JSON array read from a stream. The stream is
+     * closed once the array has been read.
+     *
+     * @param in the stream to read
+     * @return the import report
+     * @throws IOException              if the stream cannot be read or is not
+     *                                  well-formed JSON
+     * @throws IllegalArgumentException if the stream does not contain a JSON
+     *                                  array
+     */
+    public ImportReport importBills(InputStream in) throws IOException {
+        Objects.requireNonNull(in, "Input stream cannot be null");
+        Run run = new Run(loadInvoiceNumbers());
+        try (BillJsonReader reader = new BillJsonReader(in)) {
+            while (true) {
+                SplitJob job;
+                try {
+                    job = reader.next();
+                } catch (IllegalArgumentException e) {
+                    run.read++;
+                    run.reject(reader.index(), null, e.getMessage());
+                    continue;
+                }
+                if (job == null) {
+                    break;
+                }
+                run.read++;
+                run.accept(reader.index(), job);
+            }
+        }
+        run.flush();
+        return new ImportReport(run.read, run.imported, run.errorCount, List.copyOf(run.errors),
+                run.duplicates.report());
+    }
+
+    private DuplicateFilter loadInvoiceNumbers() {
+        DuplicateFilter filter = DuplicateFilter.create(billRepository.count(), duplicateFilterFpp,
+                duplicateFilterMaxBytes);
+        List<String> chunk = billRepository.findInvoiceNumbersAfter("", PageRequest.of(0, KEY_CHUNK_SIZE));
+        while (!chunk.isEmpty()) {
+            chunk.forEach(filter::addStored);
+            chunk = chunk.size() < KEY_CHUNK_SIZE ? List.of()
+                    : billRepository.findInvoiceNumbersAfter(chunk.get(chunk.size() - 1),
+                            PageRequest.of(0, KEY_CHUNK_SIZE));
+        }
+        return filter;
+    }
+
+    /**
+     * State of a single import: duplicate filter, pending batch and report.
+     */
+    private final class Run {
+
+        private record Pending(long index, BillEntity entity) {
+        }
+
+        private final DuplicateFilter duplicates;
+        private final List<ImportError> errors = new ArrayList<>();
+        private Map<String, Pending> batch = new LinkedHashMap<>();
+        private long read;
+        private long imported;
+        private long errorCount;
+
+        private Run(DuplicateFilter duplicates) {
+            this.duplicates = duplicates;
+        }
+
+        private void accept(long index, SplitJob job) {
+            String invoiceNumber = job.bill().invoiceNumber();
+            if (batch.containsKey(invoiceNumber)) {
+                reject(index, invoiceNumber, "Duplicate invoice number " + invoiceNumber);
+                return;
+            }
+            batch.put(invoiceNumber,
+                    new Pending(index, billMapper.toEntity(job.bill(), job.buildingId(), job.tenantMeterId())));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(long index, String invoiceNumber, String message) {
+            errorCount++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportError(index, invoiceNumber, message));
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<String> maybeStored = new ArrayList<>();
+            for (String invoiceNumber : batch.keySet()) {
+                if (duplicates.mightBeStored(invoiceNumber)) {
+                    maybeStored.add(invoiceNumber);
+                }
+            }
+            Set<String> existing = maybeStored.isEmpty() ? Set.of()
+                    : new HashSet<>(billRepository.findExistingInvoiceNumbers(maybeStored));
+            duplicates.confirmed(existing.size());
+
+            List<BillEntity> inserts = new ArrayList<>(batch.size());
+            for (Map.Entry<String, Pending> entry : batch.entrySet()) {
+                if (existing.contains(entry.getKey())) {
+                    reject(entry.getValue().index(), entry.getKey(), "Invoice number already stored");
+                } else {
+                    inserts.add(entry.getValue().entity());
+                    // Catches the number if a later batch repeats it
+                    duplicates.add(entry.getKey());
+                }
+            }
+            imported += persistenceService.saveBills(inserts);
+            batch = new LinkedHashMap<>();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.CostComponent;
+import com.github.simonelupone.bill.utility_manager.domain.model.SocialBonus;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+
+/**
+ * Reads bills one at a time from a JSON array in the format written by
+ * {@link BillJsonWriter}.
+ * <p>
+ * The array is read token by token with Jackson's streaming parser, never as a
+ * tree or a bound list, so memory use does not depend on the number of bills.
+ * Each bill is built through the compact constructors of the domain records as
+ * soon as its object ends. An invalid bill fails only its own element: the
+ * reader moves past it and the next call reads the following bill. Unknown
+ * fields are ignored.
+ * </p>
+ */
+public class BillJsonReader implements Closeable {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private final JsonStreamContext arrayContext;
+    private long index = -1;
+
+    /**
+     * Opens a reader on a JSON array of bills. Closing the reader closes the
+     * stream.
+     *
+     * @param in the stream to read
+     * @throws IOException              if the stream cannot be read
+     * @throws IllegalArgumentException if the document is not a JSON array
+     */
+    public BillJsonReader(InputStream in) throws IOException {
+        this.parser = FACTORY.createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException("Expected a JSON array of bills");
+        }
+        this.arrayContext = parser.getParsingContext();
+    }
+
+    /**
+     * Reads the next bill of the array.
+     *
+     * @return the bill with its building and tenant meter, or {@code null} at
+     *         the end of the array
+     * @throws IllegalArgumentException if the element is not a valid bill; the
+     *                                  reader is left on the next element
+     * @throws IOException              if the stream cannot be read or is not
+     *                                  well-formed JSON
+     */
+    public SplitJob next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY || token == null) {
+            return null;
+        }
+        index++;
+        try {
+            expect(token, JsonToken.START_OBJECT, "bill");
+            return readJob();
+        } catch (IllegalArgumentException | NullPointerException | DateTimeException e) {
+            skipElement();
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the 0-based position in the array of the element last read by
+     * {@link #next()}.
+     *
+     * @return the element index, {@code -1} before the first element
+     */
+    public long index() {
+        return index;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private SplitJob readJob() throws IOException {
+        String invoiceNumber = null;
+        String buildingId = null;
+        String tenantMeterId = null;
+        BillPeriod period = null;
+        BigDecimal totalKwh = null;
+        BillCharges charges = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "invoiceNumber" -> invoiceNumber = string(value, field);
+                case "buildingId" -> buildingId = string(value, field);
+                case "tenantMeterId" -> tenantMeterId = string(value, field);
+                case "period" -> period = readPeriod(value);
+                case "totalKwh" -> totalKwh = decimal(value, field);
+                case "charges" -> charges = readCharges(value);
+                default -> parser.skipChildren();
+            }
+        }
+        return new SplitJob(buildingId, new Bill(invoiceNumber, period, totalKwh, charges), tenantMeterId);
+    }
+
+    private BillPeriod readPeriod(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.START_OBJECT, "period");
+        LocalDate start = null;
+        LocalDate end = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "start" -> start = date(value, field);
+                case "end" -> end = date(value, field);
+                default -> parser.skipChildren();
+            }
+        }
+        return new BillPeriod(start, end);
+    }
+
+    private BillCharges readCharges(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.START_OBJECT, "charges");
+        CostComponent energyVariable = null;
+        CostComponent transportFixed = null;
+        CostComponent transportPowerQuota = null;
+        CostComponent exciseAndVat = null;
+        BigDecimal tvTax = null;
+        SocialBonus socialBonus = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "energyVariable" -> energyVariable = readCostComponent(value, field);
+                case "transportFixed" -> transportFixed = readCostComponent(value, field);
+                case "transportPowerQuota" -> transportPowerQuota = readCostComponent(value, field);
+                case "exciseAndVat" -> exciseAndVat = readCostComponent(value, field);
+                case "tvTax" -> tvTax = decimal(value, field);
+                case "socialBonus" -> socialBonus = readSocialBonus(value);
+                default -> parser.skipChildren();
+            }
+        }
+        return new BillCharges(energyVariable, transportFixed, transportPowerQuota, exciseAndVat,
+                Optional.ofNullable(tvTax), Optional.ofNullable(socialBonus));
+    }
+
+    private CostComponent readCostComponent(JsonToken token, String name) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.START_OBJECT, name);
+        BigDecimal amount = null;
+        BigDecimal unitPrice = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "amount" -> amount = decimal(value, name + ".amount");
+                case "unitPrice" -> unitPrice = decimal(value, name + ".unitPrice");
+                default -> parser.skipChildren();
+            }
+        }
+        return new CostComponent(amount, unitPrice);
+    }
+
+    private SocialBonus readSocialBonus(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.START_OBJECT, "socialBonus");
+        Integer months = null;
+        BigDecimal amount = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "months" -> {
+                    expect(value, JsonToken.VALUE_NUMBER_INT, "socialBonus.months");
+                    months = parser.getIntValue();
+                }
+                case "amount" -> amount = decimal(value, "socialBonus.amount");
+                default -> parser.skipChildren();
+            }
+        }
+        if (months == null) {
+            throw new IllegalArgumentException("Social bonus months cannot be null");
+        }
+        return new SocialBonus(months, amount);
+    }
+
+    private String string(JsonToken token, String field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.VALUE_STRING, field);
+        return parser.getText();
+    }
+
+    private LocalDate date(JsonToken token, String field) throws IOException {
+        String text = string(token, field);
+        return text == null ? null : LocalDate.parse(text);
+    }
+
+    private BigDecimal decimal(JsonToken token, String field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            throw new IllegalArgumentException("Expected a number for '" + field + "'. Got: " + token);
+        }
+        return parser.getDecimalValue();
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, String field) {
+        if (actual != expected) {
+            throw new IllegalArgumentException(
+                    "Expected " + expected + " for '" + field + "'. Got: " + actual);
+        }
+    }
+
+    /**
+     * Moves the parser to the last token of the current array element, so that
+     * the next token is the following element or the end of the array.
+     */
+    private void skipElement() throws IOException {
+        while (parser.getParsingContext() != arrayContext) {
+            if (parser.nextToken() == null) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+import com.github.simonelupone.bill.utility_manager.domain.model.CostComponent;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+
+/**
+ * Writes bills as a JSON array, one element at a time, with Jackson's
+ * streaming generator.
+ * <p>
+ * Each element carries the fields of the {@link Bill} record, its
+ * {@link BillCharges} and the building and tenant meter it belongs to:
+ * </p>
+ *
+ * <pre>
+ * {"invoiceNumber":"2024-001","buildingId":"building-1","tenantMeterId":"meter-1",
+ *  "period":{"start":"2024-01-01","end":"2024-02-29"},"totalKwh":1249.58,
+ *  "charges":{"energyVariable":{"amount":187.43,"unitPrice":0.15},
+ *             "transportFixed":{"amount":31.22},"transportPowerQuota":{"amount":19.87},
+ *             "exciseAndVat":{"amount":52.18},"tvTax":18.00,
+ *             "socialBonus":{"months":2,"amount":-48.30}}}
+ * </pre>
+ * <p>
+ * Amounts are written as plain decimal numbers with their scale; absent
+ * optional values are omitted. The array is closed by {@link #close()}.
+ * </p>
+ */
+public class BillJsonWriter implements Closeable {
+
+    static final JsonFactory FACTORY = JsonFactory.builder()
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .build();
+
+    private final JsonGenerator generator;
+    private long written;
+
+    /**
+     * Opens a writer and starts the array. Closing the writer closes the
+     * stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public BillJsonWriter(OutputStream out) throws IOException {
+        this.generator = FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        generator.writeStartArray();
+    }
+
+    /**
+     * Writes one bill.
+     *
+     * @param job the bill with its building and tenant meter
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(SplitJob job) throws IOException {
+        Bill bill = job.bill();
+        generator.writeStartObject();
+        generator.writeStringField("invoiceNumber", bill.invoiceNumber());
+        generator.writeStringField("buildingId", job.buildingId());
+        generator.writeStringField("tenantMeterId", job.tenantMeterId());
+        generator.writeObjectFieldStart("period");
+        generator.writeStringField("start", bill.period().start().toString());
+        generator.writeStringField("end", bill.period().end().toString());
+        generator.writeEndObject();
+        generator.writeNumberField("totalKwh", bill.totalKwh());
+
+        BillCharges charges = bill.charges();
+        generator.writeObjectFieldStart("charges");
+        writeCostComponent("energyVariable", charges.energyVariable());
+        writeCostComponent("transportFixed", charges.transportFixed());
+        writeCostComponent("transportPowerQuota", charges.transportPowerQuota());
+        writeCostComponent("exciseAndVat", charges.exciseAndVat());
+        if (charges.tvTax().isPresent()) {
+            generator.writeNumberField("tvTax", charges.tvTax().get());
+        }
+        if (charges.socialBonus().isPresent()) {
+            generator.writeObjectFieldStart("socialBonus");
+            generator.writeNumberField("months", charges.socialBonus().get().months());
+            generator.writeNumberField("amount", charges.socialBonus().get().amount());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        written++;
+    }
+
+    /**
+     * Returns the number of bills written so far.
+     *
+     * @return the bill count
+     */
+    public long written() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    private void writeCostComponent(String field, CostComponent component) throws IOException {
+        generator.writeObjectFieldStart(field);
+        generator.writeNumberField("amount", component.amount());
+        BigDecimal unitPrice = component.unitPrice();
+        if (unitPrice != null) {
+            generator.writeNumberField("unitPrice", unitPrice);
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.CostComponent;
+import com.github.simonelupone.bill.utility_manager.domain.model.SocialBonus;
+import com.github.simonelupone.bill.utility_manager.persistence.BillChargesEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+
+/**
+ * Maps between the {@link BillEntity}/{@link BillChargesEntity} persistence
+ * model and the {@link Bill} aggregate.
+ * <p>
+ * Domain records are built directly through their compact constructors, so
+ * every mapped bill is validated.
+ * </p>
+ */
+@Component
+public class BillMapper {
+
+    /**
+     * Builds the domain bill of an entity whose charges are already loaded.
+     *
+     * @param entity the bill entity
+     * @return the domain bill
+     * @throws IllegalStateException if the bill has no charges
+     */
+    public Bill toDomain(BillEntity entity) {
+        BillChargesEntity charges = entity.getCharges();
+        if (charges == null) {
+            throw new IllegalStateException("Bill " + entity.getInvoiceNumber() + " has no charges");
+        }
+
+        Optional<SocialBonus> socialBonus = charges.getSocialBonusAmount() == null
+                ? Optional.empty()
+                : Optional.of(new SocialBonus(charges.getSocialBonusMonths(), charges.getSocialBonusAmount()));
+
+        BillCharges billCharges = new BillCharges(
+                CostComponent.of(charges.getEnergyVariableAmount(), charges.getEnergyVariableUnitPrice()),
+                CostComponent.of(charges.getTransportFixedAmount(), charges.getTransportFixedUnitPrice()),
+                CostComponent.of(charges.getTransportPowerAmount(), charges.getTransportPowerUnitPrice()),
+                CostComponent.of(charges.getExciseVatAmount(), charges.getExciseVatUnitPrice()),
+                Optional.ofNullable(charges.getTvTaxAmount()),
+                socialBonus);
+
+        return new Bill(
+                entity.getInvoiceNumber(),
+                BillPeriod.of(entity.getPeriodStart(), entity.getPeriodEnd()),
+                entity.getTotalKwh(),
+                billCharges);
+    }
+
+    /**
+     * Builds a new (not yet persisted) entity for a domain bill, with its charges
+     * linked.
+     *
+     * @param bill          the domain bill
+     * @param buildingId    identifier of the building the bill belongs to
+     * @param tenantMeterId identifier of the tenant sub-meter
+     * @return the bill entity
+     */
+    public BillEntity toEntity(Bill bill, String buildingId, String tenantMeterId) {
+        Objects.requireNonNull(bill, "Bill cannot be null");
+
+        BillEntity entity = new BillEntity();
+        entity.setInvoiceNumber(bill.invoiceNumber());
+        entity.setBuildingId(buildingId);
+        entity.setTenantMeterId(tenantMeterId);
+        entity.setPeriodStart(bill.period().start());
+        entity.setPeriodEnd(bill.period().end());
+        entity.setTotalKwh(bill.totalKwh());
+
+        BillCharges source = bill.charges();
+        BillChargesEntity charges = new BillChargesEntity();
+        charges.setBill(entity);
+        charges.setEnergyVariableAmount(source.energyVariable().amount());
+        charges.setEnergyVariableUnitPrice(source.energyVariable().unitPrice());
+        charges.setTransportFixedAmount(source.transportFixed().amount());
+        charges.setTransportFixedUnitPrice(source.transportFixed().unitPrice());
+        charges.setTransportPowerAmount(source.transportPowerQuota().amount());
+        charges.setTransportPowerUnitPrice(source.transportPowerQuota().unitPrice());
+        charges.setExciseVatAmount(source.exciseAndVat().amount());
+        charges.setExciseVatUnitPrice(source.exciseAndVat().unitPrice());
+        charges.setTvTaxAmount(source.tvTax().orElse(null));
+        charges.setSocialBonusAmount(source.socialBonus().map(SocialBonus::amount).orElse(null));
+        charges.setSocialBonusMonths(source.socialBonus().map(SocialBonus::months).orElse(null));
+        entity.setCharges(charges);
+
+        return entity;
+    }
+}
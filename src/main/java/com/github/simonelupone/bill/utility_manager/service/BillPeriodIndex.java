@@ -0,0 +1,164 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.simonelupone.bill.utility_manager.persistence.BillChangedEvent;
+import com.github.simonelupone.bill.utility_manager.persistence.BillChangedEvent.ChangeType;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository.PeriodView;
+
+/**
+ * In-memory interval index over the periods of all bills, answering "which
+ * bills cover this date" and "which bills overlap this range" in logarithmic
+ * time.
+ * <p>
+ * The index is loaded lazily on first use from a projection of the bills
+ * table, then kept in sync by the {@link BillChangedEvent}s of committed
+ * transactions. Bulk JPQL writes bypass those events: call {@link #rebuild()}
+ * after them. {@link BillRepository#findCoveringDate} and
+ * {@link BillRepository#findOverlapping} answer the same queries from the
+ * database.
+ * </p>
+ */
+@Component
+public class BillPeriodIndex {
+
+    private final BillRepository billRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntervalTree tree = new IntervalTree();
+    // Indexed period start of each bill, to remove it when it changes
+    private final Map<Long, Long> startById = new HashMap<>();
+    private volatile boolean loaded;
+
+    public BillPeriodIndex(BillRepository billRepository) {
+        this.billRepository = billRepository;
+    }
+
+    /**
+     * Returns the ids of the bills whose period contains a date.
+     *
+     * @param date the date to look up
+     * @return the bill ids, ordered by period start then id
+     */
+    public List<Long> findCovering(LocalDate date) {
+        Objects.requireNonNull(date, "Date cannot be null");
+        return query(date.toEpochDay(), date.toEpochDay());
+    }
+
+    /**
+     * Returns the ids of the bills whose period overlaps a date range.
+     *
+     * @param from first day of the range
+     * @param to   last day of the range (inclusive)
+     * @return the bill ids, ordered by period start then id
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     */
+    public List<Long> findOverlapping(LocalDate from, LocalDate to) {
+        Objects.requireNonNull(from, "From date cannot be null");
+        Objects.requireNonNull(to, "To date cannot be null");
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("From date must be before or equal to to date");
+        }
+        return query(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Returns the number of indexed bills.
+     *
+     * @return the index size
+     */
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads the index from the bills table.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed bill change to the index. Changes committed before
+     * the index is first loaded are ignored, since loading reads them anyway.
+     *
+     * @param event the bill change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillChanged(BillChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            Long previousStart = startById.remove(event.billId());
+            if (previousStart != null) {
+                tree.remove(previousStart, event.billId());
+            }
+            if (event.type() != ChangeType.DELETED) {
+                add(event.billId(), event.periodStart(), event.periodEnd());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Long> query(long from, long to) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return tree.overlapping(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                load();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void load() {
+        tree.clear();
+        startById.clear();
+        for (PeriodView bill : billRepository.findAllProjectedBy()) {
+            add(bill.getId(), bill.getPeriodStart(), bill.getPeriodEnd());
+        }
+        loaded = true;
+    }
+
+    private void add(long billId, LocalDate start, LocalDate end) {
+        tree.insert(start.toEpochDay(), end.toEpochDay(), billId);
+        startById.put(billId, start.toEpochDay());
+    }
+}
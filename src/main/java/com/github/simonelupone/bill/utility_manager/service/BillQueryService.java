@@ -0,0 +1,107 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+
+/**
+ * Read path for {@link Bill} aggregates.
+ * <p>
+ * Bills and their charges are loaded with one joined query per call (or per
+ * page), so listing bills costs a constant number of SQL statements instead of
+ * one extra query per bill.
+ * </p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class BillQueryService {
+
+    private final BillRepository billRepository;
+    private final BillMapper billMapper;
+    private final BillPeriodIndex periodIndex;
+
+    public BillQueryService(BillRepository billRepository, BillMapper billMapper, BillPeriodIndex periodIndex) {
+        this.billRepository = billRepository;
+        this.billMapper = billMapper;
+        this.periodIndex = periodIndex;
+    }
+
+    /**
+     * Lists the bills whose period starts within a date range.
+     *
+     * @param from the first period start to include
+     * @param to   the last period start to include
+     * @return the bills ordered by period start
+     */
+    public List<Bill> findBills(LocalDate from, LocalDate to) {
+        return billRepository.findWithChargesByPeriodStartBetween(from, to).stream()
+                .map(billMapper::toDomain)
+                .toList();
+    }
+
+    /**
+     * Lists one page of the bills of a building.
+     *
+     * @param buildingId identifier of the building
+     * @param pageable   the page to load
+     * @return the page of bills ordered by period start
+     */
+    public Page<Bill> findBills(String buildingId, Pageable pageable) {
+        return billRepository.findWithChargesByBuildingId(buildingId, pageable).map(billMapper::toDomain);
+    }
+
+    /**
+     * Lists the bills whose period contains a date, looked up in the
+     * {@link BillPeriodIndex}.
+     *
+     * @param date the date to look up
+     * @return the bills ordered by period start
+     */
+    public List<Bill> findBillsCovering(LocalDate date) {
+        return load(periodIndex.findCovering(date));
+    }
+
+    /**
+     * Lists the bills whose period overlaps a date range, looked up in the
+     * {@link BillPeriodIndex}.
+     *
+     * @param from first day of the range
+     * @param to   last day of the range (inclusive)
+     * @return the bills ordered by period start
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     */
+    public List<Bill> findBillsOverlapping(LocalDate from, LocalDate to) {
+        return load(periodIndex.findOverlapping(from, to));
+    }
+
+    /**
+     * Loads a stored bill as a job for the {@link BatchSplitService}, with the
+     * building and tenant meter it was stored with.
+     *
+     * @param invoiceNumber invoice number of the bill
+     * @return the split job, or empty if no bill has that invoice number
+     */
+    public Optional<SplitJob> findSplitJob(String invoiceNumber) {
+        return billRepository.findWithChargesByInvoiceNumber(invoiceNumber)
+                .map(entity -> new SplitJob(entity.getBuildingId(), billMapper.toDomain(entity),
+                        entity.getTenantMeterId()));
+    }
+
+    private List<Bill> load(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return billRepository.findWithChargesByIdIn(ids).stream()
+                .map(billMapper::toDomain)
+                .toList();
+    }
+}
@@ -0,0 +1,264 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * Service re-splitting only the bills affected by a new, corrected or deleted
+ * reading.
+ * <p>
+ * A reading only takes part in the interpolation of the dates between its
+ * neighbouring readings, so a change on date {@code d} can only move the
+ * counter value of bill boundaries strictly between the previous and the next
+ * reading of the same meter. Those boundaries are looked up as a date window
+ * on the bills of the tenant sub-meter, and only the matching bills are split
+ * again and appended to the {@link SplitLedgerService ledger}, which records
+ * the differences as adjustments. They are split from the readings directly,
+ * bypassing the {@link SplitResultCache}: it may still hold results computed
+ * from the previous readings by splits running while the change was being
+ * committed.
+ * </p>
+ * <p>
+ * Reading changes are collected per transaction and picked up once it
+ * commits, so a bulk import triggers one recomputation per meter rather than
+ * one per reading. Each recomputation runs in a transaction of its own and
+ * its {@link RecomputationReport} is published as an application event. The
+ * reading change is already committed by then, so a recomputation that fails,
+ * for example on a concurrent ledger update, does not reach the writer: the
+ * failure is published in the report of the meter instead.
+ * </p>
+ */
+@Service
+public class BillRecomputationService {
+
+    /**
+     * Dates whose interpolated counter value may have changed, both inclusive.
+     *
+     * @param from first affected date
+     * @param to   last affected date
+     */
+    public record Window(LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * Outcome of a recomputation.
+     *
+     * @param meterId          identifier of the changed meter
+     * @param windows          affected date windows, ordered and not
+     *                         overlapping
+     * @param resplitInvoices  invoices of the bills split again
+     * @param changedInvoices  invoices whose split result changed
+     * @param failedInvoices   invoices that could not be split, for example
+     *                         because a deleted reading left a boundary
+     *                         uncovered
+     * @param error            why the recomputation of the meter failed as a
+     *                         whole, rolling back its ledger entries, or
+     *                         {@code null} if it completed
+     */
+    public record RecomputationReport(
+            String meterId,
+            List<Window> windows,
+            List<String> resplitInvoices,
+            List<String> changedInvoices,
+            List<String> failedInvoices,
+            String error) {
+
+        public RecomputationReport {
+            windows = List.copyOf(windows);
+            resplitInvoices = List.copyOf(resplitInvoices);
+            changedInvoices = List.copyOf(changedInvoices);
+            failedInvoices = List.copyOf(failedInvoices);
+        }
+    }
+
+    private final BillRepository billRepository;
+    private final BillMapper billMapper;
+    private final ReadingSeriesCache readingSeriesCache;
+    private final BatchSplitService splitService;
+    private final SplitLedgerService ledger;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public BillRecomputationService(BillRepository billRepository,
+            BillMapper billMapper,
+            ReadingSeriesCache readingSeriesCache,
+            BatchSplitService splitService,
+            SplitLedgerService ledger,
+            ApplicationEventPublisher publisher,
+            PlatformTransactionManager transactionManager) {
+        this.billRepository = billRepository;
+        this.billMapper = billMapper;
+        this.readingSeriesCache = readingSeriesCache;
+        this.splitService = splitService;
+        this.ledger = ledger;
+        this.publisher = publisher;
+        // Runs after the commit of the reading change, while its transaction
+        // resources are still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Records a reading change, to be recomputed once its transaction commits
+     * (or immediately when there is no transaction).
+     *
+     * @param event the reading change
+     */
+    @EventListener
+    public void onReadingChanged(ReadingChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<String, Set<LocalDate>> changes = new LinkedHashMap<>();
+            addChange(changes, event);
+            recomputeAndPublish(changes);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Set<LocalDate>> pending = (Map<String, Set<LocalDate>>) TransactionSynchronizationManager
+                .getResource(this);
+        if (pending == null) {
+            Map<String, Set<LocalDate>> changes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recomputeAndPublish(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BillRecomputationService.this);
+                }
+            });
+            pending = changes;
+        }
+        addChange(pending, event);
+    }
+
+    /**
+     * Re-splits the bills affected by changes of the readings of a meter on the
+     * given dates. The readings table must already reflect the changes.
+     *
+     * @param meterId      identifier of the changed meter
+     * @param changedDates dates of the inserted, updated or deleted readings
+     * @return the recomputation report
+     */
+    public RecomputationReport recompute(String meterId, Collection<LocalDate> changedDates) {
+        Objects.requireNonNull(meterId, "Meter id cannot be null");
+        Objects.requireNonNull(changedDates, "Changed dates cannot be null");
+
+        // Drop any series loaded before the change committed
+        readingSeriesCache.evict(meterId);
+        return transactionTemplate.execute(status -> recomputeInTransaction(meterId, changedDates));
+    }
+
+    private static void addChange(Map<String, Set<LocalDate>> changes, ReadingChangedEvent event) {
+        Set<LocalDate> dates = changes.computeIfAbsent(event.meterId(), k -> new TreeSet<>());
+        dates.add(event.readingDate());
+        if (event.previousReadingDate() != null) {
+            dates.add(event.previousReadingDate());
+        }
+    }
+
+    /**
+     * Recomputes committed changes. Failures are reported per meter rather than
+     * thrown, since they would reach the writer of readings already committed.
+     */
+    private void recomputeAndPublish(Map<String, Set<LocalDate>> changes) {
+        changes.forEach((meterId, dates) -> {
+            RecomputationReport report;
+            try {
+                // The series cache has already published the committed readings;
+                // the split cache may not have bumped the meter's version yet
+                report = transactionTemplate.execute(status -> recomputeInTransaction(meterId, dates));
+            } catch (RuntimeException e) {
+                report = new RecomputationReport(meterId, List.of(), List.of(), List.of(), List.of(),
+                        e.toString());
+            }
+            if (!report.resplitInvoices().isEmpty() || !report.failedInvoices().isEmpty()
+                    || report.error() != null) {
+                publisher.publishEvent(report);
+            }
+        });
+    }
+
+    private RecomputationReport recomputeInTransaction(String meterId, Collection<LocalDate> changedDates) {
+        List<Window> windows = affectedWindows(readingSeriesCache.get(meterId), changedDates);
+
+        Map<Long, BillEntity> bills = new LinkedHashMap<>();
+        for (Window window : windows) {
+            for (BillEntity bill : billRepository.findWithChargesByTenantMeterIdAndBoundaryBetween(meterId,
+                    window.from(), window.to())) {
+                bills.putIfAbsent(bill.getId(), bill);
+            }
+        }
+
+        List<String> resplit = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (BillEntity bill : bills.values()) {
+            SplitJob job = new SplitJob(bill.getBuildingId(), billMapper.toDomain(bill), bill.getTenantMeterId());
+            SplitResult result;
+            try {
+                result = splitService.splitUncached(job);
+            } catch (IllegalArgumentException e) {
+                failed.add(bill.getInvoiceNumber());
+                continue;
+            }
+            resplit.add(bill.getInvoiceNumber());
+            if (ledger.append(job.buildingId(), job.bill(), result) > 0) {
+                changed.add(bill.getInvoiceNumber());
+            }
+        }
+
+        return new RecomputationReport(meterId, windows, resplit, changed, failed, null);
+    }
+
+    /**
+     * Returns, for each changed date, the dates strictly between its
+     * neighbouring readings, merged into ordered non-overlapping windows. On a
+     * side without neighbour the window stops at the changed date itself, since
+     * dates beyond it cannot be interpolated.
+     */
+    private static List<Window> affectedWindows(ReadingSeries series, Collection<LocalDate> changedDates) {
+        List<Window> windows = new ArrayList<>();
+        for (LocalDate date : new TreeSet<>(changedDates)) {
+            long day = date.toEpochDay();
+            int previous = series.floorIndex(day - 1);
+            int next = series.ceilingIndex(day + 1);
+            LocalDate from = previous < 0 ? date : series.dateAt(previous).plusDays(1);
+            LocalDate to = next < 0 ? date : series.dateAt(next).minusDays(1);
+
+            Window last = windows.isEmpty() ? null : windows.get(windows.size() - 1);
+            if (last != null && !from.isAfter(last.to().plusDays(1))) {
+                windows.set(windows.size() - 1, new Window(last.from(), to.isAfter(last.to()) ? to : last.to()));
+            } else {
+                windows.add(new Window(from, to));
+            }
+        }
+        return windows;
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.ReprocessingCheckpointEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReprocessingCheckpointRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * Service re-splitting the whole bill history, for example after a tariff
+ * correction.
+ * <p>
+ * Bills are read in keyset-paginated chunks ordered by period start and id,
+ * so at most one chunk of bills is in memory at a time and every chunk is an
+ * index range scan, however deep into the history. Each chunk is split,
+ * written and checkpointed in its own transaction: an interrupted run resumes
+ * after the last committed chunk instead of starting over.
+ * </p>
+ * <p>
+ * A bill that cannot be split (for example because the tenant readings do not
+ * cover its period) is skipped and reported, without stopping the run.
+ * </p>
+ */
+@Service
+public class BillReprocessingService {
+
+    /**
+     * Outcome of a reprocessing run.
+     *
+     * @param jobName         name of the run
+     * @param resumed         whether the run resumed from a checkpoint
+     * @param processed       bills split, including those of the resumed runs
+     * @param skipped         bills that could not be split, including those of
+     *                        the resumed runs
+     * @param skippedInvoices invoice numbers of the bills skipped by this run,
+     *                        capped to a maximum number of entries
+     */
+    public record ReprocessingReport(
+            String jobName,
+            boolean resumed,
+            long processed,
+            long skipped,
+            List<String> skippedInvoices) {
+
+        public ReprocessingReport {
+            skippedInvoices = List.copyOf(skippedInvoices);
+        }
+    }
+
+    // Keyset position after the last committed chunk
+    private record Cursor(LocalDate periodStart, long billId, long processed, long skipped) {
+    }
+
+    private final BillRepository billRepository;
+    private final ReprocessingCheckpointRepository checkpointRepository;
+    private final BillMapper billMapper;
+    private final BatchSplitService splitService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedSkips;
+
+    public BillReprocessingService(BillRepository billRepository,
+            ReprocessingCheckpointRepository checkpointRepository,
+            BillMapper billMapper,
+            BatchSplitService splitService,
+            PlatformTransactionManager transactionManager,
+            @Value("${utility-manager.reprocessing.chunk-size:500}") int chunkSize,
+            @Value("${utility-manager.reprocessing.max-reported-skips:1000}") int maxReportedSkips) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive. Got: " + chunkSize);
+        }
+        this.billRepository = billRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.billMapper = billMapper;
+        this.splitService = splitService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedSkips = maxReportedSkips;
+    }
+
+    /**
+     * Re-splits every bill, resuming from the checkpoint of a previous
+     * interrupted run with the same name if there is one.
+     * <p>
+     * The checkpoint is removed once the run completes, so the next run with
+     * the same name starts from the first bill again.
+     * </p>
+     *
+     * @param jobName name of the run, used as checkpoint key
+     * @param writer  destination of the split results
+     * @return the outcome of the run
+     * @throws RuntimeException any exception thrown by {@code writer}; the chunk
+     *                          being written is rolled back and the checkpoint
+     *                          keeps the last committed chunk
+     */
+    public ReprocessingReport reprocess(String jobName, SplitResultWriter writer) {
+        Objects.requireNonNull(jobName, "Job name cannot be null");
+        Objects.requireNonNull(writer, "Writer cannot be null");
+
+        Cursor cursor = checkpointRepository.findById(jobName)
+                .map(c -> new Cursor(c.getLastPeriodStart(), c.getLastBillId(), c.getProcessed(), c.getSkipped()))
+                .orElse(null);
+        boolean resumed = cursor != null;
+        List<String> skippedInvoices = new ArrayList<>();
+
+        while (true) {
+            Cursor from = cursor;
+            Cursor next = transactionTemplate.execute(status -> processChunk(jobName, from, writer, skippedInvoices));
+            if (next == null) {
+                break;
+            }
+            cursor = next;
+        }
+
+        if (cursor != null) {
+            checkpointRepository.deleteById(jobName);
+        }
+        return new ReprocessingReport(jobName, resumed,
+                cursor == null ? 0 : cursor.processed(),
+                cursor == null ? 0 : cursor.skipped(),
+                skippedInvoices);
+    }
+
+    /**
+     * Removes the checkpoint of a run, so that its next execution starts from
+     * the first bill.
+     *
+     * @param jobName name of the run
+     */
+    public void resetCheckpoint(String jobName) {
+        Objects.requireNonNull(jobName, "Job name cannot be null");
+        checkpointRepository.deleteById(jobName);
+    }
+
+    /**
+     * Splits, writes and checkpoints the chunk following the cursor.
+     *
+     * @return the cursor after the chunk, or {@code null} if there are no more
+     *         bills
+     */
+    private Cursor processChunk(String jobName, Cursor from, SplitResultWriter writer, List<String> skippedInvoices) {
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        List<BillEntity> bills = from == null
+                ? billRepository.findFirstChunkWithCharges(chunk)
+                : billRepository.findNextChunkWithCharges(from.periodStart(), from.billId(), chunk);
+        if (bills.isEmpty()) {
+            return null;
+        }
+
+        List<SplitJob> jobs = new ArrayList<>(bills.size());
+        for (BillEntity bill : bills) {
+            jobs.add(new SplitJob(bill.getBuildingId(), billMapper.toDomain(bill), bill.getTenantMeterId()));
+        }
+        List<SplitResult> results = split(jobs);
+
+        long processed = from == null ? 0 : from.processed();
+        long skipped = from == null ? 0 : from.skipped();
+        for (int i = 0; i < jobs.size(); i++) {
+            SplitResult result = results.get(i);
+            if (result == null) {
+                skipped++;
+                if (skippedInvoices.size() < maxReportedSkips) {
+                    skippedInvoices.add(jobs.get(i).bill().invoiceNumber());
+                }
+            } else {
+                writer.write(jobs.get(i), result);
+                processed++;
+            }
+        }
+
+        BillEntity last = bills.get(bills.size() - 1);
+        ReprocessingCheckpointEntity checkpoint = new ReprocessingCheckpointEntity();
+        checkpoint.setJobName(jobName);
+        checkpoint.setLastPeriodStart(last.getPeriodStart());
+        checkpoint.setLastBillId(last.getId());
+        checkpoint.setProcessed(processed);
+        checkpoint.setSkipped(skipped);
+        checkpointRepository.save(checkpoint);
+
+        return new Cursor(last.getPeriodStart(), last.getId(), processed, skipped);
+    }
+
+    /**
+     * Splits a chunk in parallel, falling back to one job at a time when some
+     * job fails so that only the failing bills are skipped.
+     *
+     * @return one result per job, {@code null} for the jobs that failed
+     */
+    private List<SplitResult> split(List<SplitJob> jobs) {
+        try {
+            return splitService.splitAll(jobs);
+        } catch (IllegalArgumentException e) {
+            List<SplitResult> results = new ArrayList<>(jobs.size());
+            for (SplitJob job : jobs) {
+                try {
+                    results.add(splitService.split(job));
+                } catch (IllegalArgumentException skipped) {
+                    results.add(null);
+                }
+            }
+            return results;
+        }
+    }
+}
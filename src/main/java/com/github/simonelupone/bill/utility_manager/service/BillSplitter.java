@@ -0,0 +1,27 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.math.BigDecimal;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * Engine splitting a bill between Tenant and Owner.
+ * <p>
+ * Implementations must produce identical {@link SplitResult}s; they only
+ * differ in how the arithmetic is carried out. The active engine is chosen with
+ * the {@code utility-manager.splitter.engine} property (see
+ * {@link SplitterConfiguration}).
+ * </p>
+ */
+public interface BillSplitter {
+
+    /**
+     * Splits the bill costs based on the tenant's consumption.
+     *
+     * @param bill      the full electricity bill
+     * @param tenantKwh the calculated/interpolated consumption for the tenant
+     * @return a {@link SplitResult} with the breakdown
+     */
+    SplitResult splitBill(Bill bill, BigDecimal tenantKwh);
+}
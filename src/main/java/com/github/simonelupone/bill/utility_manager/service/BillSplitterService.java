@@ -6,6 +6,9 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Service responsible for calculating the cost breakdown between Tenant and
@@ -20,9 +23,13 @@ import java.math.RoundingMode;
  * to the Owner (Apt 1).</li>
  * </ul>
  * </p>
+ * <p>
+ * {@link #splitBill(Bill, List, int)} generalizes the same rules to any number
+ * of sub-meters, with fixed costs split equally among all parties.
+ * </p>
  */
 @Service
-public class BillSplitterService {
+public class BillSplitterService implements BillSplitter {
 
         private static final int SCALE = 2;
         private static final int PERCENTAGE_SCALE = 6;
@@ -39,6 +46,31 @@ public class BillSplitterService {
                         String calculationDetails) {
         }
 
+        /**
+         * Share of a bill charged to one party of an N-way split.
+         *
+         * @param kwh    the consumption of the party's sub-meter
+         * @param ratio  the party's fraction of the total sub-meter consumption
+         * @param amount the amount charged to the party, rounded to cents
+         */
+        public record PartyShare(
+                        BigDecimal kwh,
+                        BigDecimal ratio,
+                        BigDecimal amount) {
+        }
+
+        /**
+         * Result of an N-way split. The amounts of all shares always sum exactly to
+         * {@code billTotal}.
+         *
+         * @param shares    one share per party, in input order
+         * @param billTotal the bill total, rounded to cents
+         */
+        public record MultiSplitResult(
+                        List<PartyShare> shares,
+                        BigDecimal billTotal) {
+        }
+
         /**
          * Splits the bill costs based on the tenant's consumption.
          *
@@ -46,6 +78,7 @@ public class BillSplitterService {
          * @param tenantKwh the calculated/interpolated consumption for the tenant
          * @return a {@link SplitResult} with the breakdown
          */
+        @Override
         public SplitResult splitBill(Bill bill, BigDecimal tenantKwh) {
                 BillCharges charges = bill.charges();
                 BigDecimal totalKwh = bill.totalKwh();
@@ -81,4 +114,183 @@ public class BillSplitterService {
 
                 return new SplitResult(tenantTotal, ownerTotal, tenantKwh, tenantRatio, details);
         }
+
+        /**
+         * Splits the bill costs among any number of parties, one per sub-meter.
+         * <p>
+         * Variable costs are split proportionally to each party's consumption over
+         * the total sub-meter consumption, fixed costs equally among all parties, and
+         * personal costs (TV Tax, Social Bonus) go to the owner. If no sub-meter
+         * consumed anything, the variable costs go to the owner as well.
+         * </p>
+         * <p>
+         * Every exact share is computed as a fraction over a common denominator, then
+         * rounded down to the cent; the cents still missing to reach the bill total
+         * are assigned by the largest-remainder rule (ties go to the lower index), so
+         * the shares always sum exactly to the rounded {@link Bill#getTotalAmount()}.
+         * </p>
+         *
+         * @param bill         the full electricity bill
+         * @param consumptions the consumption of each party's sub-meter (must not be
+         *                     negative)
+         * @param ownerIndex   position of the owner in {@code consumptions}
+         * @return a {@link MultiSplitResult} with one share per party
+         * @throws IllegalArgumentException if {@code consumptions} is empty, contains
+         *                                  a negative value, or {@code ownerIndex} is
+         *                                  out of range
+         */
+        public MultiSplitResult splitBill(Bill bill, List<BigDecimal> consumptions, int ownerIndex) {
+                Objects.requireNonNull(consumptions, "Consumptions cannot be null");
+                int parties = consumptions.size();
+                if (parties == 0) {
+                        throw new IllegalArgumentException("At least one party is required");
+                }
+                if (ownerIndex < 0 || ownerIndex >= parties) {
+                        throw new IllegalArgumentException(
+                                        "Owner index must be between 0 and " + (parties - 1) + ". Got: " + ownerIndex);
+                }
+
+                BillCharges charges = bill.charges();
+                BigDecimal totalVariableCost = charges.energyVariable().amount()
+                                .add(charges.exciseAndVat().amount());
+                BigDecimal totalFixedCost = charges.transportFixed().amount()
+                                .add(charges.transportPowerQuota().amount());
+                BigDecimal billTotal = bill.getTotalAmount();
+                BigDecimal personalCost = billTotal.subtract(totalVariableCost).subtract(totalFixedCost);
+
+                BigDecimal totalKwh = BigDecimal.ZERO;
+                for (BigDecimal kwh : consumptions) {
+                        Objects.requireNonNull(kwh, "Consumption cannot be null");
+                        if (kwh.signum() < 0) {
+                                throw new IllegalArgumentException("Consumption cannot be negative. Got: " + kwh);
+                        }
+                        totalKwh = totalKwh.add(kwh);
+                }
+
+                // share_i = numerator_i / denominator, where
+                // numerator_i = variable * kwh_i * N + fixed * totalKwh (+ personal * N * totalKwh for the owner)
+                // denominator = N * totalKwh
+                boolean proportional = totalKwh.signum() > 0;
+                BigDecimal n = BigDecimal.valueOf(parties);
+                BigDecimal weight = proportional ? totalKwh : BigDecimal.ONE;
+                BigDecimal denominator = n.multiply(weight);
+                BigDecimal fixedPart = totalFixedCost.multiply(weight);
+                BigDecimal ownerPart = personalCost.multiply(denominator);
+                if (!proportional) {
+                        ownerPart = ownerPart.add(totalVariableCost.multiply(n));
+                }
+
+                long[] cents = new long[parties];
+                BigDecimal[] remainders = new BigDecimal[parties];
+                BigDecimal[] ratios = new BigDecimal[parties];
+                long allocated = 0;
+                for (int i = 0; i < parties; i++) {
+                        BigDecimal numerator = fixedPart;
+                        if (proportional) {
+                                BigDecimal kwh = consumptions.get(i);
+                                numerator = numerator.add(totalVariableCost.multiply(kwh).multiply(n));
+                                ratios[i] = kwh.divide(totalKwh, PERCENTAGE_SCALE, RoundingMode.HALF_UP);
+                        } else {
+                                ratios[i] = BigDecimal.ZERO;
+                        }
+                        if (i == ownerIndex) {
+                                numerator = numerator.add(ownerPart);
+                        }
+
+                        BigDecimal scaled = numerator.movePointRight(SCALE);
+                        BigDecimal floor = scaled.divide(denominator, 0, RoundingMode.FLOOR);
+                        cents[i] = floor.longValueExact();
+                        remainders[i] = scaled.subtract(floor.multiply(denominator));
+                        allocated += cents[i];
+                }
+
+                BigDecimal roundedTotal = billTotal.setScale(SCALE, RoundingMode.HALF_UP);
+                distributeRemainder(cents, remainders, roundedTotal.unscaledValue().longValueExact() - allocated);
+
+                List<PartyShare> shares = new ArrayList<>(parties);
+                for (int i = 0; i < parties; i++) {
+                        shares.add(new PartyShare(consumptions.get(i), ratios[i], BigDecimal.valueOf(cents[i], SCALE)));
+                }
+                return new MultiSplitResult(List.copyOf(shares), roundedTotal);
+        }
+
+        /**
+         * Applies the largest-remainder rule: the parties with the largest remainders
+         * receive one extra cent each until the missing cents are assigned. A negative
+         * amount (bill total with sub-cent digits rounded down) removes cents from the
+         * parties with the smallest remainders instead. Ties go to the lower index when
+         * adding and to the higher index when removing.
+         * <p>
+         * Only the parties receiving a cent are selected, in linear expected time,
+         * rather than sorting them all.
+         * </p>
+         */
+        private static void distributeRemainder(long[] cents, BigDecimal[] remainders, long missing) {
+                if (missing == 0) {
+                        return;
+                }
+                int parties = cents.length;
+                long step = missing > 0 ? 1 : -1;
+                // Every party gets a cent per full round over the parties
+                long rounds = Math.abs(missing) / parties;
+                int extra = (int) (Math.abs(missing) % parties);
+                if (rounds > 0) {
+                        for (int i = 0; i < parties; i++) {
+                                cents[i] += step * rounds;
+                        }
+                }
+                if (extra == 0) {
+                        return;
+                }
+                int[] order = new int[parties];
+                for (int i = 0; i < parties; i++) {
+                        order[i] = i;
+                }
+                selectFirst(order, extra, remainders, step < 0);
+                for (int k = 0; k < extra; k++) {
+                        cents[order[k]] += step;
+                }
+        }
+
+        /**
+         * Quickselect: moves the first {@code count} parties in remainder order to the
+         * front of {@code order}, in no particular order among themselves.
+         */
+        private static void selectFirst(int[] order, int count, BigDecimal[] remainders, boolean smallestFirst) {
+                int target = count - 1;
+                int low = 0;
+                int high = order.length - 1;
+                while (low < high) {
+                        int pivot = order[(low + high) >>> 1];
+                        int i = low;
+                        int j = high;
+                        while (i <= j) {
+                                while (precedes(order[i], pivot, remainders, smallestFirst)) {
+                                        i++;
+                                }
+                                while (precedes(pivot, order[j], remainders, smallestFirst)) {
+                                        j--;
+                                }
+                                if (i <= j) {
+                                        int swap = order[i];
+                                        order[i++] = order[j];
+                                        order[j--] = swap;
+                                }
+                        }
+                        if (target <= j) {
+                                high = j;
+                        } else if (target >= i) {
+                                low = i;
+                        } else {
+                                return;
+                        }
+                }
+        }
+
+        // Largest remainder first, ties to the lower index; reversed when removing
+        private static boolean precedes(int a, int b, BigDecimal[] remainders, boolean smallestFirst) {
+                int byRemainder = remainders[b].compareTo(remainders[a]);
+                int order = byRemainder != 0 ? byRemainder : Integer.compare(a, b);
+                return smallestFirst ? order > 0 : order < 0;
+        }
 }
@@ -0,0 +1,210 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+/**
+ * Probabilistic set membership with a fixed memory budget.
+ * <p>
+ * A key is hashed once to 64 bits, and the positions of its bits are derived
+ * from that hash and its swapped halves (Kirsch-Mitzenmacher double hashing),
+ * so adding or testing a key does not allocate. {@link #mightContain} never
+ * answers {@code false} for an added key; it answers {@code true} for a key
+ * never added with a probability that grows with the number of keys, reported
+ * by {@link #expectedFalsePositiveRate()}.
+ * </p>
+ * <p>
+ * Not thread-safe: each import builds and uses its own filter.
+ * </p>
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final int MAX_HASH_FUNCTIONS = 16;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashFunctions;
+    private long size;
+
+    private BloomFilter(long bitCount, int hashFunctions) {
+        this.bits = new long[Math.toIntExact((bitCount + Long.SIZE - 1) / Long.SIZE)];
+        this.bitCount = (long) bits.length * Long.SIZE;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Creates a filter sized for a number of keys and a target false positive
+     * rate, within a memory budget. When the budget is too small for the
+     * target, the filter uses the whole budget and the actual rate is higher.
+     *
+     * @param expectedKeys      number of keys the filter is sized for
+     * @param falsePositiveRate target probability of a false positive, in
+     *                          (0, 1)
+     * @param maxBytes          memory budget of the bit array
+     * @return an empty filter
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public static BloomFilter create(long expectedKeys, double falsePositiveRate, long maxBytes) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("Expected keys cannot be negative. Got: " + expectedKeys);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException(
+                    "False positive rate must be between 0 and 1. Got: " + falsePositiveRate);
+        }
+        if (maxBytes < Long.BYTES) {
+            throw new IllegalArgumentException("Memory budget must be at least 8 bytes. Got: " + maxBytes);
+        }
+        long keys = Math.max(expectedKeys, 1);
+        long optimalBits = optimalBits(keys, falsePositiveRate);
+        long maxBits = Math.min(maxBytes, (long) Integer.MAX_VALUE * Long.BYTES) * Byte.SIZE;
+        long bitCount = Math.max(Long.SIZE, Math.min(optimalBits, maxBits));
+        int hashFunctions = (int) Math.round((double) bitCount / keys * LN2);
+        return new BloomFilter(bitCount, Math.max(1, Math.min(MAX_HASH_FUNCTIONS, hashFunctions)));
+    }
+
+    /**
+     * Returns the memory a filter needs to hold a number of keys at a target
+     * false positive rate.
+     *
+     * @param expectedKeys      number of keys
+     * @param falsePositiveRate target probability of a false positive, in
+     *                          (0, 1)
+     * @return the size of the bit array in bytes
+     */
+    public static long optimalBytes(long expectedKeys, double falsePositiveRate) {
+        long bits = Math.max(Long.SIZE, optimalBits(Math.max(expectedKeys, 1), falsePositiveRate));
+        return (bits + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key the key to add
+     */
+    public void put(long key) {
+        long hash = mix(key);
+        long step = step(hash);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = index(hash + i * step);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        size++;
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key the key to add
+     */
+    public void put(String key) {
+        put(hash(key));
+    }
+
+    /**
+     * Tests whether a key may have been added.
+     *
+     * @param key the key to test
+     * @return {@code false} if the key was certainly never added, {@code true}
+     *         if it probably was
+     */
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        long step = step(hash);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = index(hash + i * step);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether a key may have been added.
+     *
+     * @param key the key to test
+     * @return {@code false} if the key was certainly never added, {@code true}
+     *         if it probably was
+     */
+    public boolean mightContain(String key) {
+        return mightContain(hash(key));
+    }
+
+    /**
+     * Returns the number of keys added, repeated keys included.
+     *
+     * @return the number of {@code put} calls
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the memory used by the bit array.
+     *
+     * @return the size of the bit array in bytes
+     */
+    public long memoryBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the number of bit positions tested per key.
+     *
+     * @return the number of hash functions
+     */
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Returns the probability that a key never added is reported as present,
+     * given the keys added so far.
+     *
+     * @return the expected false positive rate, in [0, 1]
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashFunctions * (double) size / bitCount), hashFunctions);
+    }
+
+    private static long optimalBits(long keys, double falsePositiveRate) {
+        return (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (LN2 * LN2));
+    }
+
+    private long index(long combinedHash) {
+        // Clear the sign bit rather than taking the absolute value, which
+        // stays negative for Long.MIN_VALUE
+        return (combinedHash & Long.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * Second hash of the double hashing: the halves of the hash swapped, made
+     * odd so that it is never zero.
+     */
+    private static long step(long hash) {
+        return Long.rotateLeft(hash, 32) | 1;
+    }
+
+    /**
+     * Hashes the characters of a string to 64 bits (FNV-1a), to be spread by
+     * {@link #mix}.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizer of SplitMix64: every input bit affects every output bit, so
+     * close keys such as consecutive epoch days land on unrelated positions.
+     */
+    private static long mix(long key) {
+        long z = key + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
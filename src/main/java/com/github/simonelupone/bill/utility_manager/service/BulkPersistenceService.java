@@ -0,0 +1,125 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.simonelupone.bill.utility_manager.persistence.BillChargesEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.DailyConsumptionEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Service inserting large numbers of bills and readings in a single
+ * transaction.
+ * <p>
+ * Entities use pooled sequence ids, so Hibernate can assign ids without a
+ * round trip per row and group the inserts into JDBC batches
+ * ({@code hibernate.jdbc.batch_size}). The persistence context is flushed
+ * every batch and the inserted entities are detached, so memory stays flat
+ * however many rows are inserted. When the service joins a caller's
+ * transaction, the entities the caller manages stay managed, and their pending
+ * changes are flushed with the inserts.
+ * </p>
+ */
+@Service
+public class BulkPersistenceService {
+
+    private final EntityManager entityManager;
+    private final MetricsRecorder metrics;
+    private final int batchSize;
+
+    public BulkPersistenceService(EntityManager entityManager, MetricsRecorder metrics,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive. Got: " + batchSize);
+        }
+        this.entityManager = entityManager;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts new bills together with their charges.
+     *
+     * @param bills the bills to insert; each bill's charges are linked back to
+     *              the bill before insertion
+     * @return the number of bills inserted
+     */
+    @Transactional
+    public long saveBills(Iterable<BillEntity> bills) {
+        Objects.requireNonNull(bills, "Bills cannot be null");
+        MetricsRecorder.Sample sample = metrics.startSave();
+        List<Object> batch = new ArrayList<>(batchSize);
+        long count = 0;
+        for (BillEntity bill : bills) {
+            BillChargesEntity charges = bill.getCharges();
+            if (charges != null) {
+                charges.setBill(bill);
+            }
+            entityManager.persist(bill);
+            batch.add(bill);
+            if (++count % batchSize == 0) {
+                flushAndDetach(batch);
+            }
+        }
+        flushAndDetach(batch);
+        metrics.stopSave(sample, "bill", count);
+        return count;
+    }
+
+    /**
+     * Inserts new readings.
+     *
+     * @param readings the readings to insert
+     * @return the number of readings inserted
+     */
+    @Transactional
+    public long saveReadings(Iterable<ReadingEntity> readings) {
+        Objects.requireNonNull(readings, "Readings cannot be null");
+        return persistAll("reading", readings);
+    }
+
+    /**
+     * Inserts new materialized daily consumption rows.
+     *
+     * @param days the rows to insert
+     * @return the number of rows inserted
+     */
+    @Transactional
+    public long saveDailyConsumption(Iterable<DailyConsumptionEntity> days) {
+        Objects.requireNonNull(days, "Days cannot be null");
+        return persistAll("daily_consumption", days);
+    }
+
+    private long persistAll(String entityName, Iterable<?> entities) {
+        MetricsRecorder.Sample sample = metrics.startSave();
+        List<Object> batch = new ArrayList<>(batchSize);
+        long count = 0;
+        for (Object entity : entities) {
+            entityManager.persist(entity);
+            batch.add(entity);
+            if (++count % batchSize == 0) {
+                flushAndDetach(batch);
+            }
+        }
+        flushAndDetach(batch);
+        metrics.stopSave(sample, entityName, count);
+        return count;
+    }
+
+    // Detaching a bill cascades to its charges
+    private void flushAndDetach(List<Object> batch) {
+        entityManager.flush();
+        for (Object entity : batch) {
+            entityManager.detach(entity);
+        }
+        batch.clear();
+    }
+}
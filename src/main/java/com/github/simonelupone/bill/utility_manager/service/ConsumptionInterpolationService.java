@@ -1,14 +1,19 @@
 package com.github.simonelupone.bill.utility_manager.service;
 
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.InstantReadingSeries;
 import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.TreeMap;
+import java.util.Objects;
 
 /**
  * Service responsible for calculating estimated energy consumption.
@@ -18,6 +23,11 @@ import java.util.TreeMap;
  * at specific dates (e.g., bill start and end dates) based on a discrete set of
  * readings.
  * </p>
+ * <p>
+ * Callers that evaluate the same readings repeatedly should build a
+ * {@link ReadingSeries} once and use the overloads accepting it, so that no
+ * sorting or indexing happens on the hot path.
+ * </p>
  */
 @Service
 public class ConsumptionInterpolationService {
@@ -44,17 +54,204 @@ public class ConsumptionInterpolationService {
             throw new IllegalArgumentException("At least 2 readings are required for interpolation.");
         }
 
-        TreeMap<LocalDate, Reading> timeSeries = new TreeMap<>();
-        for (Reading r : readings) {
-            timeSeries.put(r.date(), r);
+        return consumptionBetween(start, end, ReadingSeries.of(readings));
+    }
+
+    /**
+     * Calculates the consumption between two dates using linear interpolation on
+     * a prepared reading series.
+     *
+     * @param start  the start date of the period (inclusive)
+     * @param end    the end date of the period (inclusive)
+     * @param series the indexed readings (must contain at least 2 readings
+     *               covering the period)
+     * @return the calculated consumption (difference between end and start values)
+     * @throws IllegalArgumentException if start is after end, or if readings are
+     *                                  insufficient/invalid
+     */
+    public BigDecimal calculateConsumption(LocalDate start, LocalDate end, ReadingSeries series) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        if (series == null || series.size() < 2) {
+            throw new IllegalArgumentException("At least 2 readings are required for interpolation.");
+        }
+
+        return consumptionBetween(start, end, series);
+    }
+
+    /**
+     * Calculates the consumption for many billing periods against the same set of
+     * readings.
+     * <p>
+     * The readings are sorted once and every period boundary is resolved in a
+     * single merge-style sweep, instead of building a new time series for each
+     * period. The result for each period is identical to calling
+     * {@link #calculateConsumption(LocalDate, LocalDate, List)} with the same
+     * readings.
+     * </p>
+     *
+     * @param periods  the billing periods to evaluate (in any order)
+     * @param readings the list of available readings (must contain at least 2
+     *                 readings covering every period)
+     * @return the calculated consumption of each period, in the same order as
+     *         {@code periods}
+     * @throws IllegalArgumentException if readings are insufficient/invalid or a
+     *                                  period is outside the range of readings
+     */
+    public List<BigDecimal> calculateConsumption(List<BillPeriod> periods, List<Reading> readings) {
+        Objects.requireNonNull(periods, "Periods cannot be null");
+        if (readings == null || readings.size() < 2) {
+            throw new IllegalArgumentException("At least 2 readings are required for interpolation.");
+        }
+
+        return sweep(periods, ReadingSeries.of(readings));
+    }
+
+    /**
+     * Calculates the consumption for many billing periods against a prepared
+     * reading series, in a single merge-style sweep.
+     *
+     * @param periods the billing periods to evaluate (in any order)
+     * @param series  the indexed readings (must contain at least 2 readings
+     *                covering every period)
+     * @return the calculated consumption of each period, in the same order as
+     *         {@code periods}
+     * @throws IllegalArgumentException if readings are insufficient/invalid or a
+     *                                  period is outside the range of readings
+     */
+    public List<BigDecimal> calculateConsumption(List<BillPeriod> periods, ReadingSeries series) {
+        Objects.requireNonNull(periods, "Periods cannot be null");
+        if (series == null || series.size() < 2) {
+            throw new IllegalArgumentException("At least 2 readings are required for interpolation.");
+        }
+
+        return sweep(periods, series);
+    }
+
+    /**
+     * Calculates the consumption between two instants using linear
+     * interpolation on interval meter readings.
+     * <p>
+     * Same algorithm as the daily overloads, with the slope taken per second
+     * instead of per day.
+     * </p>
+     *
+     * @param start  the start instant of the period (inclusive)
+     * @param end    the end instant of the period (inclusive)
+     * @param series the indexed readings (must contain at least 2 readings
+     *               covering the period)
+     * @return the calculated consumption (difference between end and start values)
+     * @throws IllegalArgumentException if start is after end, or if readings are
+     *                                  insufficient/invalid
+     */
+    public BigDecimal calculateConsumption(Instant start, Instant end, InstantReadingSeries series) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start instant must be before or equal to end instant");
+        }
+        if (series == null || series.size() < 2) {
+            throw new IllegalArgumentException("At least 2 readings are required for interpolation.");
+        }
+
+        BigDecimal startValue = interpolateValueAt(start, series);
+        BigDecimal endValue = interpolateValueAt(end, series);
+
+        return endValue.subtract(startValue).max(BigDecimal.ZERO);
+    }
+
+    /**
+     * Interpolates the counter value of every day in a range, in a single sweep
+     * over a prepared reading series.
+     * <p>
+     * Each value is the one {@link #calculateConsumption(LocalDate, LocalDate,
+     * ReadingSeries)} uses for a period boundary on that day, so the consumption
+     * of any period inside the range is the difference of two values.
+     * </p>
+     *
+     * @param from   the first day (inclusive)
+     * @param to     the last day (inclusive)
+     * @param series the indexed readings
+     * @return one counter value per day, from {@code from} to {@code to}
+     * @throws IllegalArgumentException if from is after to, or a day is outside
+     *                                  the range of readings
+     */
+    public List<BigDecimal> calculateCounterValues(LocalDate from, LocalDate to, ReadingSeries series) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        if (series == null || series.isEmpty()) {
+            throw new IllegalArgumentException("At least 1 reading is required for interpolation.");
         }
 
-        BigDecimal startValue = interpolateValueAt(start, timeSeries);
-        BigDecimal endValue = interpolateValueAt(end, timeSeries);
+        long first = from.toEpochDay();
+        long lastDay = to.toEpochDay();
+        int cursor = series.floorIndex(first);
+        if (cursor < 0) {
+            throw outOfRange(from, series);
+        }
+
+        List<BigDecimal> values = new ArrayList<>(Math.toIntExact(lastDay - first + 1));
+        int last = series.size() - 1;
+        for (long day = first; day <= lastDay; day++) {
+            while (cursor < last && series.epochDayAt(cursor + 1) <= day) {
+                cursor++;
+            }
+            if (series.epochDayAt(cursor) == day) {
+                values.add(BigDecimal.valueOf(series.kWhAt(cursor)));
+            } else if (cursor < last) {
+                values.add(interpolate(day, series, cursor, cursor + 1));
+            } else {
+                throw outOfRange(LocalDate.ofEpochDay(day), series);
+            }
+        }
+        return values;
+    }
+
+    private BigDecimal consumptionBetween(LocalDate start, LocalDate end, ReadingSeries series) {
+        BigDecimal startValue = interpolateValueAt(start, series);
+        BigDecimal endValue = interpolateValueAt(end, series);
 
         return endValue.subtract(startValue).max(BigDecimal.ZERO);
     }
 
+    private List<BigDecimal> sweep(List<BillPeriod> periods, ReadingSeries series) {
+        // Boundary 2*i is the start of period i, boundary 2*i+1 its end.
+        // Each key packs the epoch day in the high bits and the boundary index in
+        // the low bits, so a primitive sort orders the boundaries by date.
+        int boundaryCount = periods.size() * 2;
+        long[] keys = new long[boundaryCount];
+        for (int i = 0; i < periods.size(); i++) {
+            BillPeriod period = Objects.requireNonNull(periods.get(i), "Period cannot be null");
+            keys[2 * i] = (period.start().toEpochDay() << 32) | (2 * i);
+            keys[2 * i + 1] = (period.end().toEpochDay() << 32) | (2 * i + 1);
+        }
+        Arrays.sort(keys);
+
+        BigDecimal[] values = new BigDecimal[boundaryCount];
+        int cursor = 0;
+        int last = series.size() - 1;
+        for (long key : keys) {
+            long target = key >> 32;
+            int boundary = (int) key;
+            while (cursor < last && series.epochDayAt(cursor + 1) <= target) {
+                cursor++;
+            }
+            if (series.epochDayAt(cursor) == target) {
+                values[boundary] = BigDecimal.valueOf(series.kWhAt(cursor));
+            } else if (series.epochDayAt(cursor) < target && cursor < last) {
+                values[boundary] = interpolate(target, series, cursor, cursor + 1);
+            } else {
+                throw outOfRange(LocalDate.ofEpochDay(target), series);
+            }
+        }
+
+        List<BigDecimal> consumptions = new ArrayList<>(periods.size());
+        for (int i = 0; i < periods.size(); i++) {
+            consumptions.add(values[2 * i + 1].subtract(values[2 * i]).max(BigDecimal.ZERO));
+        }
+        return consumptions;
+    }
+
     /**
      * Interpolates the counter value at a specific target date.
      * <p>
@@ -68,28 +265,37 @@ public class ConsumptionInterpolationService {
      * @throws IllegalArgumentException if the target date is outside the range of
      *                                  available readings
      */
-    private BigDecimal interpolateValueAt(LocalDate targetDate, TreeMap<LocalDate, Reading> series) {
-        if (series.containsKey(targetDate)) {
-            return BigDecimal.valueOf(series.get(targetDate).kWh());
-        }
+    private BigDecimal interpolateValueAt(LocalDate targetDate, ReadingSeries series) {
+        long target = targetDate.toEpochDay();
 
-        LocalDate floorDate = series.floorKey(targetDate);
-        LocalDate ceilingDate = series.ceilingKey(targetDate);
+        int floor = series.floorIndex(target);
+        if (floor >= 0 && series.epochDayAt(floor) == target) {
+            return BigDecimal.valueOf(series.kWhAt(floor));
+        }
 
-        if (floorDate == null || ceilingDate == null) {
-            throw new IllegalArgumentException(
-                    String.format("Cannot interpolate for date %s. Range available: [%s to %s]",
-                            targetDate, series.firstKey(), series.lastKey()));
+        int ceiling = series.ceilingIndex(target);
+        if (floor < 0 || ceiling < 0) {
+            throw outOfRange(targetDate, series);
         }
 
-        Reading floorReading = series.get(floorDate);
-        Reading ceilingReading = series.get(ceilingDate);
+        return interpolate(target, series, floor, ceiling);
+    }
 
-        long daysTotal = ChronoUnit.DAYS.between(floorDate, ceilingDate);
-        long daysFromFloor = ChronoUnit.DAYS.between(floorDate, targetDate);
+    /**
+     * Applies the linear equation between two bracketing readings.
+     *
+     * @param target  the epoch day for which the value is requested
+     * @param series  the time series of readings ordered by date
+     * @param floor   position of the closest reading before the target
+     * @param ceiling position of the closest reading after the target
+     * @return the estimated counter value at the target date
+     */
+    private BigDecimal interpolate(long target, ReadingSeries series, int floor, int ceiling) {
+        long daysTotal = series.epochDayAt(ceiling) - series.epochDayAt(floor);
+        long daysFromFloor = target - series.epochDayAt(floor);
 
-        BigDecimal v1 = BigDecimal.valueOf(floorReading.kWh());
-        BigDecimal v2 = BigDecimal.valueOf(ceilingReading.kWh());
+        BigDecimal v1 = BigDecimal.valueOf(series.kWhAt(floor));
+        BigDecimal v2 = BigDecimal.valueOf(series.kWhAt(ceiling));
 
         // Slope = (y2 - y1) / (x2 - x1)
         BigDecimal slope = v2.subtract(v1)
@@ -100,4 +306,41 @@ public class ConsumptionInterpolationService {
 
         return v1.add(increase).setScale(SCALE, RoundingMode.HALF_UP);
     }
-}
\ No newline at end of file
+
+    private BigDecimal interpolateValueAt(Instant targetInstant, InstantReadingSeries series) {
+        long target = targetInstant.getEpochSecond();
+
+        int floor = series.floorIndex(target);
+        if (floor >= 0 && series.epochSecondAt(floor) == target) {
+            return kWh(series, floor);
+        }
+
+        int ceiling = series.ceilingIndex(target);
+        if (floor < 0 || ceiling < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot interpolate for instant %s. Range available: [%s to %s]",
+                            targetInstant, series.instantAt(0), series.instantAt(series.size() - 1)));
+        }
+
+        long secondsTotal = series.epochSecondAt(ceiling) - series.epochSecondAt(floor);
+        long secondsFromFloor = target - series.epochSecondAt(floor);
+
+        BigDecimal v1 = kWh(series, floor);
+        BigDecimal v2 = kWh(series, ceiling);
+
+        BigDecimal slope = v2.subtract(v1)
+                .divide(BigDecimal.valueOf(secondsTotal), INTERMEDIATE_SCALE, RoundingMode.HALF_UP);
+
+        return v1.add(slope.multiply(BigDecimal.valueOf(secondsFromFloor))).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal kWh(InstantReadingSeries series, int index) {
+        return BigDecimal.valueOf(series.wattHoursAt(index), 3);
+    }
+
+    private static IllegalArgumentException outOfRange(LocalDate targetDate, ReadingSeries series) {
+        return new IllegalArgumentException(
+                String.format("Cannot interpolate for date %s. Range available: [%s to %s]",
+                        targetDate, series.dateAt(0), series.dateAt(series.size() - 1)));
+    }
+}
@@ -0,0 +1,278 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.DailyConsumptionEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.DailyConsumptionRepository;
+
+/**
+ * Service materializing, for every meter, the interpolated counter value and
+ * consumption of each day between its first and last reading.
+ * <p>
+ * Values come from
+ * {@link ConsumptionInterpolationService#calculateCounterValues}, so the
+ * consumption of a period is the difference of two stored counter values and
+ * matches the on-demand interpolation exactly.
+ * </p>
+ * <p>
+ * A scheduled job keeps the table up to date: the first run materializes
+ * every meter, later runs only the days affected by committed reading
+ * changes, i.e. those between the readings surrounding the changed dates.
+ * Lookups reflect the readings as of the last run. A changed meter stays
+ * pending until its days are committed, so a failed run is retried by the
+ * next one.
+ * </p>
+ * <p>
+ * The consumption endpoints read through
+ * {@link #findConsumptionBetween}, falling back to interpolation while a
+ * meter is pending. Bill splitting does not: it interpolates over the cached
+ * {@link ReadingSeries} its results are versioned with, which costs no query,
+ * and must never use values older than that snapshot.
+ * </p>
+ */
+@Service
+public class DailyConsumptionService {
+
+    // Changed dates of a meter not yet materialized
+    private record DirtyRange(LocalDate from, LocalDate to) {
+
+        DirtyRange merge(DirtyRange other) {
+            return new DirtyRange(from.isBefore(other.from) ? from : other.from,
+                    to.isAfter(other.to) ? to : other.to);
+        }
+    }
+
+    private final ReadingStore readingStore;
+    private final DailyConsumptionRepository dailyRepository;
+    private final ConsumptionInterpolationService interpolationService;
+    private final BulkPersistenceService persistenceService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, DirtyRange> dirty = new ConcurrentHashMap<>();
+    private volatile boolean initialized;
+
+    public DailyConsumptionService(ReadingStore readingStore,
+            DailyConsumptionRepository dailyRepository,
+            ConsumptionInterpolationService interpolationService,
+            BulkPersistenceService persistenceService,
+            PlatformTransactionManager transactionManager) {
+        this.readingStore = readingStore;
+        this.dailyRepository = dailyRepository;
+        this.interpolationService = interpolationService;
+        this.persistenceService = persistenceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records a committed reading change, to be materialized by the next run.
+     *
+     * @param event the reading change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReadingChanged(ReadingChangedEvent event) {
+        LocalDate from = event.readingDate();
+        LocalDate to = event.readingDate();
+        if (event.previousReadingDate() != null) {
+            from = from.isBefore(event.previousReadingDate()) ? from : event.previousReadingDate();
+            to = to.isAfter(event.previousReadingDate()) ? to : event.previousReadingDate();
+        }
+        dirty.merge(event.meterId(), new DirtyRange(from, to), DirtyRange::merge);
+    }
+
+    /**
+     * Scheduled run: materializes every meter the first time, then only the
+     * changes recorded since the previous run.
+     */
+    @Scheduled(fixedDelayString = "${utility-manager.daily-consumption.refresh-interval:PT5M}",
+            initialDelayString = "${utility-manager.daily-consumption.initial-delay:PT1M}")
+    public void refresh() {
+        if (!initialized) {
+            refreshAll();
+            return;
+        }
+        RuntimeException failure = null;
+        for (Map.Entry<String, DirtyRange> entry : Map.copyOf(dirty).entrySet()) {
+            String meterId = entry.getKey();
+            DirtyRange range = entry.getValue();
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> materialize(meterId, range.from(), range.to()));
+            } catch (RuntimeException e) {
+                // The range stays pending for the next run; other meters go on
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+                continue;
+            }
+            // Changes recorded meanwhile replaced the range and stay pending
+            dirty.computeIfPresent(meterId, (key, pending) -> pending == range ? null : pending);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Materializes every meter from scratch.
+     */
+    public void refreshAll() {
+        // Changes committed from now on are picked up by the next run
+        dirty.clear();
+        for (String meterId : readingStore.findMeterIds()) {
+            transactionTemplate.executeWithoutResult(status -> materialize(meterId, null, null));
+        }
+        initialized = true;
+    }
+
+    /**
+     * Returns the consumption of a meter between two days, as the difference
+     * of the materialized counter values.
+     *
+     * @param meterId identifier of the meter
+     * @param start   the start date of the period (inclusive)
+     * @param end     the end date of the period (inclusive)
+     * @return the consumption, never negative
+     * @throws IllegalArgumentException if start is after end, or a day is not
+     *                                  materialized
+     */
+    public BigDecimal consumptionBetween(String meterId, LocalDate start, LocalDate end) {
+        checkPeriod(meterId, start, end);
+        BigDecimal consumption = lookup(meterId, start, end);
+        if (consumption == null) {
+            throw new IllegalArgumentException(String.format(
+                    "No materialized consumption for meter %s between %s and %s", meterId, start, end));
+        }
+        return consumption;
+    }
+
+    /**
+     * Returns the consumption of a meter between two days from the materialized
+     * counter values, if they are up to date: the first run is done, no change
+     * of the meter is pending and both days are materialized.
+     *
+     * @param meterId identifier of the meter
+     * @param start   the start date of the period (inclusive)
+     * @param end     the end date of the period (inclusive)
+     * @return the consumption, or empty if it must be interpolated
+     * @throws IllegalArgumentException if start is after end
+     */
+    public Optional<BigDecimal> findConsumptionBetween(String meterId, LocalDate start, LocalDate end) {
+        checkPeriod(meterId, start, end);
+        if (!initialized || dirty.containsKey(meterId)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(lookup(meterId, start, end));
+    }
+
+    /**
+     * Returns the materialized days of a meter within a date range.
+     *
+     * @param meterId identifier of the meter
+     * @param from    the first day (inclusive)
+     * @param to      the last day (inclusive)
+     * @return the materialized days, ordered by date
+     */
+    public List<DailyConsumptionEntity> findDays(String meterId, LocalDate from, LocalDate to) {
+        return dailyRepository.findByMeterIdAndConsumptionDateBetweenOrderByConsumptionDateAsc(meterId, from, to);
+    }
+
+    /**
+     * Rewrites the days of a meter affected by changes between {@code from} and
+     * {@code to}, or every day when both are {@code null}.
+     * <p>
+     * Interpolated values only change between the readings surrounding the
+     * changed dates: the rewritten range extends from the last reading before
+     * {@code from} to the first reading after {@code to}, or to the changed
+     * date itself on a side without reading, which also drops the days of
+     * deleted first or last readings.
+     * </p>
+     */
+    private void materialize(String meterId, LocalDate from, LocalDate to) {
+        ReadingSeries series = readingStore.findAll(meterId);
+
+        LocalDate rewriteFrom;
+        LocalDate rewriteTo;
+        if (from == null) {
+            dailyRepository.deleteByMeterId(meterId);
+            if (series.isEmpty()) {
+                return;
+            }
+            rewriteFrom = series.dateAt(0);
+            rewriteTo = series.dateAt(series.size() - 1);
+        } else {
+            int previous = series.floorIndex(from.toEpochDay() - 1);
+            int next = series.ceilingIndex(to.toEpochDay() + 1);
+            rewriteFrom = previous < 0 ? from : series.dateAt(previous);
+            rewriteTo = next < 0 ? to : series.dateAt(next);
+            dailyRepository.deleteByMeterIdAndConsumptionDateBetween(meterId, rewriteFrom, rewriteTo);
+            if (series.isEmpty()) {
+                return;
+            }
+            LocalDate first = series.dateAt(0);
+            LocalDate last = series.dateAt(series.size() - 1);
+            rewriteFrom = rewriteFrom.isBefore(first) ? first : rewriteFrom;
+            rewriteTo = rewriteTo.isAfter(last) ? last : rewriteTo;
+            if (rewriteFrom.isAfter(rewriteTo)) {
+                return;
+            }
+        }
+
+        // Start one day earlier when possible, to compute the first day's
+        // consumption
+        boolean hasPreviousDay = rewriteFrom.isAfter(series.dateAt(0));
+        LocalDate computeFrom = hasPreviousDay ? rewriteFrom.minusDays(1) : rewriteFrom;
+        List<BigDecimal> values = interpolationService.calculateCounterValues(computeFrom, rewriteTo, series);
+
+        List<DailyConsumptionEntity> days = new ArrayList<>(values.size());
+        for (int i = hasPreviousDay ? 1 : 0; i < values.size(); i++) {
+            DailyConsumptionEntity day = new DailyConsumptionEntity();
+            day.setMeterId(meterId);
+            day.setConsumptionDate(computeFrom.plusDays(i));
+            day.setCounterKwh(values.get(i));
+            day.setConsumptionKwh(i == 0 ? BigDecimal.ZERO : values.get(i).subtract(values.get(i - 1)));
+            days.add(day);
+        }
+        persistenceService.saveDailyConsumption(days);
+    }
+
+    private static void checkPeriod(String meterId, LocalDate start, LocalDate end) {
+        Objects.requireNonNull(meterId, "Meter id cannot be null");
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+    }
+
+    private BigDecimal lookup(String meterId, LocalDate start, LocalDate end) {
+        BigDecimal startValue = null;
+        BigDecimal endValue = null;
+        for (DailyConsumptionEntity day : dailyRepository.findByMeterIdAndConsumptionDateIn(meterId,
+                List.of(start, end))) {
+            if (day.getConsumptionDate().equals(start)) {
+                startValue = day.getCounterKwh();
+            }
+            if (day.getConsumptionDate().equals(end)) {
+                endValue = day.getCounterKwh();
+            }
+        }
+        if (startValue == null || endValue == null) {
+            return null;
+        }
+        return endValue.subtract(startValue).max(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,191 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory pre-check of key uniqueness for one bulk import.
+ * <p>
+ * The filter is built from the keys already stored when the import starts. A
+ * key it does not contain is certainly new and goes
+ * straight to the insert batch, without a query and without reaching the
+ * unique constraint. Only the keys it may contain, stored duplicates and false
+ * positives, are confirmed against the database by the importer.
+ * {@link BillJsonImporter} adds the invoice numbers it accepts, so a number
+ * repeated later in the same file is caught too. {@link ReadingCsvImporter}
+ * adds none: its dates must be strictly increasing, so a file never repeats
+ * one.
+ * </p>
+ * <p>
+ * The number of keys an import adds is not known upfront, so the filter is a
+ * chain of {@link BloomFilter}s: the first is sized for twice the stored keys,
+ * and when the last one is full a new one with twice its capacity is added.
+ * Each filter gets half the false positive rate of the previous one, so the
+ * rate of the chain stays below
+ * {@code utility-manager.import.duplicate-filter.fpp} however many keys are
+ * added. Filters are added while they fit in
+ * {@code utility-manager.import.duplicate-filter.max-bytes}; past it the last
+ * filter takes every further key and the rate grows. The resulting memory
+ * use, expected false positive rate and check counts are returned as a
+ * {@link Report}.
+ * </p>
+ */
+public final class DuplicateFilter {
+
+    /**
+     * Outcome of the duplicate pre-check of an import.
+     *
+     * @param storedKeys                keys loaded from the database
+     * @param memoryBytes               memory used by the filter
+     * @param expectedFalsePositiveRate probability that a new key needs a
+     *                                  confirmation query, once every key is
+     *                                  added
+     * @param checked                   keys checked against the filter
+     * @param maybeDuplicates           keys the filter may contain, confirmed
+     *                                  against the database
+     * @param confirmedDuplicates       keys confirmed as already stored
+     */
+    public record Report(long storedKeys, long memoryBytes, double expectedFalsePositiveRate, long checked,
+            long maybeDuplicates, long confirmedDuplicates) {
+
+        /**
+         * Returns the number of confirmation queries answered "not stored".
+         *
+         * @return the false positives of the filter
+         */
+        public long falsePositives() {
+            return maybeDuplicates - confirmedDuplicates;
+        }
+    }
+
+    // Smallest filter built, so that an import into an empty table does not
+    // start from a few bytes
+    private static final long MIN_EXPECTED_KEYS = 1024;
+    // Ratio between the false positive rates of consecutive filters
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final List<BloomFilter> filters = new ArrayList<>();
+    private final double falsePositiveRate;
+    private final long maxBytes;
+    private long capacity;
+    private long memoryBytes;
+    private long storedKeys;
+    private long checked;
+    private long maybeDuplicates;
+    private long confirmedDuplicates;
+
+    private DuplicateFilter(long capacity, double falsePositiveRate, long maxBytes) {
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxBytes = maxBytes;
+        this.capacity = capacity;
+        // The rates of the chain, fpp * (1 - r) * r^i, add up to at most fpp
+        addFilter(falsePositiveRate * (1 - TIGHTENING_RATIO));
+    }
+
+    /**
+     * Creates an empty filter whose first {@link BloomFilter} is sized for the
+     * stored keys and as many new ones.
+     *
+     * @param storedKeys        number of keys already stored
+     * @param falsePositiveRate target false positive rate
+     * @param maxBytes          memory budget of the filter
+     * @return the filter, to be loaded with {@link #addStored}
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    static DuplicateFilter create(long storedKeys, double falsePositiveRate, long maxBytes) {
+        return new DuplicateFilter(Math.max(MIN_EXPECTED_KEYS, 2 * storedKeys), falsePositiveRate, maxBytes);
+    }
+
+    void addStored(String key) {
+        add(key);
+        storedKeys++;
+    }
+
+    void addStored(long key) {
+        writable().put(key);
+        storedKeys++;
+    }
+
+    /**
+     * Records a key accepted by the import.
+     */
+    void add(String key) {
+        writable().put(key);
+    }
+
+    /**
+     * Tests a key, counting the keys that need a confirmation query.
+     *
+     * @return {@code false} if the key is certainly not stored
+     */
+    boolean mightBeStored(String key) {
+        boolean maybe = false;
+        for (int i = 0; i < filters.size() && !maybe; i++) {
+            maybe = filters.get(i).mightContain(key);
+        }
+        return count(maybe);
+    }
+
+    /**
+     * Tests a key, counting the keys that need a confirmation query.
+     *
+     * @return {@code false} if the key is certainly not stored
+     */
+    boolean mightBeStored(long key) {
+        boolean maybe = false;
+        for (int i = 0; i < filters.size() && !maybe; i++) {
+            maybe = filters.get(i).mightContain(key);
+        }
+        return count(maybe);
+    }
+
+    /**
+     * Records keys a confirmation query found stored.
+     */
+    void confirmed(int duplicates) {
+        confirmedDuplicates += duplicates;
+    }
+
+    Report report() {
+        // A key is a false positive unless every filter rejects it
+        double allReject = 1;
+        for (BloomFilter filter : filters) {
+            allReject *= 1 - filter.expectedFalsePositiveRate();
+        }
+        return new Report(storedKeys, memoryBytes, 1 - allReject, checked, maybeDuplicates, confirmedDuplicates);
+    }
+
+    /**
+     * Returns the filter taking new keys, adding one when the last is full
+     * and the memory budget holds a new one at its full size.
+     */
+    private BloomFilter writable() {
+        BloomFilter last = filters.get(filters.size() - 1);
+        if (last.size() < capacity) {
+            return last;
+        }
+        double rate = falsePositiveRate * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, filters.size());
+        // A filter trimmed to the rest of the budget would saturate faster
+        // than the last one
+        if (BloomFilter.optimalBytes(2 * capacity, rate) > maxBytes - memoryBytes) {
+            return last;
+        }
+        capacity *= 2;
+        return addFilter(rate);
+    }
+
+    private BloomFilter addFilter(double rate) {
+        BloomFilter filter = BloomFilter.create(capacity, rate, maxBytes - memoryBytes);
+        filters.add(filter);
+        memoryBytes += filter.memoryBytes();
+        return filter;
+    }
+
+    private boolean count(boolean maybe) {
+        checked++;
+        if (maybe) {
+            maybeDuplicates++;
+        }
+        return maybe;
+    }
+}
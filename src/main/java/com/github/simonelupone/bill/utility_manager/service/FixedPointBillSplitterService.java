@@ -0,0 +1,224 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import org.springframework.stereotype.Service;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * {@link BillSplitter} carrying out the split on scaled {@code long} values.
+ * <p>
+ * Amounts are handled in cents, consumptions in milli-kWh and the tenant ratio
+ * in parts per million, which is exactly the precision of
+ * {@link BillSplitterService}; every rounding step reproduces
+ * {@link RoundingMode#HALF_UP}, so both engines return identical results. The
+ * arithmetic core ({@link #tenantRatioPpm(long, long)},
+ * {@link #tenantTotalCents(long, long, long)}) works on primitives only and
+ * does not allocate.
+ * </p>
+ * <p>
+ * Inputs that do not fit the fixed-point representation (more than 2 decimals
+ * on an amount, even trailing zeros, more than 3 on a consumption, or
+ * overflowing values) are delegated to {@link BillSplitterService}. The
+ * calculation details are built from the scaled values too, without
+ * {@code String.format}.
+ * </p>
+ */
+@Service
+public class FixedPointBillSplitterService implements BillSplitter {
+
+    private static final int AMOUNT_SCALE = 2;
+    private static final int KWH_SCALE = 3;
+    private static final int RATIO_SCALE = 6;
+    private static final long PPM = 1_000_000L;
+
+    /**
+     * Formatting symbols of a locale.
+     *
+     * @param plainDigits whether the locale formats with ASCII digits and a
+     *                    {@code -} minus sign
+     */
+    private record NumberSymbols(Locale locale, char decimalSeparator, boolean plainDigits) {
+    }
+
+    // Symbols of the last default format locale, looked up again when it changes
+    private static volatile NumberSymbols lastSymbols;
+
+    private final BillSplitterService fallback;
+
+    public FixedPointBillSplitterService(BillSplitterService fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public SplitResult splitBill(Bill bill, BigDecimal tenantKwh) {
+        try {
+            return splitScaled(bill, tenantKwh);
+        } catch (ArithmeticException e) {
+            return fallback.splitBill(bill, tenantKwh);
+        }
+    }
+
+    private static SplitResult splitScaled(Bill bill, BigDecimal tenantKwh) {
+        BillCharges charges = bill.charges();
+        BigDecimal totalKwh = bill.totalKwh();
+
+        long variableCents = Math.addExact(cents(charges.energyVariable().amount()),
+                cents(charges.exciseAndVat().amount()));
+        long fixedCents = Math.addExact(cents(charges.transportFixed().amount()),
+                cents(charges.transportPowerQuota().amount()));
+        long billCents = Math.addExact(variableCents, fixedCents);
+        if (charges.tvTax().isPresent()) {
+            billCents = Math.addExact(billCents, cents(charges.tvTax().get()));
+        }
+        if (charges.socialBonus().isPresent()) {
+            billCents = Math.addExact(billCents, cents(charges.socialBonus().get().amount()));
+        }
+
+        long tenantMilliKwh = milliKwh(tenantKwh);
+        long totalMilliKwh = milliKwh(totalKwh);
+        boolean hasConsumption = totalMilliKwh > 0;
+        long ratioPpm = hasConsumption ? tenantRatioPpm(tenantMilliKwh, totalMilliKwh) : 0;
+
+        long fixedShareCents = roundHalfUp(fixedCents, 2);
+        long tenantCents = tenantTotalCents(variableCents, fixedCents, ratioPpm);
+        long variableShareCents = roundHalfUp(Math.multiplyExact(variableCents, ratioPpm), PPM);
+
+        BigDecimal tenantRatio = hasConsumption ? BigDecimal.valueOf(ratioPpm, RATIO_SCALE) : BigDecimal.ZERO;
+
+        String details = details(tenantMilliKwh, ratioPpm, totalMilliKwh, variableShareCents, fixedShareCents);
+
+        return new SplitResult(
+                BigDecimal.valueOf(tenantCents, AMOUNT_SCALE),
+                BigDecimal.valueOf(Math.subtractExact(billCents, tenantCents), AMOUNT_SCALE),
+                tenantKwh,
+                tenantRatio,
+                details);
+    }
+
+    /**
+     * Computes the tenant ratio in parts per million, rounded half-up.
+     *
+     * @param tenantMilliKwh the tenant consumption in milli-kWh
+     * @param totalMilliKwh  the total consumption in milli-kWh (must be positive)
+     * @return the ratio in ppm
+     * @throws ArithmeticException if the computation overflows
+     */
+    public static long tenantRatioPpm(long tenantMilliKwh, long totalMilliKwh) {
+        return roundHalfUp(Math.multiplyExact(tenantMilliKwh, PPM), totalMilliKwh);
+    }
+
+    /**
+     * Computes the tenant total in cents: the variable costs weighted by the
+     * ratio plus half of the fixed costs, rounded half-up.
+     *
+     * @param variableCents the total variable costs in cents
+     * @param fixedCents    the total fixed costs in cents
+     * @param ratioPpm      the tenant ratio in ppm
+     * @return the tenant total in cents
+     * @throws ArithmeticException if the computation overflows
+     */
+    public static long tenantTotalCents(long variableCents, long fixedCents, long ratioPpm) {
+        long variableShare = Math.multiplyExact(variableCents, ratioPpm);
+        long fixedShare = Math.multiplyExact(roundHalfUp(fixedCents, 2), PPM);
+        return roundHalfUp(Math.addExact(variableShare, fixedShare), PPM);
+    }
+
+    /**
+     * Divides and rounds half-up (ties away from zero), like
+     * {@link RoundingMode#HALF_UP}.
+     *
+     * @param dividend the dividend
+     * @param divisor  the divisor (must be positive)
+     * @return the rounded quotient
+     */
+    static long roundHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * Builds the same text as the {@code String.format} of
+     * {@link BillSplitterService}, from the scaled values: {@code %.2f} rounds
+     * half-up and uses the decimal separator of the default format locale,
+     * {@code %s} prints amounts at scale 2 with a dot. Locales with other digits
+     * or minus sign go through {@code String.format} instead.
+     */
+    private static String details(long tenantMilliKwh, long ratioPpm, long totalMilliKwh, long variableShareCents,
+            long fixedShareCents) {
+        NumberSymbols symbols = symbols();
+        if (!symbols.plainDigits()) {
+            return String.format(
+                    "Tenant Consumption: %.2f kWh (%.2f%% of Total %.2f kWh). Variable Share: %s, Fixed Share: %s",
+                    BigDecimal.valueOf(tenantMilliKwh, KWH_SCALE),
+                    ratioPpm / 10_000.0,
+                    BigDecimal.valueOf(totalMilliKwh, KWH_SCALE),
+                    BigDecimal.valueOf(variableShareCents, AMOUNT_SCALE),
+                    BigDecimal.valueOf(fixedShareCents, AMOUNT_SCALE));
+        }
+
+        char separator = symbols.decimalSeparator();
+        StringBuilder details = new StringBuilder(128).append("Tenant Consumption: ");
+        appendHundredths(details, tenantMilliKwh < 0, roundHalfUp(tenantMilliKwh, 10), separator);
+        details.append(" kWh (");
+        // The ratio in percent has 4 decimals
+        appendHundredths(details, ratioPpm < 0, roundHalfUp(ratioPpm, 100), separator);
+        details.append("% of Total ");
+        appendHundredths(details, totalMilliKwh < 0, roundHalfUp(totalMilliKwh, 10), separator);
+        details.append(" kWh). Variable Share: ");
+        appendHundredths(details, variableShareCents < 0, variableShareCents, '.');
+        details.append(", Fixed Share: ");
+        appendHundredths(details, fixedShareCents < 0, fixedShareCents, '.');
+        return details.toString();
+    }
+
+    // The sign comes from the unrounded value, so -0.001 prints as -0.00
+    private static void appendHundredths(StringBuilder text, boolean negative, long hundredths, char separator) {
+        long magnitude = Math.abs(hundredths);
+        if (negative) {
+            text.append('-');
+        }
+        text.append(magnitude / 100).append(separator);
+        long fraction = magnitude % 100;
+        if (fraction < 10) {
+            text.append('0');
+        }
+        text.append(fraction);
+    }
+
+    private static NumberSymbols symbols() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        NumberSymbols symbols = lastSymbols;
+        if (symbols == null || !symbols.locale().equals(locale)) {
+            DecimalFormatSymbols format = DecimalFormatSymbols.getInstance(locale);
+            symbols = new NumberSymbols(locale, format.getDecimalSeparator(),
+                    format.getZeroDigit() == '0' && format.getMinusSign() == '-');
+            lastSymbols = symbols;
+        }
+        return symbols;
+    }
+
+    private static long cents(BigDecimal amount) {
+        // Trailing zeros count: the reference engine keeps the scale of the
+        // amounts in the owner total
+        if (amount.scale() > AMOUNT_SCALE) {
+            throw new ArithmeticException("More than " + AMOUNT_SCALE + " decimals: " + amount);
+        }
+        // Scale 0 afterwards, so the exact conversion does not reject the cents
+        return amount.movePointRight(AMOUNT_SCALE).longValueExact();
+    }
+
+    private static long milliKwh(BigDecimal kwh) {
+        return kwh.movePointRight(KWH_SCALE).longValueExact();
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interval tree over closed day ranges, each identified by a {@code long} id.
+ * <p>
+ * AVL tree ordered by (start, id), where every node also stores the maximum
+ * end of its subtree: subtrees ending before a query can be skipped, so point
+ * and overlap queries take O(log n + k) for k matches, and inserts and removals
+ * O(log n). Results are ordered by start, then id.
+ * </p>
+ * <p>
+ * Not thread-safe.
+ * </p>
+ */
+final class IntervalTree {
+
+    private static final class Node {
+        final long start;
+        final long id;
+        final long end;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long start, long end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    /**
+     * Returns the number of intervals in the tree.
+     *
+     * @return the tree size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds an interval. The caller guarantees that no interval with the same
+     * start and id is already present.
+     *
+     * @param start first day of the interval
+     * @param end   last day of the interval (inclusive)
+     * @param id    identifier of the interval
+     * @throws IllegalArgumentException if {@code end} is before {@code start}
+     */
+    void insert(long start, long end, long id) {
+        if (end < start) {
+            throw new IllegalArgumentException("Interval end cannot be before its start");
+        }
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+
+    /**
+     * Removes the interval with the given start and id.
+     *
+     * @param start first day of the interval
+     * @param id    identifier of the interval
+     * @return {@code true} if the interval was present
+     */
+    boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Returns the ids of the intervals overlapping {@code [from, to]}.
+     *
+     * @param from first day of the range
+     * @param to   last day of the range (inclusive)
+     * @return the matching ids, ordered by interval start then id
+     */
+    List<Long> overlapping(long from, long to) {
+        List<Long> ids = new ArrayList<>();
+        collect(root, from, to, ids);
+        return ids;
+    }
+
+    /**
+     * Removes every interval.
+     */
+    void clear() {
+        root = null;
+        size = 0;
+    }
+
+    private static void collect(Node node, long from, long to, List<Long> ids) {
+        while (node != null && node.maxEnd >= from) {
+            collect(node.left, from, to, ids);
+            if (node.start > to) {
+                return;
+            }
+            if (node.end >= from) {
+                ids.add(node.id);
+            }
+            node = node.right;
+        }
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Long.compare(id, node.id);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd > maxEnd) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > maxEnd) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+}
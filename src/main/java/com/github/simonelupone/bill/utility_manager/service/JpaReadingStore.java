@@ -0,0 +1,110 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+
+/**
+ * {@link ReadingStore} on the readings table.
+ * <p>
+ * Reads go through the indexed {@link ReadingRepository} queries; new readings
+ * are inserted in JDBC batches by the {@link BulkPersistenceService}. Change
+ * events are published by the
+ * {@link com.github.simonelupone.bill.utility_manager.persistence.ReadingEntityListener}.
+ * </p>
+ */
+public class JpaReadingStore implements ReadingStore {
+
+    private static final int KWH_SCALE = 2;
+
+    private final ReadingRepository readingRepository;
+    private final BulkPersistenceService persistenceService;
+
+    public JpaReadingStore(ReadingRepository readingRepository, BulkPersistenceService persistenceService) {
+        this.readingRepository = readingRepository;
+        this.persistenceService = persistenceService;
+    }
+
+    @Override
+    @Transactional
+    public int append(String buildingId, String meterId, Collection<Reading> readings) {
+        Objects.requireNonNull(buildingId, "Building id cannot be null");
+        Objects.requireNonNull(meterId, "Meter id cannot be null");
+        ReadingSeries incoming = ReadingSeries.of(readings);
+        if (incoming.isEmpty()) {
+            return 0;
+        }
+
+        Map<LocalDate, ReadingEntity> stored = new HashMap<>();
+        for (ReadingEntity entity : readingRepository.findByMeterIdAndReadingDateBetweenOrderByReadingDateAsc(meterId,
+                incoming.dateAt(0), incoming.dateAt(incoming.size() - 1))) {
+            stored.put(entity.getReadingDate(), entity);
+        }
+
+        List<ReadingEntity> inserted = new ArrayList<>();
+        int written = 0;
+        for (int i = 0; i < incoming.size(); i++) {
+            BigDecimal kwh = BigDecimal.valueOf(incoming.kWhAt(i)).setScale(KWH_SCALE, RoundingMode.HALF_UP);
+            ReadingEntity entity = stored.get(incoming.dateAt(i));
+            if (entity == null) {
+                entity = new ReadingEntity();
+                entity.setBuildingId(buildingId);
+                entity.setMeterId(meterId);
+                entity.setReadingDate(incoming.dateAt(i));
+                inserted.add(entity);
+            } else if (entity.getKwhValue().compareTo(kwh) == 0) {
+                continue;
+            }
+            // Stored entities are managed: the change is flushed with the inserts
+            entity.setKwhValue(kwh);
+            written++;
+        }
+        persistenceService.saveReadings(inserted);
+        return written;
+    }
+
+    @Override
+    public ReadingSeries findAll(String meterId) {
+        return ReadingEntityMapper.toSeries(readingRepository.findByMeterIdOrderByReadingDateAsc(meterId));
+    }
+
+    @Override
+    public ReadingSeries findBracketing(String meterId, LocalDate start, LocalDate end) {
+        List<ReadingEntity> entities = new ArrayList<>();
+        readingRepository.findFirstByMeterIdAndReadingDateLessThanEqualOrderByReadingDateDesc(meterId, start)
+                .ifPresent(entities::add);
+        entities.addAll(readingRepository.findByMeterIdAndReadingDateBetweenOrderByReadingDateAsc(meterId, start, end));
+        readingRepository.findFirstByMeterIdAndReadingDateGreaterThanEqualOrderByReadingDateAsc(meterId, end)
+                .ifPresent(entities::add);
+
+        return ReadingEntityMapper.toSeries(entities);
+    }
+
+    @Override
+    public List<LocalDate> findReadingDates(String meterId) {
+        return readingRepository.findReadingDatesByMeterId(meterId);
+    }
+
+    @Override
+    public List<LocalDate> findExistingReadingDates(String meterId, Collection<LocalDate> dates) {
+        return readingRepository.findExistingReadingDates(meterId, dates);
+    }
+
+    @Override
+    public List<String> findMeterIds() {
+        return readingRepository.findAllMeterIds();
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Thread-safe, size-bounded cache with least-recently-used eviction.
+ * <p>
+ * Values are computed outside the lock, so a slow load never blocks readers of
+ * other keys. Every key with a load in flight carries a generation number that
+ * is bumped on invalidation: a value whose load started before an invalidation
+ * of the same key is returned to its caller but not stored, so a stale value
+ * can never be served from the cache. The generation is dropped with the last
+ * load of the key, so invalidated keys retain no memory.
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class LruCache<K, V> {
+
+    /**
+     * Snapshot of the cache counters.
+     *
+     * @param hits      lookups answered from the cache
+     * @param misses    lookups that had to load the value
+     * @param evictions entries dropped because of the size bound
+     * @param size      current number of entries
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+
+        /**
+         * Returns the fraction of lookups answered from the cache.
+         *
+         * @return the hit ratio in [0, 1], or 0 if there were no lookups
+         */
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    // Loads of one key in flight, and its generation
+    private static final class Loads {
+        private int count;
+        private long generation;
+    }
+
+    private final int maxSize;
+    private final LinkedHashMap<K, V> entries;
+    private final Map<K, Loads> loads = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize maximum number of entries (must be positive)
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public LruCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive. Got: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the key, loading it on a miss.
+     *
+     * @param key    the key to look up
+     * @param loader computes the value on a miss; must not return {@code null}
+     * @return the cached or freshly loaded value
+     * @throws NullPointerException if {@code key} is {@code null} or the loader
+     *                              returns {@code null}
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Objects.requireNonNull(key, "Cache key cannot be null");
+
+        Loads inFlight;
+        long generation;
+        synchronized (this) {
+            V cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            inFlight = loads.computeIfAbsent(key, k -> new Loads());
+            inFlight.count++;
+            generation = inFlight.generation;
+        }
+
+        V loaded = null;
+        try {
+            loaded = Objects.requireNonNull(loader.apply(key), "Cache loader returned null");
+        } finally {
+            synchronized (this) {
+                if (loaded != null && inFlight.generation == generation) {
+                    entries.put(key, loaded);
+                }
+                if (--inFlight.count == 0) {
+                    loads.remove(key);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Removes the entry for the key and discards any load of it still in flight.
+     *
+     * @param key the key to invalidate
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        Loads inFlight = loads.get(key);
+        if (inFlight != null) {
+            inFlight.generation++;
+        }
+    }
+
+    /**
+     * Removes every entry and discards every load still in flight.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        for (Loads inFlight : loads.values()) {
+            inFlight.generation++;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return the current statistics
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size());
+    }
+}
@@ -0,0 +1,477 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent.ChangeType;
+
+/**
+ * {@link ReadingStore} keeping the readings of each meter in an append-only
+ * segment file, read through memory mapping.
+ * <p>
+ * A segment starts with an 8-byte header (magic number, format version, record
+ * size) followed by fixed-size 16-byte records: epoch day, kWh value as the
+ * bits of a {@code double}, and the CRC-32 of both. Readings arriving after
+ * the last stored date are appended. An append that would break the strictly
+ * increasing date order, a correction or a late reading, compacts the segment
+ * instead: the merged records, the latest of each date, are written to a
+ * temporary file that atomically replaces the segment.
+ * </p>
+ * <p>
+ * Appends are crash-safe: a torn or corrupted tail left by a crash fails its
+ * checksum and is truncated when the segment is reopened, keeping every
+ * record before it. A crash during a compaction leaves either the old or the
+ * new file, both valid; a segment still out of order is compacted when
+ * reopened. With {@code sync} enabled each append is forced to disk before it
+ * returns. Writes are durable as soon as they return and are not
+ * rolled back with a surrounding transaction; the transaction only lets
+ * listeners handle the change events of a batch together.
+ * </p>
+ * <p>
+ * Reads use the mapping directly, without an intermediate heap buffer. Since
+ * records are always in date order, floor and ceiling lookups are binary
+ * searches on the mapped records and only the bracketing records are copied
+ * into the returned series. The file is mapped in regions doubling in size
+ * and appends are written through the mapping, so a segment is remapped only
+ * when it outgrows its region; the unused tail of the region is cut off when
+ * the store is closed or the segment reopened.
+ * </p>
+ */
+public class MappedReadingStore implements ReadingStore, Closeable {
+
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 16;
+
+    private static final int MAGIC = 0x52444753; // "RDGS"
+    private static final short VERSION = 1;
+    private static final String EXTENSION = ".seg";
+    private static final String COMPACTION_SUFFIX = ".compact";
+    // Smallest mapped region, 4096 records
+    private static final long MIN_REGION_SIZE = HEADER_SIZE + 4096L * RECORD_SIZE;
+
+    private final Path directory;
+    private final boolean sync;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+
+    public MappedReadingStore(Path directory, boolean sync, ApplicationEventPublisher eventPublisher) {
+        Objects.requireNonNull(directory, "Directory cannot be null");
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create " + directory, e);
+        }
+        this.directory = directory;
+        this.sync = sync;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public int append(String buildingId, String meterId, Collection<Reading> readings) {
+        Objects.requireNonNull(buildingId, "Building id cannot be null");
+        Objects.requireNonNull(meterId, "Meter id cannot be null");
+        ReadingSeries incoming = ReadingSeries.of(readings);
+        if (incoming.isEmpty()) {
+            return 0;
+        }
+
+        Segment segment = segment(meterId, true);
+        List<ReadingChangedEvent> events = new ArrayList<>();
+        synchronized (segment) {
+            ReadingSeries stored = segment.bracketing(incoming.epochDayAt(0),
+                    incoming.epochDayAt(incoming.size() - 1));
+            ByteBuffer records = ByteBuffer.allocate(incoming.size() * RECORD_SIZE);
+            for (int i = 0; i < incoming.size(); i++) {
+                int day = incoming.epochDayAt(i);
+                int floor = stored.floorIndex(day);
+                boolean exists = floor >= 0 && stored.epochDayAt(floor) == day;
+                if (exists && stored.kWhAt(floor) == incoming.kWhAt(i)) {
+                    continue;
+                }
+                putRecord(records, day, incoming.kWhAt(i));
+                events.add(new ReadingChangedEvent(meterId, incoming.dateAt(i), null,
+                        exists ? ChangeType.UPDATED : ChangeType.INSERTED, incoming.kWhAt(i)));
+            }
+            records.flip();
+            if (records.hasRemaining()) {
+                segment.write(records, sync);
+            }
+        }
+
+        events.forEach(eventPublisher::publishEvent);
+        return events.size();
+    }
+
+    @Override
+    public ReadingSeries findAll(String meterId) {
+        Segment segment = segment(meterId, false);
+        return segment == null ? ReadingSeries.of(List.of()) : segment.all();
+    }
+
+    @Override
+    public ReadingSeries findBracketing(String meterId, LocalDate start, LocalDate end) {
+        Segment segment = segment(meterId, false);
+        return segment == null
+                ? ReadingSeries.of(List.of())
+                : segment.bracketing(start.toEpochDay(), end.toEpochDay());
+    }
+
+    @Override
+    public List<LocalDate> findReadingDates(String meterId) {
+        Segment segment = segment(meterId, false);
+        return segment == null ? List.of() : segment.dates();
+    }
+
+    @Override
+    public List<LocalDate> findExistingReadingDates(String meterId, Collection<LocalDate> dates) {
+        Segment segment = segment(meterId, false);
+        return segment == null ? List.of() : segment.existing(dates);
+    }
+
+    @Override
+    public List<String> findMeterIds() {
+        List<String> meterIds = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String encoded = name.substring(0, name.length() - EXTENSION.length());
+                String meterId = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+                if (!findAll(meterId).isEmpty()) {
+                    meterIds.add(meterId);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list " + directory, e);
+        }
+        meterIds.sort(null);
+        return meterIds;
+    }
+
+    /**
+     * Closes every open segment.
+     */
+    @Override
+    public void close() {
+        segments.values().forEach(Segment::close);
+        segments.clear();
+    }
+
+    private Segment segment(String meterId, boolean create) {
+        Objects.requireNonNull(meterId, "Meter id cannot be null");
+        Segment segment = segments.get(meterId);
+        if (segment != null) {
+            return segment;
+        }
+        Path file = directory.resolve(Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(meterId.getBytes(StandardCharsets.UTF_8)) + EXTENSION);
+        if (!create && !Files.exists(file)) {
+            return null;
+        }
+        return segments.computeIfAbsent(meterId, k -> Segment.open(file));
+    }
+
+    private static ByteBuffer header(int records) {
+        return ByteBuffer.allocate(HEADER_SIZE + records * RECORD_SIZE)
+                .putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE);
+    }
+
+    private static void putRecord(ByteBuffer records, int epochDay, double kWh) {
+        int start = records.position();
+        records.putInt(epochDay);
+        records.putLong(Double.doubleToRawLongBits(kWh));
+        records.putInt(checksum(records, start));
+    }
+
+    private static int checksum(ByteBuffer buffer, int recordStart) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(recordStart, RECORD_SIZE - Integer.BYTES));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Snapshot of a segment: the mapped region and the number of valid records
+     * in it, in strictly increasing date order. Replaced, never mutated, on
+     * each write; records past {@code count} are not part of the snapshot.
+     */
+    private record View(MappedByteBuffer buffer, int count) {
+
+        int epochDayAt(int index) {
+            return buffer.getInt(HEADER_SIZE + index * RECORD_SIZE);
+        }
+
+        double kWhAt(int index) {
+            return Double.longBitsToDouble(buffer.getLong(HEADER_SIZE + index * RECORD_SIZE + Integer.BYTES));
+        }
+
+        int lastEpochDay() {
+            return count == 0 ? Integer.MIN_VALUE : epochDayAt(count - 1);
+        }
+
+        long size() {
+            return HEADER_SIZE + (long) count * RECORD_SIZE;
+        }
+    }
+
+    /**
+     * An open segment file. Writes are serialized by the store; reads use the
+     * current {@link View} without locking.
+     */
+    private static final class Segment {
+
+        private final Path file;
+        private FileChannel channel;
+        private volatile View view;
+
+        private Segment(Path file, FileChannel channel, View view) {
+            this.file = file;
+            this.channel = channel;
+            this.view = view;
+        }
+
+        /**
+         * Opens a segment, writing the header of a new file, truncating the
+         * tail after the last valid record of an existing one and compacting it
+         * if its records are out of order.
+         */
+        static Segment open(Path file) {
+            try {
+                // Left by a crash during a compaction, which did not replace the segment
+                Files.deleteIfExists(compactionFile(file));
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                try {
+                    if (channel.size() < HEADER_SIZE) {
+                        channel.truncate(0);
+                        channel.write(header(0).flip(), 0);
+                        channel.force(true);
+                    }
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                    if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION
+                            || buffer.getShort(6) != RECORD_SIZE) {
+                        throw new IllegalStateException("Not a reading segment: " + file);
+                    }
+                    View view = recover(buffer);
+                    if (view.size() < channel.size()) {
+                        channel.truncate(view.size());
+                        channel.force(true);
+                        view = new View(channel.map(FileChannel.MapMode.READ_WRITE, 0, view.size()), view.count());
+                    }
+                    Segment segment = new Segment(file, channel, view);
+                    if (!isSorted(view)) {
+                        segment.compact(view);
+                    }
+                    return segment;
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open " + file, e);
+            }
+        }
+
+        /**
+         * Counts the records up to the first torn or corrupted one.
+         */
+        private static View recover(MappedByteBuffer buffer) {
+            int available = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+            int count = 0;
+            while (count < available) {
+                int start = HEADER_SIZE + count * RECORD_SIZE;
+                if (buffer.getInt(start + RECORD_SIZE - Integer.BYTES) != checksum(buffer, start)) {
+                    break;
+                }
+                count++;
+            }
+            return new View(buffer, count);
+        }
+
+        private static boolean isSorted(View view) {
+            for (int i = 1; i < view.count(); i++) {
+                if (view.epochDayAt(i) <= view.epochDayAt(i - 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Writes records in increasing date order: appended if they all follow
+         * the last stored date, merged by a compaction otherwise.
+         */
+        void write(ByteBuffer records, boolean sync) {
+            View current = view;
+            int firstEpochDay = records.getInt(records.position());
+            int added = records.remaining() / RECORD_SIZE;
+            long end = current.size();
+            try {
+                MappedByteBuffer buffer = current.buffer();
+                if (end + records.remaining() > buffer.capacity()) {
+                    long regionSize = Math.max(end + records.remaining(),
+                            Math.max(MIN_REGION_SIZE, 2L * buffer.capacity()));
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(regionSize, Integer.MAX_VALUE));
+                }
+                int length = records.remaining();
+                buffer.put((int) end, records, records.position(), length);
+                if (sync) {
+                    buffer.force((int) end, length);
+                }
+                View written = new View(buffer, current.count() + added);
+                if (firstEpochDay > current.lastEpochDay()) {
+                    view = written;
+                } else {
+                    // Readers keep the previous view until the compacted one replaces it
+                    compact(written);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to " + file, e);
+            }
+        }
+
+        /**
+         * Rewrites the segment with the latest record of each date, in date
+         * order, through a temporary file that atomically replaces it.
+         */
+        private void compact(View unsorted) throws IOException {
+            ReadingSeries series = index(unsorted);
+            ByteBuffer content = header(series.size());
+            for (int i = 0; i < series.size(); i++) {
+                putRecord(content, series.epochDayAt(i), series.kWhAt(i));
+            }
+            content.flip();
+
+            Path compacted = compactionFile(file);
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (content.hasRemaining()) {
+                    out.write(content);
+                }
+                out.force(true);
+            }
+            Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            FileChannel replaced = channel;
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            replaced.close();
+            // Mappings of the replaced file stay valid for readers still using them
+            view = new View(channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()), series.size());
+        }
+
+        ReadingSeries all() {
+            View current = view;
+            return copy(current, 0, current.count() - 1);
+        }
+
+        ReadingSeries bracketing(long startDay, long endDay) {
+            View current = view;
+            // Floor of start, or the first record if every record is after it
+            int from = Math.max(floorIndex(current, startDay), 0);
+            // Ceiling of end, or the last record if every record is before it
+            int to = floorIndex(current, endDay);
+            if (to >= 0 && current.epochDayAt(to) < endDay && to < current.count() - 1) {
+                to++;
+            }
+            if (to < 0) {
+                to = Math.min(0, current.count() - 1);
+            }
+            return copy(current, from, to);
+        }
+
+        List<LocalDate> dates() {
+            View current = view;
+            List<LocalDate> dates = new ArrayList<>(current.count());
+            for (int i = 0; i < current.count(); i++) {
+                dates.add(LocalDate.ofEpochDay(current.epochDayAt(i)));
+            }
+            return dates;
+        }
+
+        List<LocalDate> existing(Collection<LocalDate> dates) {
+            View current = view;
+            List<LocalDate> existing = new ArrayList<>();
+            for (LocalDate date : dates) {
+                int floor = floorIndex(current, date.toEpochDay());
+                if (floor >= 0 && current.epochDayAt(floor) == date.toEpochDay()) {
+                    existing.add(date);
+                }
+            }
+            return existing;
+        }
+
+        /**
+         * Cuts off the unused tail of the mapped region and closes the file.
+         */
+        void close() {
+            try {
+                channel.truncate(view.size());
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close " + file, e);
+            }
+        }
+
+        private static Path compactionFile(Path file) {
+            return file.resolveSibling(file.getFileName() + COMPACTION_SUFFIX);
+        }
+
+        private static int floorIndex(View view, long epochDay) {
+            int low = 0;
+            int high = view.count() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (view.epochDayAt(mid) <= epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        private static ReadingSeries copy(View view, int from, int to) {
+            int size = Math.max(to - from + 1, 0);
+            int[] days = new int[size];
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                days[i] = view.epochDayAt(from + i);
+                values[i] = view.kWhAt(from + i);
+            }
+            return ReadingSeries.ofSorted(days, values);
+        }
+
+        private static ReadingSeries index(View view) {
+            List<Reading> readings = new ArrayList<>(view.count());
+            for (int i = 0; i < view.count(); i++) {
+                readings.add(Reading.of(LocalDate.ofEpochDay(view.epochDayAt(i)), view.kWhAt(i)));
+            }
+            // Stable sort: the latest record of a date wins
+            return ReadingSeries.of(readings);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+
+/**
+ * Service calculating the consumption of a stored meter.
+ * <p>
+ * Readings are taken from the {@link ReadingSeriesCache}, so repeated
+ * calculations against the same meter neither query the database nor re-sort
+ * the series. One-off calculations can instead fetch only the readings
+ * bracketing the period through
+ * {@link #calculateConsumptionOnDemand(String, LocalDate, LocalDate)}.
+ * </p>
+ */
+@Service
+public class MeterConsumptionService {
+
+    private final ReadingSeriesCache seriesCache;
+    private final ConsumptionInterpolationService interpolationService;
+    private final ReadingStore readingStore;
+    private final MetricsRecorder metrics;
+
+    public MeterConsumptionService(ReadingSeriesCache seriesCache,
+            ConsumptionInterpolationService interpolationService,
+            ReadingStore readingStore,
+            MetricsRecorder metrics) {
+        this.seriesCache = seriesCache;
+        this.interpolationService = interpolationService;
+        this.readingStore = readingStore;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Calculates the consumption of a meter between two dates.
+     *
+     * @param meterId identifier of the meter
+     * @param start   the start date of the period (inclusive)
+     * @param end     the end date of the period (inclusive)
+     * @return the interpolated consumption
+     * @throws IllegalArgumentException if the readings of the meter do not cover
+     *                                  the period
+     */
+    public BigDecimal calculateConsumption(String meterId, LocalDate start, LocalDate end) {
+        MetricsRecorder.Sample sample = metrics.startConsumption();
+        ReadingSeries series = seriesCache.get(meterId);
+        BigDecimal consumption = interpolationService.calculateConsumption(start, end, series);
+        metrics.stopConsumption(sample, meterId, series.size());
+        return consumption;
+    }
+
+    /**
+     * Calculates the consumption of a meter for many billing periods at once.
+     *
+     * @param meterId identifier of the meter
+     * @param periods the billing periods to evaluate
+     * @return the interpolated consumption of each period, in input order
+     * @throws IllegalArgumentException if the readings of the meter do not cover
+     *                                  every period
+     */
+    public List<BigDecimal> calculateConsumption(String meterId, List<BillPeriod> periods) {
+        MetricsRecorder.Sample sample = metrics.startConsumption();
+        ReadingSeries series = seriesCache.get(meterId);
+        List<BigDecimal> consumptions = interpolationService.calculateConsumption(periods, series);
+        metrics.stopConsumption(sample, meterId, series.size());
+        return consumptions;
+    }
+
+    /**
+     * Calculates the consumption of a meter between two dates, fetching only the
+     * readings needed for the interpolation.
+     * <p>
+     * Loads the latest reading on or before {@code start}, the earliest reading
+     * on or after {@code end} and the readings in between through
+     * {@link ReadingStore#findBracketing}, so the cost does not depend on the
+     * size of the meter's history.
+     * The result is identical to interpolating over the full history.
+     * </p>
+     *
+     * @param meterId identifier of the meter
+     * @param start   the start date of the period (inclusive)
+     * @param end     the end date of the period (inclusive)
+     * @return the interpolated consumption
+     * @throws IllegalArgumentException if the readings of the meter do not cover
+     *                                  the period
+     */
+    public BigDecimal calculateConsumptionOnDemand(String meterId, LocalDate start, LocalDate end) {
+        MetricsRecorder.Sample sample = metrics.startConsumption();
+        ReadingSeries series = loadBracketingSeries(meterId, start, end);
+        BigDecimal consumption = interpolationService.calculateConsumption(start, end, series);
+        metrics.stopConsumption(sample, meterId, series.size());
+        return consumption;
+    }
+
+    /**
+     * Loads the readings bracketing a period: the floor of {@code start}, the
+     * ceiling of {@code end} and every reading in between.
+     *
+     * @param meterId identifier of the meter
+     * @param start   the start date of the period (inclusive)
+     * @param end     the end date of the period (inclusive)
+     * @return the bracketing readings as a series
+     */
+    ReadingSeries loadBracketingSeries(String meterId, LocalDate start, LocalDate end) {
+        MetricsRecorder.Sample sample = metrics.startLoad();
+        ReadingSeries series = readingStore.findBracketing(meterId, start, end);
+        metrics.stopLoad(sample, "reading", series.size());
+        return series;
+    }
+}
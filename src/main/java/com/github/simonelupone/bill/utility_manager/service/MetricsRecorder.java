@@ -0,0 +1,492 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records timings of the hot paths, both as Micrometer meters and as JDK
+ * Flight Recorder events.
+ * <p>
+ * Each measurement is a {@link Sample} taken by a {@code start...} method and
+ * completed by the matching {@code stop...} method. The JFR events nest: a
+ * {@code BillComputation} event spans the {@code Consumption} and
+ * {@code Split} events of the same bill on the same thread, so a recording
+ * shows every bill broken down by phase.
+ * </p>
+ * <p>
+ * With {@code utility-manager.metrics.enabled=false} every {@code start...}
+ * method returns a shared no-op sample and every {@code stop...} method
+ * returns immediately: no clock read, no allocation, no event.
+ * </p>
+ */
+@Component
+public class MetricsRecorder {
+
+    /**
+     * An ongoing measurement.
+     */
+    public static final class Sample {
+
+        private final long startNanos;
+        private final Event event;
+
+        private Sample(long startNanos, Event event) {
+            this.startNanos = startNanos;
+            this.event = event;
+        }
+    }
+
+    private static final Sample NOOP = new Sample(0, null);
+
+    private final boolean enabled;
+    private final MeterRegistry registry;
+    private final Timer computationTimer;
+    private final Timer consumptionTimer;
+    private final DistributionSummary seriesSize;
+    private final Timer splitTimer;
+    private final Timer importTimer;
+    private final Counter importedReadings;
+    private final Counter rejectedReadings;
+    private final Timer pipelineTimer;
+    private final Timer pipelineLatency;
+    private final Counter persistedBills;
+    private final Counter rejectedBills;
+    private final Map<String, Timer> loadTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> saveTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> loadedRows = new ConcurrentHashMap<>();
+    private final Map<String, Counter> savedRows = new ConcurrentHashMap<>();
+
+    public MetricsRecorder(MeterRegistry registry,
+            @Value("${utility-manager.metrics.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.registry = registry;
+        if (!enabled) {
+            this.computationTimer = null;
+            this.consumptionTimer = null;
+            this.seriesSize = null;
+            this.splitTimer = null;
+            this.importTimer = null;
+            this.importedReadings = null;
+            this.rejectedReadings = null;
+            this.pipelineTimer = null;
+            this.pipelineLatency = null;
+            this.persistedBills = null;
+            this.rejectedBills = null;
+            return;
+        }
+        this.computationTimer = timer("utility.bill.computation", "Interpolation and split of one bill");
+        this.consumptionTimer = timer("utility.consumption", "Consumption calculation of a meter");
+        this.seriesSize = DistributionSummary.builder("utility.consumption.readings")
+                .description("Readings in the series a consumption is interpolated on")
+                .baseUnit("readings")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.splitTimer = timer("utility.split", "Split of one bill between tenant and owner");
+        this.importTimer = timer("utility.import", "Import of one reading file");
+        this.importedReadings = Counter.builder("utility.import.readings")
+                .description("Readings imported from files")
+                .tag("outcome", "imported")
+                .register(registry);
+        this.rejectedReadings = Counter.builder("utility.import.readings")
+                .description("Readings imported from files")
+                .tag("outcome", "rejected")
+                .register(registry);
+        this.pipelineTimer = timer("utility.pipeline.run", "Run of the ingest pipeline");
+        this.pipelineLatency = timer("utility.pipeline.latency",
+                "Time from ingestion to persistence of one bill in the ingest pipeline");
+        this.persistedBills = Counter.builder("utility.pipeline.bills")
+                .description("Bills leaving the ingest pipeline")
+                .tag("outcome", "persisted")
+                .register(registry);
+        this.rejectedBills = Counter.builder("utility.pipeline.bills")
+                .description("Bills leaving the ingest pipeline")
+                .tag("outcome", "rejected")
+                .register(registry);
+    }
+
+    /**
+     * Returns a recorder that records nothing, for services created outside
+     * the application context.
+     *
+     * @return a disabled recorder
+     */
+    public static MetricsRecorder disabled() {
+        return new MetricsRecorder(null, false);
+    }
+
+    /**
+     * Starts measuring the interpolation and split of one bill.
+     *
+     * @return the sample to pass to {@link #stopComputation}
+     */
+    public Sample startComputation() {
+        return enabled ? new Sample(System.nanoTime(), begin(new BillComputationEvent())) : NOOP;
+    }
+
+    /**
+     * Completes a bill computation measurement.
+     *
+     * @param sample        the sample returned by {@link #startComputation()}
+     * @param invoiceNumber invoice number of the bill
+     * @param meterId       identifier of the tenant meter
+     */
+    public void stopComputation(Sample sample, String invoiceNumber, String meterId) {
+        if (sample == NOOP) {
+            return;
+        }
+        computationTimer.record(System.nanoTime() - sample.startNanos, TimeUnit.NANOSECONDS);
+        BillComputationEvent event = (BillComputationEvent) sample.event;
+        if (event.shouldCommit()) {
+            event.invoiceNumber = invoiceNumber;
+            event.meterId = meterId;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts measuring a consumption calculation.
+     *
+     * @return the sample to pass to {@link #stopConsumption}
+     */
+    public Sample startConsumption() {
+        return enabled ? new Sample(System.nanoTime(), begin(new ConsumptionEvent())) : NOOP;
+    }
+
+    /**
+     * Completes a consumption calculation measurement.
+     *
+     * @param sample   the sample returned by {@link #startConsumption()}
+     * @param meterId  identifier of the meter
+     * @param readings number of readings in the interpolated series
+     */
+    public void stopConsumption(Sample sample, String meterId, int readings) {
+        if (sample == NOOP) {
+            return;
+        }
+        consumptionTimer.record(System.nanoTime() - sample.startNanos, TimeUnit.NANOSECONDS);
+        seriesSize.record(readings);
+        ConsumptionEvent event = (ConsumptionEvent) sample.event;
+        if (event.shouldCommit()) {
+            event.meterId = meterId;
+            event.readings = readings;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts measuring the split of a bill.
+     *
+     * @return the sample to pass to {@link #stopSplit}
+     */
+    public Sample startSplit() {
+        return enabled ? new Sample(System.nanoTime(), begin(new SplitEvent())) : NOOP;
+    }
+
+    /**
+     * Completes a split measurement.
+     *
+     * @param sample        the sample returned by {@link #startSplit()}
+     * @param invoiceNumber invoice number of the bill
+     */
+    public void stopSplit(Sample sample, String invoiceNumber) {
+        if (sample == NOOP) {
+            return;
+        }
+        splitTimer.record(System.nanoTime() - sample.startNanos, TimeUnit.NANOSECONDS);
+        SplitEvent event = (SplitEvent) sample.event;
+        if (event.shouldCommit()) {
+            event.invoiceNumber = invoiceNumber;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts measuring an entity load.
+     *
+     * @return the sample to pass to {@link #stopLoad}
+     */
+    public Sample startLoad() {
+        return enabled ? new Sample(System.nanoTime(), begin(new PersistenceEvent())) : NOOP;
+    }
+
+    /**
+     * Completes an entity load measurement.
+     *
+     * @param sample the sample returned by {@link #startLoad()}
+     * @param entity name of the loaded entity
+     * @param rows   number of entities loaded
+     */
+    public void stopLoad(Sample sample, String entity, long rows) {
+        stopPersistence(sample, "load", entity, rows, loadTimers, loadedRows);
+    }
+
+    /**
+     * Starts measuring an entity save.
+     *
+     * @return the sample to pass to {@link #stopSave}
+     */
+    public Sample startSave() {
+        return enabled ? new Sample(System.nanoTime(), begin(new PersistenceEvent())) : NOOP;
+    }
+
+    /**
+     * Completes an entity save measurement.
+     *
+     * @param sample the sample returned by {@link #startSave()}
+     * @param entity name of the saved entity
+     * @param rows   number of entities saved
+     */
+    public void stopSave(Sample sample, String entity, long rows) {
+        stopPersistence(sample, "save", entity, rows, saveTimers, savedRows);
+    }
+
+    /**
+     * Starts measuring a reading file import.
+     *
+     * @return the sample to pass to {@link #stopImport}
+     */
+    public Sample startImport() {
+        return enabled ? new Sample(System.nanoTime(), begin(new ImportEvent())) : NOOP;
+    }
+
+    /**
+     * Completes a reading file import measurement.
+     *
+     * @param sample   the sample returned by {@link #startImport()}
+     * @param meterId  identifier of the meter
+     * @param imported number of readings imported
+     * @param rejected number of rows rejected
+     */
+    public void stopImport(Sample sample, String meterId, long imported, long rejected) {
+        if (sample == NOOP) {
+            return;
+        }
+        importTimer.record(System.nanoTime() - sample.startNanos, TimeUnit.NANOSECONDS);
+        importedReadings.increment(imported);
+        rejectedReadings.increment(rejected);
+        ImportEvent event = (ImportEvent) sample.event;
+        if (event.shouldCommit()) {
+            event.meterId = meterId;
+            event.imported = imported;
+            event.rejected = rejected;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts measuring a run of the ingest pipeline.
+     *
+     * @return the sample to pass to {@link #stopPipeline}
+     */
+    public Sample startPipeline() {
+        return enabled ? new Sample(System.nanoTime(), begin(new PipelineEvent())) : NOOP;
+    }
+
+    /**
+     * Completes an ingest pipeline run measurement.
+     *
+     * @param sample    the sample returned by {@link #startPipeline()}
+     * @param ingested  number of bills read from the source
+     * @param persisted number of bills persisted
+     * @param rejected  number of bills rejected
+     */
+    public void stopPipeline(Sample sample, long ingested, long persisted, long rejected) {
+        if (sample == NOOP) {
+            return;
+        }
+        pipelineTimer.record(System.nanoTime() - sample.startNanos, TimeUnit.NANOSECONDS);
+        PipelineEvent event = (PipelineEvent) sample.event;
+        if (event.shouldCommit()) {
+            event.ingested = ingested;
+            event.persisted = persisted;
+            event.rejected = rejected;
+            event.commit();
+        }
+    }
+
+    /**
+     * Marks a bill entering the ingest pipeline. Bills cross threads between
+     * stages, so the mark is a plain clock reading rather than a {@link Sample}.
+     *
+     * @return the mark to pass to {@link #stopPipelineItem}, {@code 0} when
+     *         metrics are disabled
+     */
+    public long startPipelineItem() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a bill leaving the ingest pipeline.
+     *
+     * @param startNanos the mark returned by {@link #startPipelineItem()}
+     * @param persisted  {@code true} if the bill was persisted, {@code false} if
+     *                   it was rejected
+     */
+    public void stopPipelineItem(long startNanos, boolean persisted) {
+        if (!enabled) {
+            return;
+        }
+        if (persisted) {
+            pipelineLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            persistedBills.increment();
+        } else {
+            rejectedBills.increment();
+        }
+    }
+
+    /**
+     * Publishes the depth of an ingest pipeline queue as a gauge.
+     *
+     * @param stage the stage reading from the queue
+     * @param depth returns the number of bills waiting in the queue
+     */
+    public void registerPipelineQueue(String stage, IntSupplier depth) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("utility.pipeline.queue.depth", depth, IntSupplier::getAsInt)
+                .description("Bills waiting for a stage of the ingest pipeline")
+                .tag("stage", stage)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    private void stopPersistence(Sample sample, String operation, String entity, long rows,
+            Map<String, Timer> timers, Map<String, Counter> counters) {
+        if (sample == NOOP) {
+            return;
+        }
+        timers.computeIfAbsent(entity, k -> Timer.builder("utility.persistence")
+                .description("Entity loads and saves")
+                .tag("operation", operation)
+                .tag("entity", k)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(System.nanoTime() - sample.startNanos, TimeUnit.NANOSECONDS);
+        counters.computeIfAbsent(entity, k -> Counter.builder("utility.persistence.rows")
+                .description("Entities loaded and saved")
+                .tag("operation", operation)
+                .tag("entity", k)
+                .register(registry))
+                .increment(rows);
+        PersistenceEvent event = (PersistenceEvent) sample.event;
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.entity = entity;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    private Timer timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Event begin(Event event) {
+        event.begin();
+        return event;
+    }
+
+    @Name("utility_manager.BillComputation")
+    @Label("Bill Computation")
+    @Description("Interpolation and split of one bill")
+    @Category({ "Utility Manager", "Billing" })
+    static final class BillComputationEvent extends Event {
+
+        @Label("Invoice Number")
+        String invoiceNumber;
+
+        @Label("Tenant Meter")
+        String meterId;
+    }
+
+    @Name("utility_manager.Consumption")
+    @Label("Consumption")
+    @Description("Consumption calculation of a meter")
+    @Category({ "Utility Manager", "Billing" })
+    static final class ConsumptionEvent extends Event {
+
+        @Label("Meter")
+        String meterId;
+
+        @Label("Readings")
+        int readings;
+    }
+
+    @Name("utility_manager.Split")
+    @Label("Split")
+    @Description("Split of one bill between tenant and owner")
+    @Category({ "Utility Manager", "Billing" })
+    static final class SplitEvent extends Event {
+
+        @Label("Invoice Number")
+        String invoiceNumber;
+    }
+
+    @Name("utility_manager.Persistence")
+    @Label("Persistence")
+    @Description("Entity load or save")
+    @Category({ "Utility Manager", "Persistence" })
+    static final class PersistenceEvent extends Event {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Entity")
+        String entity;
+
+        @Label("Rows")
+        long rows;
+    }
+
+    @Name("utility_manager.Import")
+    @Label("Reading Import")
+    @Description("Import of one reading file")
+    @Category({ "Utility Manager", "Import" })
+    static final class ImportEvent extends Event {
+
+        @Label("Meter")
+        String meterId;
+
+        @Label("Imported")
+        long imported;
+
+        @Label("Rejected")
+        long rejected;
+    }
+
+    @Name("utility_manager.Pipeline")
+    @Label("Ingest Pipeline")
+    @Description("Run of the ingest pipeline")
+    @Category({ "Utility Manager", "Import" })
+    static final class PipelineEvent extends Event {
+
+        @Label("Ingested")
+        long ingested;
+
+        @Label("Persisted")
+        long persisted;
+
+        @Label("Rejected")
+        long rejected;
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.InstantReadingSeries;
+
+/**
+ * Compact binary encoding of a block of interval readings.
+ * <p>
+ * Layout: the reading count, then the first timestamp (epoch seconds) and
+ * counter value (watt-hours), then for every following reading the change of
+ * its timestamp step (delta-of-delta) and its counter increase (delta). All
+ * numbers are zigzag-encoded varints, so regular 15-minute readings cost one
+ * byte for the timestamp and one to three bytes for the value.
+ * </p>
+ */
+final class ReadingBlockCodec {
+
+    private ReadingBlockCodec() {
+    }
+
+    /**
+     * Encodes the readings of a series between two positions.
+     *
+     * @param series the readings
+     * @param from   first position (inclusive)
+     * @param to     last position (exclusive)
+     * @return the encoded block
+     */
+    static byte[] encode(InstantReadingSeries series, int from, int to) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + (to - from) * 3);
+        writeVarint(out, to - from);
+        if (to == from) {
+            return out.toByteArray();
+        }
+
+        writeVarint(out, zigzag(series.epochSecondAt(from)));
+        writeVarint(out, zigzag(series.wattHoursAt(from)));
+        long previousStep = 0;
+        for (int i = from + 1; i < to; i++) {
+            long step = series.epochSecondAt(i) - series.epochSecondAt(i - 1);
+            writeVarint(out, zigzag(step - previousStep));
+            writeVarint(out, zigzag(series.wattHoursAt(i) - series.wattHoursAt(i - 1)));
+            previousStep = step;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a block.
+     *
+     * @param block the encoded block
+     * @return the readings of the block
+     * @throws IllegalArgumentException if the block is truncated or malformed
+     */
+    static InstantReadingSeries decode(byte[] block) {
+        Reader in = new Reader(block);
+        int count = Math.toIntExact(in.readVarint());
+        long[] seconds = new long[count];
+        long[] wattHours = new long[count];
+        if (count > 0) {
+            seconds[0] = unzigzag(in.readVarint());
+            wattHours[0] = unzigzag(in.readVarint());
+            long step = 0;
+            for (int i = 1; i < count; i++) {
+                step += unzigzag(in.readVarint());
+                seconds[i] = seconds[i - 1] + step;
+                wattHours[i] = wattHours[i - 1] + unzigzag(in.readVarint());
+            }
+        }
+        if (in.position != block.length) {
+            throw new IllegalArgumentException("Trailing bytes in reading block");
+        }
+        return InstantReadingSeries.ofSorted(seconds, wattHours);
+    }
+
+    /**
+     * Concatenates decoded blocks ordered by time, none overlapping the next.
+     *
+     * @param blocks the decoded blocks, in time order
+     * @return the readings of all blocks
+     */
+    static InstantReadingSeries concat(Iterable<InstantReadingSeries> blocks) {
+        int size = 0;
+        for (InstantReadingSeries block : blocks) {
+            size += block.size();
+        }
+        long[] seconds = new long[size];
+        long[] wattHours = new long[size];
+        int i = 0;
+        for (InstantReadingSeries block : blocks) {
+            for (int j = 0; j < block.size(); j++, i++) {
+                seconds[i] = block.epochSecondAt(j);
+                wattHours[i] = block.wattHoursAt(j);
+            }
+        }
+        return InstantReadingSeries.ofSorted(Arrays.copyOf(seconds, i), Arrays.copyOf(wattHours, i));
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= bytes.length) {
+                    throw new IllegalArgumentException("Truncated reading block");
+                }
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in reading block");
+        }
+    }
+}
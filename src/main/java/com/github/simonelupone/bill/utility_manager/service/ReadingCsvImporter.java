@@ -0,0 +1,393 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+
+/**
+ * Bulk importer of meter readings from CSV files.
+ * <p>
+ * Accepts the same {@code YYYY-MM-DD,value} format as
+ * {@link com.github.simonelupone.bill.utility_manager.domain.model.Reading#parse(String)},
+ * but streams the file through a {@link FileChannel} and parses dates and
+ * numbers straight from the bytes, without creating a {@link String} per line.
+ * Rows are validated in file order (dates must be strictly increasing, values
+ * must not be negative and must fit the {@code kwh_value} column) and appended
+ * in batches to the configured {@link ReadingStore}, so imported readings land
+ * in the readings table or the segment files alike. Malformed rows, lines
+ * too long included, are collected in the {@link ImportReport} and do not stop
+ * the import; blank lines are skipped.
+ * </p>
+ * <p>
+ * Rows dated on a day the meter already has a reading for are rejected too.
+ * Dates are checked against a {@link DuplicateFilter} loaded with the meter's
+ * stored dates when the import starts: only the rows it may contain are
+ * looked up in the store, once per batch, instead of replacing the stored
+ * reading.
+ * </p>
+ */
+@Service
+public class ReadingCsvImporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int KWH_SCALE = 2;
+    private static final int MAX_DIGITS = 18;
+    // readings.kwh_value is NUMERIC(10, 2)
+    private static final int MAX_INTEGER_DIGITS = 8;
+    // Longer lines are rejected without being buffered whole, so a file
+    // without line breaks does not grow the line buffer without bound
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    /**
+     * A rejected row.
+     *
+     * @param lineNumber 1-based line number in the file
+     * @param line       the raw content of the line
+     * @param message    why the row was rejected
+     */
+    public record ImportError(long lineNumber, String line, String message) {
+    }
+
+    /**
+     * Outcome of an import.
+     *
+     * @param linesRead      number of lines read, blank lines included
+     * @param imported       number of readings saved
+     * @param errorCount     number of rejected rows
+     * @param errors         the rejected rows, up to the configured report
+     *                       limit
+     * @param duplicateCheck outcome of the reading date pre-check
+     */
+    public record ImportReport(long linesRead, long imported, long errorCount, List<ImportError> errors,
+            DuplicateFilter.Report duplicateCheck) {
+    }
+
+    private final ReadingStore readingStore;
+    private final MetricsRecorder metrics;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final double duplicateFilterFpp;
+    private final long duplicateFilterMaxBytes;
+
+    public ReadingCsvImporter(ReadingStore readingStore, MetricsRecorder metrics,
+            @Value("${utility-manager.import.batch-size:1000}") int batchSize,
+            @Value("${utility-manager.import.max-reported-errors:1000}") int maxReportedErrors,
+            @Value("${utility-manager.import.duplicate-filter.fpp:0.01}") double duplicateFilterFpp,
+            @Value("${utility-manager.import.duplicate-filter.max-bytes:16777216}") long duplicateFilterMaxBytes) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive. Got: " + batchSize);
+        }
+        this.readingStore = readingStore;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.duplicateFilterFpp = duplicateFilterFpp;
+        this.duplicateFilterMaxBytes = duplicateFilterMaxBytes;
+    }
+
+    /**
+     * Imports every reading of a CSV file into the given meter.
+     *
+     * @param file       the CSV file to read
+     * @param buildingId identifier of the building the meter belongs to
+     * @param meterId    identifier of the meter
+     * @return the import report
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public ImportReport importFile(Path file, String buildingId, String meterId) {
+        Objects.requireNonNull(file, "File cannot be null");
+        Objects.requireNonNull(buildingId, "Building id cannot be null");
+        Objects.requireNonNull(meterId, "Meter id cannot be null");
+
+        MetricsRecorder.Sample sample = metrics.startImport();
+        Run run = new Run(buildingId, meterId, loadReadingDates(meterId));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            byte[] line = new byte[256];
+            int length = 0;
+            boolean truncated = false;
+
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                byte[] chunk = buffer.array();
+                for (int i = buffer.position(); i < buffer.limit(); i++) {
+                    byte b = chunk[i];
+                    if (b == '\n') {
+                        run.accept(line, length, truncated);
+                        length = 0;
+                        truncated = false;
+                    } else if (length < MAX_LINE_LENGTH) {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, Math.min(length * 2, MAX_LINE_LENGTH));
+                        }
+                        line[length++] = b;
+                    } else {
+                        truncated = true;
+                    }
+                }
+                buffer.clear();
+            }
+            if (length > 0) {
+                run.accept(line, length, truncated);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+        run.flush();
+        metrics.stopImport(sample, meterId, run.imported, run.errorCount);
+
+        return new ImportReport(run.linesRead, run.imported, run.errorCount, List.copyOf(run.errors),
+                run.duplicates.report());
+    }
+
+    private DuplicateFilter loadReadingDates(String meterId) {
+        List<LocalDate> stored = readingStore.findReadingDates(meterId);
+        DuplicateFilter filter = DuplicateFilter.create(stored.size(), duplicateFilterFpp, duplicateFilterMaxBytes);
+        for (LocalDate date : stored) {
+            filter.addStored(date.toEpochDay());
+        }
+        return filter;
+    }
+
+    /**
+     * State of a single import: validation cursor, duplicate filter, pending
+     * batch and report.
+     */
+    private final class Run {
+
+        /**
+         * A queued row whose date the duplicate filter may contain.
+         */
+        private record MaybeStored(long lineNumber, String line, LocalDate date) {
+        }
+
+        private final String buildingId;
+        private final String meterId;
+        private final DuplicateFilter duplicates;
+        private final List<ImportError> errors = new ArrayList<>();
+        private List<Reading> batch = new ArrayList<>();
+        private final List<MaybeStored> maybeStored = new ArrayList<>();
+        private long previousEpochDay = Long.MIN_VALUE;
+        private long linesRead;
+        private long imported;
+        private long errorCount;
+
+        // Output of parseNumber, kept in fields to avoid allocating a holder
+        private long unscaled;
+        private int scale;
+
+        private Run(String buildingId, String meterId, DuplicateFilter duplicates) {
+            this.buildingId = buildingId;
+            this.meterId = meterId;
+            this.duplicates = duplicates;
+        }
+
+        private void accept(byte[] line, int length, boolean truncated) {
+            linesRead++;
+            if (truncated) {
+                reject(line, length, "Line longer than " + MAX_LINE_LENGTH + " bytes");
+                return;
+            }
+
+            int end = length;
+            while (end > 0 && isBlank(line[end - 1])) {
+                end--;
+            }
+            int start = 0;
+            while (start < end && isBlank(line[start])) {
+                start++;
+            }
+            if (start == end) {
+                return;
+            }
+
+            String error = parse(line, start, end, length);
+            if (error != null) {
+                reject(line, length, error);
+            }
+        }
+
+        /**
+         * Parses and validates one trimmed row, queueing the reading on success.
+         *
+         * @return {@code null} on success, otherwise the rejection message
+         */
+        private String parse(byte[] line, int start, int end, int length) {
+            // YYYY-MM-DD
+            if (end - start < 10 || line[start + 4] != '-' || line[start + 7] != '-') {
+                return "Invalid format. Expected 'YYYY-MM-DD,value'";
+            }
+            int year = digits(line, start, 4);
+            int month = digits(line, start + 5, 2);
+            int day = digits(line, start + 8, 2);
+            if (year < 0 || month < 0 || day < 0) {
+                return "Invalid date";
+            }
+
+            int pos = start + 10;
+            while (pos < end && isBlank(line[pos])) {
+                pos++;
+            }
+            if (pos == end || line[pos] != ',') {
+                return "Invalid format. Expected 'YYYY-MM-DD,value'";
+            }
+            pos++;
+            while (pos < end && isBlank(line[pos])) {
+                pos++;
+            }
+            if (pos < end && line[pos] == '-') {
+                return "Consumption cannot be negative";
+            }
+            if (!parseNumber(line, pos, end)) {
+                return "Invalid consumption value";
+            }
+            BigDecimal kwh = BigDecimal.valueOf(unscaled, scale).setScale(KWH_SCALE, RoundingMode.HALF_UP);
+            if (kwh.precision() - kwh.scale() > MAX_INTEGER_DIGITS) {
+                return "Consumption value exceeds " + MAX_INTEGER_DIGITS + " integer digits";
+            }
+
+            LocalDate date;
+            try {
+                date = LocalDate.of(year, month, day);
+            } catch (DateTimeException e) {
+                return "Invalid date: " + e.getMessage();
+            }
+            long epochDay = date.toEpochDay();
+            if (epochDay <= previousEpochDay) {
+                return "Reading date " + date + " is not after the previous reading "
+                        + LocalDate.ofEpochDay(previousEpochDay);
+            }
+            previousEpochDay = epochDay;
+
+            // Two decimals within 8 integer digits convert to a double and back
+            // exactly
+            batch.add(Reading.of(date, kwh.doubleValue()));
+            if (duplicates.mightBeStored(epochDay)) {
+                // Confirmed with the rest of the batch; the raw line is only
+                // kept for these rows
+                maybeStored.add(new MaybeStored(linesRead, raw(line, length), date));
+            }
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+            return null;
+        }
+
+        /**
+         * Parses an unsigned decimal number ({@code digits[.digits]}) into
+         * {@link #unscaled} and {@link #scale}.
+         */
+        private boolean parseNumber(byte[] line, int start, int end) {
+            int pos = start;
+            if (pos < end && line[pos] == '+') {
+                pos++;
+            }
+            long value = 0;
+            int digitCount = 0;
+            int fractionDigits = -1;
+            for (; pos < end; pos++) {
+                byte b = line[pos];
+                if (b >= '0' && b <= '9') {
+                    if (++digitCount > MAX_DIGITS) {
+                        return false;
+                    }
+                    value = value * 10 + (b - '0');
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else if (b == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else {
+                    return false;
+                }
+            }
+            if (digitCount == 0) {
+                return false;
+            }
+            unscaled = value;
+            scale = Math.max(fractionDigits, 0);
+            return true;
+        }
+
+        private void reject(byte[] line, int length, String message) {
+            errorCount++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportError(linesRead, raw(line, length), message));
+            }
+        }
+
+        private void flush() {
+            if (!maybeStored.isEmpty()) {
+                rejectStored();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            imported += readingStore.append(buildingId, meterId, batch);
+            batch = new ArrayList<>(batchSize);
+        }
+
+        /**
+         * Looks up the dates the duplicate filter may contain and drops the
+         * rows whose date is already stored from the batch.
+         */
+        private void rejectStored() {
+            List<LocalDate> dates = maybeStored.stream().map(MaybeStored::date).toList();
+            Set<LocalDate> stored = new HashSet<>(readingStore.findExistingReadingDates(meterId, dates));
+            duplicates.confirmed(stored.size());
+            if (!stored.isEmpty()) {
+                for (MaybeStored row : maybeStored) {
+                    if (stored.contains(row.date())) {
+                        errorCount++;
+                        if (errors.size() < maxReportedErrors) {
+                            errors.add(new ImportError(row.lineNumber(), row.line(),
+                                    "Reading date " + row.date() + " already stored"));
+                        }
+                    }
+                }
+                // Dates are unique within the file, so the date identifies the row
+                batch.removeIf(reading -> stored.contains(reading.date()));
+            }
+            maybeStored.clear();
+        }
+    }
+
+    private static String raw(byte[] line, int length) {
+        return new String(line, 0, length, StandardCharsets.UTF_8).strip();
+    }
+
+    private static int digits(byte[] line, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            byte b = line[i];
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.util.Collection;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+
+/**
+ * Converts persisted {@link ReadingEntity} rows into domain readings.
+ */
+public final class ReadingEntityMapper {
+
+    private ReadingEntityMapper() {
+    }
+
+    public static Reading toReading(ReadingEntity entity) {
+        return Reading.of(entity.getReadingDate(), entity.getKwhValue().doubleValue());
+    }
+
+    public static ReadingSeries toSeries(Collection<ReadingEntity> entities) {
+        return ReadingSeries.of(entities.stream().map(ReadingEntityMapper::toReading).toList());
+    }
+}
@@ -0,0 +1,283 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent.ChangeType;
+
+/**
+ * Per-meter cache of prepared {@link ReadingSeries}, published as immutable,
+ * versioned {@link Snapshot snapshots}.
+ * <p>
+ * Each series is loaded from the {@link ReadingStore} and indexed once. Lookups
+ * never lock: they return the meter's current snapshot, which never changes
+ * afterwards, so a split interpolating over it sees one consistent series
+ * whatever is written meanwhile.
+ * </p>
+ * <p>
+ * Writes replace the snapshot instead of modifying it. Reading changes are
+ * collected per transaction and applied once it commits, so lookups see either
+ * every reading of a transaction or none of them, and a transaction does not
+ * see its own uncommitted readings through the cache. Readings that were only
+ * inserted are merged into a new snapshot ({@link ReadingSeries#merge}),
+ * without reloading the series; updated, moved or deleted readings drop the
+ * snapshot, to be reloaded by the next lookup. Every replacement is a
+ * compare-and-set on the meter's current snapshot, retried on conflict, and
+ * takes a new version: a load that started before a change is returned to its
+ * caller but never published.
+ * </p>
+ * <p>
+ * The cache is bounded and evicts the least recently used meter when full.
+ * Recency is kept in an access-ordered map, locked only when a meter is added
+ * or its access is recorded, at most once per millisecond per meter, so hot
+ * lookups stay lock-free and an eviction takes constant time.
+ * </p>
+ */
+@Component
+public class ReadingSeriesCache {
+
+    /**
+     * Immutable state of the readings of a meter.
+     *
+     * @param version increases with every change of the meter's readings
+     * @param series  the readings
+     */
+    public record Snapshot(long version, ReadingSeries series) {
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     *
+     * @param hits      lookups answered from a loaded snapshot
+     * @param misses    lookups that had to load the series
+     * @param evictions meters dropped because of the size bound
+     * @param size      current number of cached meters
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    // Access times closer than this are not recorded again, so hot meters are
+    // not written to on every lookup
+    private static final long ACCESS_RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * A cached meter. A {@code null} series marks a snapshot not loaded yet.
+     */
+    private static final class Entry {
+
+        private final AtomicReference<Snapshot> current;
+        private volatile long lastAccess;
+
+        private Entry(long version, long lastAccess) {
+            this.current = new AtomicReference<>(new Snapshot(version, null));
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final ReadingStore readingStore;
+    private final MetricsRecorder metrics;
+    private final int maxSize;
+    private final LongSupplier nanoTime;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Cached meters, least recently used first; guarded by itself
+    private final LinkedHashMap<String, Boolean> recency = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong versions = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public ReadingSeriesCache(ReadingStore readingStore, MetricsRecorder metrics,
+            @Value("${utility-manager.reading-cache.max-size:256}") int maxSize) {
+        this(readingStore, metrics, maxSize, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache reading the access times from {@code nanoTime}, so tests
+     * can move past {@link #ACCESS_RESOLUTION_NANOS} without sleeping.
+     */
+    ReadingSeriesCache(ReadingStore readingStore, MetricsRecorder metrics, int maxSize, LongSupplier nanoTime) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive. Got: " + maxSize);
+        }
+        this.readingStore = readingStore;
+        this.metrics = metrics;
+        this.maxSize = maxSize;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the reading series of a meter, loading it on a cache miss.
+     *
+     * @param meterId identifier of the meter
+     * @return the prepared series, possibly empty
+     */
+    public ReadingSeries get(String meterId) {
+        return snapshot(meterId).series();
+    }
+
+    /**
+     * Returns the current snapshot of a meter's readings, loading it on a cache
+     * miss.
+     *
+     * @param meterId identifier of the meter
+     * @return the snapshot, with a possibly empty series
+     */
+    public Snapshot snapshot(String meterId) {
+        Objects.requireNonNull(meterId, "Meter id cannot be null");
+        Entry entry = entry(meterId);
+        long now = nanoTime.getAsLong();
+        if (now - entry.lastAccess > ACCESS_RESOLUTION_NANOS) {
+            entry.lastAccess = now;
+            synchronized (recency) {
+                recency.get(meterId);
+            }
+        }
+
+        Snapshot current = entry.current.get();
+        if (current.series() != null) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        Snapshot loaded = new Snapshot(current.version(), load(meterId));
+        // Fails if the meter changed during the load: the next lookup loads again
+        entry.current.compareAndSet(current, loaded);
+        return loaded;
+    }
+
+    /**
+     * Publishes committed readings of a meter as a new snapshot merging them
+     * into the current one. Lookups in progress keep the previous snapshot.
+     * Nothing is loaded if the meter is not cached.
+     *
+     * @param meterId  identifier of the meter
+     * @param readings the inserted or replaced readings
+     */
+    public void append(String meterId, ReadingSeries readings) {
+        Objects.requireNonNull(readings, "Readings cannot be null");
+        Entry entry = entries.get(Objects.requireNonNull(meterId, "Meter id cannot be null"));
+        if (entry != null) {
+            entry.current.updateAndGet(snapshot -> new Snapshot(versions.incrementAndGet(),
+                    snapshot.series() == null ? null : snapshot.series().merge(readings)));
+        }
+    }
+
+    /**
+     * Drops the cached series of a meter.
+     *
+     * @param meterId identifier of the meter
+     */
+    public void evict(String meterId) {
+        Entry entry = entries.get(Objects.requireNonNull(meterId, "Meter id cannot be null"));
+        if (entry != null) {
+            entry.current.set(new Snapshot(versions.incrementAndGet(), null));
+        }
+    }
+
+    /**
+     * Drops every cached series.
+     */
+    public void evictAll() {
+        entries.keySet().forEach(this::evict);
+    }
+
+    /**
+     * Returns the hit/miss/eviction counters of the cache.
+     *
+     * @return the current statistics
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    // Registered first, so the new snapshot is published before the listeners
+    // reacting to the commit read it
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    void onReadingChanged(ReadingChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event.meterId(), List.of(event));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, List<ReadingChangedEvent>> pending = (Map<String, List<ReadingChangedEvent>>)
+                TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, List<ReadingChangedEvent>> changes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.forEach(ReadingSeriesCache.this::apply);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReadingSeriesCache.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.computeIfAbsent(event.meterId(), k -> new ArrayList<>()).add(event);
+    }
+
+    private void apply(String meterId, List<ReadingChangedEvent> changes) {
+        List<Reading> inserted = new ArrayList<>(changes.size());
+        for (ReadingChangedEvent change : changes) {
+            if (change.type() != ChangeType.INSERTED || change.kWh() == null) {
+                evict(meterId);
+                return;
+            }
+            inserted.add(Reading.of(change.readingDate(), change.kWh()));
+        }
+        append(meterId, ReadingSeries.of(inserted));
+    }
+
+    private Entry entry(String meterId) {
+        Entry entry = entries.get(meterId);
+        if (entry != null) {
+            return entry;
+        }
+        entry = entries.computeIfAbsent(meterId, k -> new Entry(versions.incrementAndGet(), nanoTime.getAsLong()));
+        synchronized (recency) {
+            if (recency.put(meterId, Boolean.TRUE) == null && recency.size() > maxSize) {
+                Iterator<String> eldest = recency.keySet().iterator();
+                entries.remove(eldest.next());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        return entry;
+    }
+
+    private ReadingSeries load(String meterId) {
+        MetricsRecorder.Sample sample = metrics.startLoad();
+        ReadingSeries series = readingStore.findAll(meterId);
+        metrics.stopLoad(sample, "reading", series.size());
+        return series;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+
+/**
+ * Storage of the daily meter readings read by the consumption services.
+ * <p>
+ * Two implementations are available, selected by
+ * {@code utility-manager.reading-store.type} (see
+ * {@link ReadingStoreConfiguration}): {@link JpaReadingStore} on the readings
+ * table, and {@link MappedReadingStore}, a date-ordered file per meter read
+ * through memory mapping.
+ * </p>
+ * <p>
+ * Both stores publish a
+ * {@link com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent}
+ * for every written reading, so caches, recomputation and daily
+ * materialization behave the same on either.
+ * </p>
+ */
+public interface ReadingStore {
+
+    /**
+     * Writes readings of a meter. A reading replaces the stored one of the same
+     * date; readings equal to the stored value are skipped.
+     *
+     * @param buildingId identifier of the building the meter belongs to
+     * @param meterId    identifier of the meter
+     * @param readings   the readings, in any order; for a repeated date the last
+     *                   one wins
+     * @return the number of readings inserted or changed
+     */
+    int append(String buildingId, String meterId, Collection<Reading> readings);
+
+    /**
+     * Returns every reading of a meter.
+     *
+     * @param meterId identifier of the meter
+     * @return the readings, possibly empty
+     */
+    ReadingSeries findAll(String meterId);
+
+    /**
+     * Returns the readings bracketing a period: the latest reading on or before
+     * {@code start}, the earliest reading on or after {@code end} and every
+     * reading in between. Interpolating the period over this series gives the
+     * same result as over the full history.
+     *
+     * @param meterId identifier of the meter
+     * @param start   the start date of the period (inclusive)
+     * @param end     the end date of the period (inclusive)
+     * @return the bracketing readings, possibly empty
+     */
+    ReadingSeries findBracketing(String meterId, LocalDate start, LocalDate end);
+
+    /**
+     * Returns the dates of every reading of a meter.
+     *
+     * @param meterId identifier of the meter
+     * @return the reading dates, possibly empty
+     */
+    List<LocalDate> findReadingDates(String meterId);
+
+    /**
+     * Returns which of the given dates a meter has a reading for.
+     *
+     * @param meterId identifier of the meter
+     * @param dates   the dates to look up
+     * @return the dates with a stored reading
+     */
+    List<LocalDate> findExistingReadingDates(String meterId, Collection<LocalDate> dates);
+
+    /**
+     * Returns the identifiers of every meter with at least one reading.
+     *
+     * @return the meter identifiers, sorted
+     */
+    List<String> findMeterIds();
+}
@@ -0,0 +1,38 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+
+/**
+ * Selects the {@link ReadingStore} used by the consumption services and the
+ * CSV reading import.
+ * <p>
+ * {@code utility-manager.reading-store.type} accepts {@code jpa} (the
+ * {@link JpaReadingStore readings table}, default) or {@code mapped}
+ * ({@link MappedReadingStore} segment files under
+ * {@code utility-manager.reading-store.directory}).
+ * </p>
+ */
+@Configuration
+public class ReadingStoreConfiguration {
+
+    @Bean
+    public ReadingStore readingStore(@Value("${utility-manager.reading-store.type:jpa}") String type,
+            @Value("${utility-manager.reading-store.directory:data/readings}") Path directory,
+            @Value("${utility-manager.reading-store.sync:true}") boolean sync,
+            ReadingRepository readingRepository, BulkPersistenceService persistenceService,
+            ApplicationEventPublisher eventPublisher) {
+        return switch (type) {
+            case "jpa" -> new JpaReadingStore(readingRepository, persistenceService);
+            case "mapped" -> new MappedReadingStore(directory, sync, eventPublisher);
+            default -> throw new IllegalArgumentException(
+                    "Unknown reading store '" + type + "'. Expected 'jpa' or 'mapped'");
+        };
+    }
+}
@@ -0,0 +1,268 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerBalanceEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity.EntryType;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity.Party;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerBalanceRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerEntryRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * Append-only ledger of split results, with a running balance per building
+ * and party.
+ * <p>
+ * Every entry stores the balance of its party after the entry, so appending a
+ * bill only reads the current balance of the building, and the balance as of
+ * any date is the balance of the latest entry posted on or before that date:
+ * no earlier bill is ever replayed. The sum of the tenant and owner balances
+ * equals the sum of the split bill totals, which makes the "Zero-Sum"
+ * guarantee checkable at any date.
+ * </p>
+ * <p>
+ * Entries are never updated. Splitting an invoice again appends an
+ * {@link EntryType#ADJUSTMENT} entry with the difference from what the invoice
+ * already charged, so interpolation corrections are carried over into the
+ * balance; an identical result appends nothing. Entries are posted on the bill
+ * period end, or on the date of the latest entry of the building if that is
+ * later, so balances never change retroactively.
+ * </p>
+ * <p>
+ * Entries are ordered by a per-building sequence number taken from the
+ * balance row, whose version check makes concurrent appends to the same
+ * building fail: ids come from a pooled sequence, so an entry appended later
+ * by another instance may have a lower id. The first appends of a building
+ * have no balance row to check yet; they fail on a unique key instead,
+ * reported as the same {@code OptimisticLockingFailureException}.
+ * </p>
+ */
+@Service
+public class SplitLedgerService implements SplitResultWriter {
+
+    private static final int SCALE = 2;
+
+    /**
+     * Cumulative amounts and consumptions charged to the parties of a building.
+     *
+     * @param tenantAmount amount charged to the tenant
+     * @param tenantKwh    consumption charged to the tenant
+     * @param ownerAmount  amount charged to the owner
+     * @param ownerKwh     consumption charged to the owner
+     */
+    public record Balance(
+            BigDecimal tenantAmount,
+            BigDecimal tenantKwh,
+            BigDecimal ownerAmount,
+            BigDecimal ownerKwh) {
+
+        public static final Balance ZERO = new Balance(zero(), zero(), zero(), zero());
+
+        /**
+         * Returns the total amount charged to both parties, equal to the sum of
+         * the split bill totals.
+         *
+         * @return the tenant plus owner amount
+         */
+        public BigDecimal totalAmount() {
+            return tenantAmount.add(ownerAmount);
+        }
+    }
+
+    private final LedgerEntryRepository entryRepository;
+    private final LedgerBalanceRepository balanceRepository;
+
+    public SplitLedgerService(LedgerEntryRepository entryRepository, LedgerBalanceRepository balanceRepository) {
+        this.entryRepository = entryRepository;
+        this.balanceRepository = balanceRepository;
+    }
+
+    @Override
+    @Transactional
+    public void write(SplitJob job, SplitResult result) {
+        append(job.buildingId(), job.bill(), result);
+    }
+
+    /**
+     * Appends the split of a bill to the ledger.
+     *
+     * @param buildingId identifier of the building the bill belongs to
+     * @param bill       the split bill
+     * @param result     the split result
+     * @return the number of entries appended: 2 for a new invoice, 0 to 2 for
+     *         an invoice split again, depending on which party changed
+     * @throws OptimisticLockingFailureException if another transaction
+     *         appended to the same building concurrently, including when both
+     *         were the first appends of the building
+     */
+    @Transactional
+    public int append(String buildingId, Bill bill, SplitResult result) {
+        Objects.requireNonNull(buildingId, "Building id cannot be null");
+        Objects.requireNonNull(bill, "Bill cannot be null");
+        Objects.requireNonNull(result, "Split result cannot be null");
+
+        Optional<LedgerBalanceEntity> balance = balanceRepository.findById(buildingId);
+        if (balance.isPresent()) {
+            return append(balance.get(), bill, result, false);
+        }
+        // Concurrent first appends all insert the balance row and the first
+        // sequence numbers, so the losers fail on a unique key rather than on
+        // the version check
+        try {
+            return append(emptyBalance(buildingId), bill, result, true);
+        } catch (DataIntegrityViolationException e) {
+            throw new OptimisticLockingFailureException(
+                    "Concurrent first append to the ledger of building " + buildingId, e);
+        }
+    }
+
+    /**
+     * Returns the balance of a building after every entry posted so far.
+     *
+     * @param buildingId identifier of the building
+     * @return the current balance, {@link Balance#ZERO} if nothing was posted
+     */
+    @Transactional(readOnly = true)
+    public Balance currentBalance(String buildingId) {
+        return balanceRepository.findById(buildingId)
+                .map(b -> new Balance(b.getTenantAmount(), b.getTenantKwh(), b.getOwnerAmount(), b.getOwnerKwh()))
+                .orElse(Balance.ZERO);
+    }
+
+    /**
+     * Returns the balance of a building after every entry posted on or before a
+     * date.
+     *
+     * @param buildingId identifier of the building
+     * @param date       the date of the balance (inclusive)
+     * @return the balance as of {@code date}, {@link Balance#ZERO} if nothing
+     *         was posted by then
+     */
+    @Transactional(readOnly = true)
+    public Balance balanceAsOf(String buildingId, LocalDate date) {
+        Objects.requireNonNull(buildingId, "Building id cannot be null");
+        Objects.requireNonNull(date, "Date cannot be null");
+
+        Optional<LedgerEntryEntity> tenant = entryRepository
+                .findFirstByBuildingIdAndPartyAndPostingDateLessThanEqualOrderByPostingDateDescSequenceDesc(
+                        buildingId, Party.TENANT, date);
+        Optional<LedgerEntryEntity> owner = entryRepository
+                .findFirstByBuildingIdAndPartyAndPostingDateLessThanEqualOrderByPostingDateDescSequenceDesc(
+                        buildingId, Party.OWNER, date);
+
+        return new Balance(
+                tenant.map(LedgerEntryEntity::getBalanceAmount).orElse(zero()),
+                tenant.map(LedgerEntryEntity::getBalanceKwh).orElse(zero()),
+                owner.map(LedgerEntryEntity::getBalanceAmount).orElse(zero()),
+                owner.map(LedgerEntryEntity::getBalanceKwh).orElse(zero()));
+    }
+
+    /**
+     * Appends the entries of a bill and updates the balance of the building.
+     * A new balance row is flushed, so that a concurrent first append fails
+     * here rather than on commit.
+     */
+    private int append(LedgerBalanceEntity balance, Bill bill, SplitResult result, boolean newBalance) {
+        String buildingId = balance.getBuildingId();
+        LocalDate periodEnd = bill.period().end();
+        LocalDate postingDate = balance.getLastPostingDate() == null || periodEnd.isAfter(balance.getLastPostingDate())
+                ? periodEnd
+                : balance.getLastPostingDate();
+
+        int appended = 0;
+        Optional<LedgerEntryEntity> tenant = appendEntry(buildingId, Party.TENANT, bill, postingDate,
+                balance.getLastSequence() + 1, scale(result.tenantTotal()), scale(result.tenantKwh()),
+                balance.getTenantAmount(), balance.getTenantKwh());
+        if (tenant.isPresent()) {
+            balance.setLastSequence(tenant.get().getSequence());
+            balance.setTenantAmount(tenant.get().getBalanceAmount());
+            balance.setTenantKwh(tenant.get().getBalanceKwh());
+            appended++;
+        }
+
+        Optional<LedgerEntryEntity> owner = appendEntry(buildingId, Party.OWNER, bill, postingDate,
+                balance.getLastSequence() + 1, scale(result.ownerTotal()),
+                scale(bill.totalKwh().subtract(result.tenantKwh())),
+                balance.getOwnerAmount(), balance.getOwnerKwh());
+        if (owner.isPresent()) {
+            balance.setLastSequence(owner.get().getSequence());
+            balance.setOwnerAmount(owner.get().getBalanceAmount());
+            balance.setOwnerKwh(owner.get().getBalanceKwh());
+            appended++;
+        }
+
+        if (appended > 0) {
+            balance.setLastPostingDate(postingDate);
+            if (newBalance) {
+                balanceRepository.saveAndFlush(balance);
+            } else {
+                balanceRepository.save(balance);
+            }
+        }
+        return appended;
+    }
+
+    /**
+     * Appends the entry of one party, as the difference from what the invoice
+     * already charged to that party.
+     *
+     * @return the appended entry, or empty if the invoice already charged
+     *         exactly {@code amount} and {@code kwh}
+     */
+    private Optional<LedgerEntryEntity> appendEntry(String buildingId, Party party, Bill bill, LocalDate postingDate,
+            long sequence, BigDecimal amount, BigDecimal kwh, BigDecimal balanceAmount, BigDecimal balanceKwh) {
+        Optional<LedgerEntryEntity> previous = entryRepository
+                .findFirstByInvoiceNumberAndPartyOrderBySequenceDesc(bill.invoiceNumber(), party);
+        BigDecimal deltaAmount = previous.map(p -> amount.subtract(p.getInvoiceAmount())).orElse(amount);
+        BigDecimal deltaKwh = previous.map(p -> kwh.subtract(p.getInvoiceKwh())).orElse(kwh);
+        if (previous.isPresent() && deltaAmount.signum() == 0 && deltaKwh.signum() == 0) {
+            return Optional.empty();
+        }
+
+        LedgerEntryEntity entry = new LedgerEntryEntity();
+        entry.setBuildingId(buildingId);
+        entry.setSequence(sequence);
+        entry.setParty(party);
+        entry.setEntryType(previous.isPresent() ? EntryType.ADJUSTMENT : EntryType.SPLIT);
+        entry.setInvoiceNumber(bill.invoiceNumber());
+        entry.setPeriodEnd(bill.period().end());
+        entry.setPostingDate(postingDate);
+        entry.setAmount(deltaAmount);
+        entry.setKwh(deltaKwh);
+        entry.setInvoiceAmount(amount);
+        entry.setInvoiceKwh(kwh);
+        entry.setBalanceAmount(balanceAmount.add(deltaAmount));
+        entry.setBalanceKwh(balanceKwh.add(deltaKwh));
+        return Optional.of(entryRepository.save(entry));
+    }
+
+    private static LedgerBalanceEntity emptyBalance(String buildingId) {
+        LedgerBalanceEntity balance = new LedgerBalanceEntity();
+        balance.setBuildingId(buildingId);
+        balance.setTenantAmount(zero());
+        balance.setTenantKwh(zero());
+        balance.setOwnerAmount(zero());
+        balance.setOwnerKwh(zero());
+        return balance;
+    }
+
+    private static BigDecimal scale(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal zero() {
+        return BigDecimal.ZERO.setScale(SCALE);
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * Memo of split results, so that a bill split again for dashboards, statements
+ * or exports skips both the interpolation and the split.
+ * <p>
+ * Entries are keyed by the whole {@link Bill} (invoice number, period, total
+ * and charges), the tenant meter and the version of that meter's readings. A
+ * changed bill therefore never matches an older entry, and every reading
+ * change bumps the meter's version, so entries computed from older readings
+ * are never looked up again and age out of the LRU bound.
+ * </p>
+ * <p>
+ * The version is read before the split is computed and bumped when a reading
+ * changes, then again once the writing transaction commits, after the
+ * {@link ReadingSeriesCache} has published the meter's new snapshot. Results
+ * computed in between from the previous snapshot are stored under a version
+ * that is never looked up again.
+ * </p>
+ * <p>
+ * {@code utility-manager.split-cache.max-size} bounds the number of entries;
+ * {@code 0} disables the memo.
+ * </p>
+ */
+@Component
+public class SplitResultCache {
+
+    private record Key(Bill bill, String tenantMeterId, long readingsVersion) {
+    }
+
+    private static final LruCache.Stats DISABLED = new LruCache.Stats(0, 0, 0, 0);
+
+    private final LruCache<Key, SplitResult> cache;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public SplitResultCache(@Value("${utility-manager.split-cache.max-size:10000}") int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative. Got: " + maxSize);
+        }
+        this.cache = maxSize == 0 ? null : new LruCache<>(maxSize);
+    }
+
+    /**
+     * Returns the memoized result of a job, splitting it on a miss.
+     *
+     * @param job   the bill to split
+     * @param split computes the result on a miss
+     * @return the cached or freshly computed result
+     */
+    public SplitResult get(SplitJob job, Function<SplitJob, SplitResult> split) {
+        Objects.requireNonNull(job, "Job cannot be null");
+        if (cache == null) {
+            return split.apply(job);
+        }
+        Key key = new Key(job.bill(), job.tenantMeterId(), version(job.tenantMeterId()));
+        return cache.get(key, k -> split.apply(job));
+    }
+
+    /**
+     * Drops every memoized result.
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Returns the hit/miss/eviction counters of the memo.
+     *
+     * @return the current statistics, all zero when the memo is disabled
+     */
+    public LruCache.Stats stats() {
+        return cache == null ? DISABLED : cache.stats();
+    }
+
+    @EventListener
+    void onReadingChanged(ReadingChangedEvent event) {
+        bump(event.meterId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onReadingCommitted(ReadingChangedEvent event) {
+        bump(event.meterId());
+    }
+
+    private long version(String meterId) {
+        AtomicLong version = versions.get(meterId);
+        return version == null ? 0 : version.get();
+    }
+
+    private void bump(String meterId) {
+        versions.computeIfAbsent(meterId, k -> new AtomicLong()).incrementAndGet();
+    }
+}
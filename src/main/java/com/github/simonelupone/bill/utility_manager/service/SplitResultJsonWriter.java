@@ -0,0 +1,93 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * {@link SplitResultWriter} streaming split results as a JSON array with
+ * Jackson's generator, so that a {@link BillReprocessingService} run can be
+ * exported whatever its size.
+ * <p>
+ * Each element identifies the bill and carries every field of the
+ * {@link SplitResult}:
+ * </p>
+ *
+ * <pre>
+ * {"invoiceNumber":"2024-001","buildingId":"building-1","tenantMeterId":"meter-1",
+ *  "period":{"start":"2024-01-01","end":"2024-02-29"},"tenantKwh":300.00,
+ *  "tenantRatio":0.240084,"tenantTotal":69.86,"ownerTotal":221.84,"calculationDetails":"..."}
+ * </pre>
+ * <p>
+ * Results are written as they come, and the array is closed by
+ * {@link #close()}.
+ * </p>
+ */
+public class SplitResultJsonWriter implements SplitResultWriter, Closeable {
+
+    private final JsonGenerator generator;
+    private long written;
+
+    /**
+     * Opens a writer and starts the array. Closing the writer closes the
+     * stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public SplitResultJsonWriter(OutputStream out) throws IOException {
+        this.generator = BillJsonWriter.FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        generator.writeStartArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if the stream cannot be written
+     */
+    @Override
+    public void write(SplitJob job, SplitResult result) {
+        Bill bill = job.bill();
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("invoiceNumber", bill.invoiceNumber());
+            generator.writeStringField("buildingId", job.buildingId());
+            generator.writeStringField("tenantMeterId", job.tenantMeterId());
+            generator.writeObjectFieldStart("period");
+            generator.writeStringField("start", bill.period().start().toString());
+            generator.writeStringField("end", bill.period().end().toString());
+            generator.writeEndObject();
+            generator.writeNumberField("tenantKwh", result.tenantKwh());
+            generator.writeNumberField("tenantRatio", result.tenantRatio());
+            generator.writeNumberField("tenantTotal", result.tenantTotal());
+            generator.writeNumberField("ownerTotal", result.ownerTotal());
+            generator.writeStringField("calculationDetails", result.calculationDetails());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write split result of " + bill.invoiceNumber(), e);
+        }
+        written++;
+    }
+
+    /**
+     * Returns the number of results written so far.
+     *
+     * @return the result count
+     */
+    public long written() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+}
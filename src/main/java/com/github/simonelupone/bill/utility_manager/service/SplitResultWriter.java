@@ -0,0 +1,24 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * Destination of the split results produced by a reprocessing run.
+ * <p>
+ * Writes happen inside the transaction of the chunk they belong to, so a
+ * writer persisting through JPA commits or rolls back together with the
+ * chunk checkpoint.
+ * </p>
+ */
+@FunctionalInterface
+public interface SplitResultWriter {
+
+    /**
+     * Writes the result of one split bill.
+     *
+     * @param job    the split bill, with its building and tenant sub-meter
+     * @param result the split result
+     */
+    void write(SplitJob job, SplitResult result);
+}
@@ -0,0 +1,30 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Selects the {@link BillSplitter} engine injected by default.
+ * <p>
+ * {@code utility-manager.splitter.engine} accepts {@code bigdecimal} (the
+ * reference {@link BillSplitterService}, default) or {@code fixed-point}
+ * ({@link FixedPointBillSplitterService}).
+ * </p>
+ */
+@Configuration
+public class SplitterConfiguration {
+
+    @Bean
+    @Primary
+    public BillSplitter billSplitter(@Value("${utility-manager.splitter.engine:bigdecimal}") String engine,
+            BillSplitterService bigDecimalSplitter, FixedPointBillSplitterService fixedPointSplitter) {
+        return switch (engine) {
+            case "bigdecimal" -> bigDecimalSplitter;
+            case "fixed-point" -> fixedPointSplitter;
+            default -> throw new IllegalArgumentException(
+                    "Unknown splitter engine '" + engine + "'. Expected 'bigdecimal' or 'fixed-point'");
+        };
+    }
+}
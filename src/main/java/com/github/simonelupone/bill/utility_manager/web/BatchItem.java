@@ -0,0 +1,28 @@
+package com.github.simonelupone.bill.utility_manager.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of a streamed batch response: the outcome of the request at
+ * {@code index} in the batch.
+ * <p>
+ * Lines are written as items complete, not in request order; exactly one of
+ * {@code result} and {@code error} is set.
+ * </p>
+ *
+ * @param index  position of the item in the request
+ * @param result the result, if the item succeeded
+ * @param error  the failure message, if the item failed
+ * @param <T>    the result type
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItem<T>(int index, T result, String error) {
+
+    static <T> BatchItem<T> success(int index, T result) {
+        return new BatchItem<>(index, result, null);
+    }
+
+    static <T> BatchItem<T> failure(int index, String error) {
+        return new BatchItem<>(index, null, error);
+    }
+}
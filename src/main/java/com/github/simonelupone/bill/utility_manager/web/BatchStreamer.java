@@ -0,0 +1,150 @@
+package com.github.simonelupone.bill.utility_manager.web;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * Runs the items of a batch request concurrently and streams each outcome as
+ * one newline-delimited JSON line ({@code application/x-ndjson}) as soon as it
+ * completes.
+ * <p>
+ * Every item runs on its own virtual thread, so items blocked on the database
+ * only park their thread and never hold a platform thread. A per-request
+ * semaphore bounds the items in flight to
+ * {@code utility-manager.api.batch-concurrency}, so one large batch cannot
+ * queue thousands of threads on the connection pool ahead of other requests.
+ * </p>
+ * <p>
+ * A failing item is reported on its own line (see {@link BatchItem}) and does
+ * not stop the batch. When the client disconnects or
+ * {@code utility-manager.api.batch-timeout} expires, the items not yet started
+ * are skipped.
+ * </p>
+ */
+@Component
+public class BatchStreamer implements DisposableBean {
+
+    private final SimpleAsyncTaskExecutor executor;
+    private final int concurrency;
+    private final int maxSize;
+    private final long timeoutMillis;
+
+    public BatchStreamer(@Value("${utility-manager.api.batch-concurrency:64}") int concurrency,
+            @Value("${utility-manager.api.batch-max-size:10000}") int maxSize,
+            @Value("${utility-manager.api.batch-timeout:PT5M}") Duration timeout) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Batch concurrency must be positive. Got: " + concurrency);
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Batch max size must be positive. Got: " + maxSize);
+        }
+        this.executor = new SimpleAsyncTaskExecutor("api-batch-");
+        this.executor.setVirtualThreads(true);
+        this.concurrency = concurrency;
+        this.maxSize = maxSize;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Starts a batch and returns the response streaming its outcomes.
+     *
+     * @param items the batch items
+     * @param task  computes the result of one item
+     * @param <I>   the item type
+     * @param <O>   the result type
+     * @return the streaming response, completed once every item has been written
+     * @throws IllegalArgumentException if the batch exceeds
+     *                                  {@code utility-manager.api.batch-max-size}
+     */
+    public <I, O> ResponseEntity<ResponseBodyEmitter> stream(List<I> items, Function<I, O> task) {
+        Objects.requireNonNull(items, "Batch items cannot be null");
+        if (items.size() > maxSize) {
+            throw new IllegalArgumentException(
+                    "Batch too large. Got " + items.size() + " items, max " + maxSize);
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+        AtomicBoolean aborted = new AtomicBoolean();
+        emitter.onTimeout(() -> aborted.set(true));
+        emitter.onError(e -> aborted.set(true));
+
+        Lock writeLock = new ReentrantLock();
+        executor.execute(() -> run(items, task, emitter, writeLock, aborted));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    private <I, O> void run(List<I> items, Function<I, O> task, ResponseBodyEmitter emitter,
+            Lock writeLock, AtomicBoolean aborted) {
+        Semaphore inFlight = new Semaphore(concurrency);
+        try {
+            for (int i = 0; i < items.size() && !aborted.get(); i++) {
+                inFlight.acquire();
+                int index = i;
+                I item = items.get(i);
+                executor.execute(() -> {
+                    try {
+                        if (!aborted.get() && !send(emitter, writeLock, apply(index, item, task))) {
+                            aborted.set(true);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            // All permits back: every started item has written its line
+            inFlight.acquire(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.completeWithError(e);
+            return;
+        }
+        if (!aborted.get()) {
+            emitter.complete();
+        }
+    }
+
+    private static <I, O> BatchItem<O> apply(int index, I item, Function<I, O> task) {
+        try {
+            return BatchItem.success(index, task.apply(item));
+        } catch (RuntimeException e) {
+            return BatchItem.failure(index, e.getMessage());
+        }
+    }
+
+    private static boolean send(ResponseBodyEmitter emitter, Lock writeLock, BatchItem<?> line) {
+        // Lines of concurrent items must not interleave. A lock rather than a
+        // monitor, so a virtual thread blocked on the socket does not pin its
+        // carrier
+        writeLock.lock();
+        try {
+            emitter.send(line, MediaType.APPLICATION_JSON);
+            emitter.send("\n", MediaType.TEXT_PLAIN);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client gone, or the response already completed on timeout
+            return false;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.simonelupone.bill.utility_manager.web;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.github.simonelupone.bill.utility_manager.service.DailyConsumptionService;
+import com.github.simonelupone.bill.utility_manager.service.MeterConsumptionService;
+
+/**
+ * HTTP API for the interpolated consumption of meters.
+ * <p>
+ * Consumptions are read from the materialized daily values when they are up
+ * to date, and interpolated otherwise.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api")
+public class ConsumptionController {
+
+    /**
+     * A consumption to calculate.
+     *
+     * @param meterId identifier of the meter
+     * @param start   the start date of the period (inclusive)
+     * @param end     the end date of the period (inclusive)
+     */
+    public record ConsumptionRequest(String meterId, LocalDate start, LocalDate end) {
+
+        public ConsumptionRequest {
+            Objects.requireNonNull(meterId, "Meter id cannot be null");
+            Objects.requireNonNull(start, "Start date cannot be null");
+            Objects.requireNonNull(end, "End date cannot be null");
+        }
+    }
+
+    /**
+     * The interpolated consumption of a meter over a period.
+     *
+     * @param meterId identifier of the meter
+     * @param start   the start date of the period (inclusive)
+     * @param end     the end date of the period (inclusive)
+     * @param kwh     the consumption in kWh
+     */
+    public record ConsumptionResponse(String meterId, LocalDate start, LocalDate end, BigDecimal kwh) {
+    }
+
+    private final MeterConsumptionService consumptionService;
+    private final DailyConsumptionService dailyConsumptionService;
+    private final BatchStreamer batchStreamer;
+
+    public ConsumptionController(MeterConsumptionService consumptionService,
+            DailyConsumptionService dailyConsumptionService, BatchStreamer batchStreamer) {
+        this.consumptionService = consumptionService;
+        this.dailyConsumptionService = dailyConsumptionService;
+        this.batchStreamer = batchStreamer;
+    }
+
+    /**
+     * Calculates the consumption of a meter between two dates.
+     *
+     * @param meterId identifier of the meter
+     * @param start   the start date of the period (inclusive)
+     * @param end     the end date of the period (inclusive)
+     * @return the interpolated consumption
+     * @throws IllegalArgumentException if the readings of the meter do not cover
+     *                                  the period
+     */
+    @GetMapping("/meters/{meterId}/consumption")
+    public ConsumptionResponse consumption(@PathVariable String meterId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        return calculate(new ConsumptionRequest(meterId, start, end));
+    }
+
+    /**
+     * Calculates many consumptions, streaming one {@link BatchItem} line per
+     * request as it completes.
+     *
+     * @param requests the consumptions to calculate
+     * @return the NDJSON stream of outcomes
+     */
+    @PostMapping("/consumption/batch")
+    public ResponseEntity<ResponseBodyEmitter> consumptionBatch(@RequestBody List<ConsumptionRequest> requests) {
+        return batchStreamer.stream(requests, this::calculate);
+    }
+
+    private ConsumptionResponse calculate(ConsumptionRequest request) {
+        BigDecimal kwh = dailyConsumptionService
+                .findConsumptionBetween(request.meterId(), request.start(), request.end())
+                .orElseGet(() -> consumptionService.calculateConsumption(request.meterId(), request.start(),
+                        request.end()));
+        return new ConsumptionResponse(request.meterId(), request.start(), request.end(), kwh);
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.simonelupone.bill.utility_manager.web;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillQueryService;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+/**
+ * HTTP API splitting bills between tenant and owner.
+ * <p>
+ * Splits go through the {@link BatchSplitService}, so results are memoized and
+ * measured like those of the billing runs.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api")
+public class SplitController {
+
+    /**
+     * A bill to split.
+     *
+     * @param buildingId    identifier of the building
+     * @param tenantMeterId identifier of the tenant's sub-meter
+     * @param bill          the bill to split
+     */
+    public record SplitRequest(String buildingId, String tenantMeterId, Bill bill) {
+
+        public SplitRequest {
+            Objects.requireNonNull(buildingId, "Building id cannot be null");
+            Objects.requireNonNull(tenantMeterId, "Tenant meter id cannot be null");
+            Objects.requireNonNull(bill, "Bill cannot be null");
+        }
+
+        SplitJob toJob() {
+            return new SplitJob(buildingId, bill, tenantMeterId);
+        }
+    }
+
+    private final BatchSplitService splitService;
+    private final BillQueryService queryService;
+    private final BatchStreamer batchStreamer;
+
+    public SplitController(BatchSplitService splitService, BillQueryService queryService,
+            BatchStreamer batchStreamer) {
+        this.splitService = splitService;
+        this.queryService = queryService;
+        this.batchStreamer = batchStreamer;
+    }
+
+    /**
+     * Splits a bill sent in the request.
+     *
+     * @param request the bill to split
+     * @return the split result
+     * @throws IllegalArgumentException if the tenant readings do not cover the
+     *                                  bill period
+     */
+    @PostMapping("/splits")
+    public SplitResult split(@RequestBody SplitRequest request) {
+        return splitService.split(request.toJob());
+    }
+
+    /**
+     * Splits a stored bill.
+     *
+     * @param invoiceNumber invoice number of the bill
+     * @return the split result
+     * @throws ResponseStatusException  with status 404 if no bill has that
+     *                                  invoice number
+     * @throws IllegalArgumentException if the tenant readings do not cover the
+     *                                  bill period
+     */
+    @GetMapping("/bills/{invoiceNumber}/split")
+    public SplitResult splitStored(@PathVariable String invoiceNumber) {
+        SplitJob job = queryService.findSplitJob(invoiceNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No bill with invoice number " + invoiceNumber));
+        return splitService.split(job);
+    }
+
+    /**
+     * Splits many bills, streaming one {@link BatchItem} line per bill as it
+     * completes.
+     *
+     * @param requests the bills to split
+     * @return the NDJSON stream of outcomes
+     */
+    @PostMapping("/splits/batch")
+    public ResponseEntity<ResponseBodyEmitter> splitBatch(@RequestBody List<SplitRequest> requests) {
+        return batchStreamer.stream(requests, request -> splitService.split(request.toJob()));
+    }
+}
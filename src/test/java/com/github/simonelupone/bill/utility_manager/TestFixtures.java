@@ -0,0 +1,74 @@
+package com.github.simonelupone.bill.utility_manager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.CostComponent;
+import com.github.simonelupone.bill.utility_manager.domain.model.SocialBonus;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+
+/**
+ * Bills and readings shared by the tests. Every bill has the same charges and
+ * total consumption; only the invoice number and period vary.
+ */
+public final class TestFixtures {
+
+    private static final BigDecimal TOTAL_KWH = new BigDecimal("1249.58");
+    private static final BigDecimal ENERGY_AMOUNT = new BigDecimal("187.43");
+    // Scale of the unit price column, so priced bills survive a database round trip
+    private static final BigDecimal ENERGY_UNIT_PRICE = new BigDecimal("0.1500000000");
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Builds a bill without TV tax and social bonus.
+     */
+    public static Bill bill(String invoiceNumber, BillPeriod period) {
+        return bill(invoiceNumber, period, false);
+    }
+
+    /**
+     * Builds a bill, with or without TV tax and social bonus.
+     */
+    public static Bill bill(String invoiceNumber, BillPeriod period, boolean withOptionalCharges) {
+        return new Bill(invoiceNumber, period, TOTAL_KWH,
+                charges(CostComponent.ofAmount(ENERGY_AMOUNT), withOptionalCharges));
+    }
+
+    /**
+     * Builds a bill whose energy component also carries a unit price, to cover
+     * every charge field in serialization round trips.
+     */
+    public static Bill pricedBill(String invoiceNumber, BillPeriod period, boolean withOptionalCharges) {
+        return new Bill(invoiceNumber, period, TOTAL_KWH,
+                charges(CostComponent.of(ENERGY_AMOUNT, ENERGY_UNIT_PRICE), withOptionalCharges));
+    }
+
+    /**
+     * Builds a reading entity, with the counter value at the column scale.
+     */
+    public static ReadingEntity reading(String buildingId, String meterId, LocalDate date, double kWh) {
+        ReadingEntity reading = new ReadingEntity();
+        reading.setBuildingId(buildingId);
+        reading.setMeterId(meterId);
+        reading.setReadingDate(date);
+        reading.setKwhValue(BigDecimal.valueOf(kWh).setScale(2, RoundingMode.HALF_UP));
+        return reading;
+    }
+
+    private static BillCharges charges(CostComponent energy, boolean withOptionalCharges) {
+        return new BillCharges(
+                energy,
+                CostComponent.ofAmount("31.22"),
+                CostComponent.ofAmount("19.87"),
+                CostComponent.ofAmount("52.18"),
+                withOptionalCharges ? Optional.of(new BigDecimal("18.00")) : Optional.empty(),
+                withOptionalCharges ? Optional.of(SocialBonus.of(2, "-48.30")) : Optional.empty());
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.simonelupone.bill.utility_manager.domain.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class InstantReadingSeriesTest {
+
+    @Test
+    void sortsAndKeepsLastReadingForRepeatedTimestamps() {
+        InstantReadingSeries series = InstantReadingSeries.of(List.of(
+                InstantReading.of(Instant.parse("2024-03-01T10:15:00Z"), 101.5),
+                InstantReading.of(Instant.parse("2024-03-01T10:00:00Z"), 100.25),
+                InstantReading.of(Instant.parse("2024-03-01T10:15:00Z"), 101.75)));
+
+        assertEquals(2, series.size());
+        assertEquals(100_250, series.wattHoursAt(0));
+        assertEquals(101.75, series.kWhAt(1));
+        assertEquals(1, series.floorIndex(Instant.parse("2024-03-01T10:20:00Z").getEpochSecond()));
+        assertEquals(-1, series.ceilingIndex(Instant.parse("2024-03-01T10:20:00Z").getEpochSecond()));
+    }
+
+    @Test
+    void dailyReadingsUseTheLatestReadingOfEachLocalDay() {
+        InstantReadingSeries series = InstantReadingSeries.of(List.of(
+                InstantReading.of(Instant.parse("2024-03-01T08:00:00Z"), 100),
+                InstantReading.of(Instant.parse("2024-03-01T22:30:00Z"), 110),
+                InstantReading.of(Instant.parse("2024-03-01T23:30:00Z"), 111),
+                InstantReading.of(Instant.parse("2024-03-02T12:00:00Z"), 120)));
+
+        // 23:30 UTC is already March 2nd in Rome
+        assertEquals(List.of(Reading.of(LocalDate.of(2024, 3, 1), 110), Reading.of(LocalDate.of(2024, 3, 2), 120)),
+                series.toDailyReadings(ZoneId.of("Europe/Rome")));
+        assertEquals(List.of(Reading.of(LocalDate.of(2024, 3, 1), 111), Reading.of(LocalDate.of(2024, 3, 2), 120)),
+                series.toDailyReadings(ZoneId.of("UTC")));
+    }
+
+    @Test
+    void rejectsUnsortedArrays() {
+        assertThrows(IllegalArgumentException.class,
+                () -> InstantReadingSeries.ofSorted(new long[] { 10, 10 }, new long[] { 1, 2 }));
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.simonelupone.bill.utility_manager.domain.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ReadingSeriesTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2023, 1, 1);
+
+    @Test
+    void sortsAndKeepsLastReadingPerDate() {
+        ReadingSeries series = ReadingSeries.of(List.of(
+                Reading.of(JAN_1.plusDays(10), 300),
+                Reading.of(JAN_1, 100),
+                Reading.of(JAN_1, 150)));
+
+        assertEquals(2, series.size());
+        assertEquals(JAN_1, series.dateAt(0));
+        assertEquals(150, series.kWhAt(0), 0);
+        assertEquals(JAN_1.plusDays(10), series.dateAt(1));
+    }
+
+    @Test
+    void floorAndCeilingUseBinarySearch() {
+        ReadingSeries series = ReadingSeries.of(List.of(
+                Reading.of(JAN_1, 100),
+                Reading.of(JAN_1.plusDays(10), 200),
+                Reading.of(JAN_1.plusDays(20), 300)));
+        long jan1 = JAN_1.toEpochDay();
+
+        assertEquals(-1, series.floorIndex(jan1 - 1));
+        assertEquals(0, series.ceilingIndex(jan1 - 1));
+        assertEquals(0, series.floorIndex(jan1));
+        assertEquals(0, series.ceilingIndex(jan1));
+        assertEquals(0, series.floorIndex(jan1 + 5));
+        assertEquals(1, series.ceilingIndex(jan1 + 5));
+        assertEquals(2, series.floorIndex(jan1 + 25));
+        assertEquals(-1, series.ceilingIndex(jan1 + 25));
+    }
+
+    @Test
+    void mergeAppendsLaterReadingsWithoutTouchingEitherSeries() {
+        ReadingSeries stored = ReadingSeries.of(List.of(Reading.of(JAN_1, 100), Reading.of(JAN_1.plusDays(10), 200)));
+        ReadingSeries newer = ReadingSeries.of(List.of(Reading.of(JAN_1.plusDays(20), 300)));
+
+        ReadingSeries merged = stored.merge(newer);
+
+        assertEquals(3, merged.size());
+        assertEquals(JAN_1.plusDays(20), merged.dateAt(2));
+        assertEquals(2, stored.size());
+        assertEquals(1, newer.size());
+        assertSame(stored, stored.merge(ReadingSeries.of(List.of())));
+    }
+
+    @Test
+    void mergeInterleavesDatesAndLetsNewerReadingsWin() {
+        ReadingSeries stored = ReadingSeries.of(List.of(
+                Reading.of(JAN_1, 100),
+                Reading.of(JAN_1.plusDays(10), 200),
+                Reading.of(JAN_1.plusDays(20), 300)));
+        ReadingSeries newer = ReadingSeries.of(List.of(
+                Reading.of(JAN_1.minusDays(5), 50),
+                Reading.of(JAN_1.plusDays(10), 250),
+                Reading.of(JAN_1.plusDays(15), 275)));
+
+        ReadingSeries merged = stored.merge(newer);
+
+        assertEquals(5, merged.size());
+        double[] expected = { 50, 100, 250, 275, 300 };
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], merged.kWhAt(i), 0);
+            assertTrue(i == 0 || merged.epochDayAt(i) > merged.epochDayAt(i - 1));
+        }
+        assertEquals(200, stored.kWhAt(1), 0);
+    }
+
+    @Test
+    void emptySeries() {
+        ReadingSeries series = ReadingSeries.of(List.of());
+
+        assertTrue(series.isEmpty());
+        assertEquals(-1, series.floorIndex(0));
+        assertEquals(-1, series.ceilingIndex(0));
+    }
+}
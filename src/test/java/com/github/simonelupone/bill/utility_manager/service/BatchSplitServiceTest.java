@@ -0,0 +1,94 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+class BatchSplitServiceTest {
+
+    private static final int BUILDINGS = 20;
+
+    private final ReadingRepository repository = mock(ReadingRepository.class);
+    private final BillSplitterService splitter = new BillSplitterService();
+
+    @Test
+    void resultsAreDeterministicAndInInputOrder() {
+        List<SplitJob> jobs = cycle();
+
+        List<SplitResult> sequential = service(1).splitAll(jobs);
+        List<SplitResult> parallel = service(8).splitAll(jobs);
+
+        assertEquals(jobs.size(), sequential.size());
+        assertEquals(sequential, parallel);
+        for (int i = 0; i < jobs.size(); i++) {
+            assertEquals(service(1).split(jobs.get(i)), parallel.get(i));
+        }
+    }
+
+    @Test
+    void reportsFirstFailingJob() {
+        List<SplitJob> jobs = new ArrayList<>(cycle());
+        Bill uncovered = bill("uncovered", BillPeriod.ofBimester(1, 1990));
+        jobs.add(jobs.size() / 2, new SplitJob("building-0", uncovered, "meter-0"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service(4).splitAll(jobs));
+        assertTrue(e.getMessage().contains("1990-01-01"));
+    }
+
+    private BatchSplitService service(int parallelism) {
+        ConsumptionInterpolationService interpolation = new ConsumptionInterpolationService();
+        JpaReadingStore store = new JpaReadingStore(repository, null);
+        MeterConsumptionService consumption = new MeterConsumptionService(
+                new ReadingSeriesCache(store, MetricsRecorder.disabled(), BUILDINGS), interpolation, store,
+                MetricsRecorder.disabled());
+        return new BatchSplitService(consumption, splitter, new SplitResultCache(0), MetricsRecorder.disabled(),
+                parallelism);
+    }
+
+    private List<SplitJob> cycle() {
+        Random random = new Random(7);
+        List<SplitJob> jobs = new ArrayList<>();
+        for (int b = 0; b < BUILDINGS; b++) {
+            String building = "building-" + b;
+            String meter = "meter-" + b;
+            List<ReadingEntity> readings = new ArrayList<>();
+            LocalDate date = LocalDate.of(2019, 12, 1);
+            double counter = random.nextInt(10_000);
+            while (date.isBefore(LocalDate.of(2024, 2, 1))) {
+                readings.add(reading(building, meter, date, counter));
+                date = date.plusDays(10 + random.nextInt(30));
+                counter += random.nextInt(300);
+            }
+            readings.add(reading(building, meter, date, counter));
+            when(repository.findByMeterIdOrderByReadingDateAsc(meter)).thenReturn(readings);
+
+            for (int year = 2020; year < 2024; year++) {
+                for (int bimester = 1; bimester <= 6; bimester++) {
+                    jobs.add(new SplitJob(building,
+                            bill(building + "-" + year + "-" + bimester, BillPeriod.ofBimester(bimester, year)),
+                            meter));
+                }
+            }
+        }
+        return jobs;
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillChargesRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerBalanceRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerEntryRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillIngestPipeline.PipelineReport;
+import com.github.simonelupone.bill.utility_manager.service.BillIngestPipeline.Rejection;
+import com.github.simonelupone.bill.utility_manager.service.BillIngestPipeline.Source;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+        "utility-manager.pipeline.queue-capacity=8",
+        "utility-manager.pipeline.interpolate-parallelism=2",
+        "utility-manager.pipeline.split-parallelism=2",
+        "utility-manager.pipeline.persist-parallelism=2",
+        "utility-manager.pipeline.batch-size=4" })
+class BillIngestPipelineTest {
+
+    private static final int QUEUE_CAPACITY = 8;
+    private static final int STAGE_THREADS = 2;
+    private static final int BATCH_SIZE = 4;
+    private static final int BUILDINGS = 10;
+    private static final BillPeriod COVERED = BillPeriod.ofBimester(1, 2024);
+    private static final BillPeriod UNCOVERED = BillPeriod.ofBimester(6, 2024);
+
+    @Autowired
+    private BillIngestPipeline pipeline;
+
+    @Autowired
+    private SplitLedgerService ledger;
+
+    @Autowired
+    private BulkPersistenceService persistenceService;
+
+    @Autowired
+    private BillMapper mapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillChargesRepository billChargesRepository;
+
+    @Autowired
+    private LedgerEntryRepository entryRepository;
+
+    @Autowired
+    private LedgerBalanceRepository balanceRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<ReadingEntity> readings = new ArrayList<>();
+        for (int building = 0; building < BUILDINGS; building++) {
+            for (int month = 1; month <= 7; month++) {
+                readings.add(reading("building-" + building, "meter-" + building, LocalDate.of(2024, month, 1),
+                        1000 + month * (100L + building)));
+            }
+        }
+        persistenceService.saveReadings(readings);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        entryRepository.deleteAllInBatch();
+        balanceRepository.deleteAllInBatch();
+        billChargesRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+        readingRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void persistsEveryValidBillAndReportsTheOthersByStage() {
+        persistenceService.saveBills(List.of(mapper.toEntity(bill("INV-7", COVERED), "building-7", "meter-7")));
+        List<SplitJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            jobs.add(job(i, i % 50 == 1 ? UNCOVERED : COVERED));
+        }
+        Source source = Source.of(jobs);
+        AtomicInteger reads = new AtomicInteger();
+        Source withInvalidElement = () -> {
+            if (reads.getAndIncrement() == 500) {
+                throw new IllegalArgumentException("Invalid bill");
+            }
+            return source.next();
+        };
+
+        PipelineReport report = pipeline.run(withInvalidElement, ledger);
+
+        assertEquals(1001, report.ingested());
+        assertEquals(1000 - 20 - 1, report.persisted());
+        assertEquals(22, report.rejectedCount());
+        assertEquals(1 + report.persisted(), billRepository.count());
+        Map<String, List<Rejection>> byStage = new HashMap<>();
+        for (Rejection rejection : report.rejections()) {
+            byStage.computeIfAbsent(rejection.stage(), stage -> new ArrayList<>()).add(rejection);
+        }
+        assertEquals(List.of(new Rejection(500, null, "ingest", "Invalid bill")), byStage.get("ingest"));
+        assertEquals(20, byStage.get("interpolate").size());
+        assertEquals(List.of("INV-7"), byStage.get("persist").stream().map(Rejection::invoiceNumber).toList());
+
+        // Every persisted bill reached the ledger of its building, once
+        BigDecimal billTotal = bill("INV-0", COVERED).getTotalAmount();
+        for (int building = 0; building < BUILDINGS; building++) {
+            long persisted = building == 1 ? 100 - 20 : building == 7 ? 99 : 100;
+            assertEquals(0, billTotal.multiply(BigDecimal.valueOf(persisted))
+                    .compareTo(ledger.currentBalance("building-" + building).totalAmount()), "building-" + building);
+        }
+        assertTrue(report.billsPerSecond() > 0);
+    }
+
+    @Test
+    void stopsReadingTheSourceWhilePersistenceIsBehind() {
+        AtomicLong written = new AtomicLong();
+        AtomicLong maxAhead = new AtomicLong();
+        AtomicLong maxPersistDepth = new AtomicLong();
+        List<SplitJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            jobs.add(job(i, COVERED));
+        }
+        Source source = Source.of(jobs);
+        AtomicLong reads = new AtomicLong();
+        Source counting = () -> {
+            maxAhead.accumulateAndGet(reads.incrementAndGet() - written.get(), Math::max);
+            return source.next();
+        };
+        SplitResultWriter slowWriter = (job, result) -> {
+            maxPersistDepth.accumulateAndGet((long) persistDepth(), Math::max);
+            sleep(2);
+            written.incrementAndGet();
+        };
+
+        PipelineReport report = pipeline.run(counting, slowWriter);
+
+        assertEquals(400, report.persisted());
+        // Bills in flight: the queues, one bill per interpolate and split
+        // thread, one batch per persist thread and the bill being ingested
+        long bound = QUEUE_CAPACITY * (2L + STAGE_THREADS) + 2L * STAGE_THREADS + STAGE_THREADS * BATCH_SIZE + 1;
+        assertTrue(maxAhead.get() <= bound, () -> "Source read " + maxAhead.get() + " bills ahead");
+        assertTrue(maxPersistDepth.get() > 0, "The persist queues should fill up behind the slow writer");
+        assertEquals(0, persistDepth());
+    }
+
+    @Test
+    void failsWhenTheSourceCannotBeRead() {
+        AtomicInteger reads = new AtomicInteger();
+        Source broken = () -> {
+            if (reads.incrementAndGet() > 10) {
+                throw new IOException("Disk error");
+            }
+            return job(reads.get(), COVERED);
+        };
+
+        assertThrows(UncheckedIOException.class, () -> pipeline.run(broken, ledger));
+    }
+
+    private double persistDepth() {
+        return registry.get("utility.pipeline.queue.depth").tag("stage", "persist").gauge().value();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SplitJob job(int i, BillPeriod period) {
+        int building = i % BUILDINGS;
+        return new SplitJob("building-" + building, bill("INV-" + i, period), "meter-" + building);
+    }
+}
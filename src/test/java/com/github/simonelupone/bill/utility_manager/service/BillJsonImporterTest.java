@@ -0,0 +1,142 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.pricedBill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillChargesRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillJsonImporter.ImportError;
+import com.github.simonelupone.bill.utility_manager.service.BillJsonImporter.ImportReport;
+
+@SpringBootTest(properties = { "utility-manager.import.batch-size=64", "utility-manager.export.chunk-size=50" })
+class BillJsonImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private BillJsonImporter importer;
+
+    @Autowired
+    private BillJsonExporter exporter;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillChargesRepository billChargesRepository;
+
+    @AfterEach
+    void cleanUp() {
+        billChargesRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void exportedBillsImportBackUnchanged() throws IOException {
+        List<SplitJob> jobs = jobs(0, 1000);
+        Path file = write("bills.json", jobs);
+
+        ImportReport report = importer.importFile(file);
+        assertEquals(1000, report.read());
+        assertEquals(1000, report.imported());
+        assertEquals(List.of(), report.errors());
+        assertEquals(0, report.duplicateCheck().storedKeys());
+        assertEquals(0, report.duplicateCheck().confirmedDuplicates());
+
+        Path exported = tempDir.resolve("exported.json");
+        assertEquals(1000, exporter.exportFile(exported));
+
+        cleanUp();
+        assertEquals(1000, importer.importFile(exported).imported());
+        Path reexported = tempDir.resolve("reexported.json");
+        exporter.exportFile(reexported);
+        assertEquals(read(exported), read(reexported));
+        assertEquals(jobs.stream().map(SplitJob::bill).toList(), read(exported).stream().map(SplitJob::bill)
+                .sorted((a, b) -> Integer.compare(number(a), number(b))).toList());
+    }
+
+    @Test
+    void skipsStoredAndRepeatedInvoiceNumbers() throws IOException {
+        importer.importFile(write("first.json", jobs(0, 100)));
+
+        List<SplitJob> second = new ArrayList<>(jobs(90, 120));
+        second.add(second.get(second.size() - 1));
+        ImportReport report = importer.importFile(write("second.json", second));
+
+        assertEquals(31, report.read());
+        assertEquals(20, report.imported());
+        assertEquals(11, report.errorCount());
+        assertEquals(List.of(30L), report.errors().stream()
+                .filter(e -> e.message().startsWith("Duplicate")).map(ImportError::index).toList());
+        assertEquals(120, billRepository.count());
+
+        DuplicateFilter.Report check = report.duplicateCheck();
+        assertEquals(100, check.storedKeys());
+        assertEquals(30, check.checked());
+        assertEquals(10, check.confirmedDuplicates());
+        assertTrue(check.memoryBytes() > 0);
+    }
+
+    @Test
+    void keepsTheFalsePositiveRateWhenTheImportOutgrowsTheStoredKeys() throws IOException {
+        ImportReport report = importer.importFile(write("bills.json", jobs(0, 5000)));
+
+        assertEquals(5000, report.imported());
+        DuplicateFilter.Report check = report.duplicateCheck();
+        assertEquals(5000, check.checked());
+        assertEquals(0, check.confirmedDuplicates());
+        // Twice the configured rate of 0.01, for the variance of 5000 checks
+        assertTrue(check.falsePositives() <= 100, "False positives: " + check.falsePositives());
+        assertTrue(check.expectedFalsePositiveRate() <= 0.01, "Expected rate: " + check.expectedFalsePositiveRate());
+    }
+
+    private Path write(String name, List<SplitJob> jobs) throws IOException {
+        Path file = tempDir.resolve(name);
+        try (BillJsonWriter writer = new BillJsonWriter(Files.newOutputStream(file))) {
+            for (SplitJob job : jobs) {
+                writer.write(job);
+            }
+        }
+        return file;
+    }
+
+    private static List<SplitJob> read(Path file) throws IOException {
+        List<SplitJob> jobs = new ArrayList<>();
+        try (BillJsonReader reader = new BillJsonReader(Files.newInputStream(file))) {
+            for (SplitJob job = reader.next(); job != null; job = reader.next()) {
+                jobs.add(job);
+            }
+        }
+        return jobs;
+    }
+
+    private static List<SplitJob> jobs(int from, int to) {
+        List<SplitJob> jobs = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Bill bill = pricedBill("INV-" + i, BillPeriod.ofBimester(i % 6 + 1, 2020 + i / 6 % 5), i % 2 == 0);
+            jobs.add(new SplitJob("building-" + i % 10, bill, "meter-" + i % 10));
+        }
+        return jobs;
+    }
+
+    private static int number(Bill bill) {
+        return Integer.parseInt(bill.invoiceNumber().substring("INV-".length()));
+    }
+}
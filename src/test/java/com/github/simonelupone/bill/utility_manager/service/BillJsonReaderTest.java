@@ -0,0 +1,115 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.pricedBill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+
+class BillJsonReaderTest {
+
+    @Test
+    void readsBackWhatTheWriterWrote() throws IOException {
+        List<SplitJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            jobs.add(new SplitJob("building-" + i % 7, pricedBill("INV-" + i, BillPeriod.ofBimester(1, 2024), i % 2 == 0), "meter-" + i % 7));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BillJsonWriter writer = new BillJsonWriter(out)) {
+            for (SplitJob job : jobs) {
+                writer.write(job);
+            }
+            assertEquals(jobs.size(), writer.written());
+        }
+
+        List<SplitJob> read = new ArrayList<>();
+        try (BillJsonReader reader = new BillJsonReader(new ByteArrayInputStream(out.toByteArray()))) {
+            for (SplitJob job = reader.next(); job != null; job = reader.next()) {
+                read.add(job);
+            }
+        }
+
+        assertEquals(jobs, read);
+    }
+
+    @Test
+    void skipsInvalidBillsAndKeepsReading() throws IOException {
+        String json = "[" + valid("INV-1") + ","
+                + """
+                {"invoiceNumber":"INV-2","buildingId":"b","tenantMeterId":"m",\
+                "period":{"start":"2024-03-01","end":"2024-01-31"},"totalKwh":1,\
+                "charges":{"energyVariable":{"amount":1},"nested":[[{"a":[1]}]]}},\
+                """
+                + valid("INV-3").replace("\"totalKwh\":1249.58", "\"totalKwh\":\"many\"") + ","
+                + "42,[1,[2,{}]],"
+                + valid("INV-4").replace("\"charges\"", "\"unknown\":{\"x\":[1,2]},\"charges\"") + ","
+                + valid("INV-5").replace("\"2024-02-29\"", "\"2024-02-30\"") + ","
+                + valid("INV-6") + "]";
+
+        try (BillJsonReader reader = new BillJsonReader(stream(json))) {
+            assertEquals("INV-1", reader.next().bill().invoiceNumber());
+            IllegalArgumentException period = assertThrows(IllegalArgumentException.class, reader::next);
+            assertTrue(period.getMessage().contains("cannot be before start date"), period.getMessage());
+            assertEquals(1, reader.index());
+            assertThrows(IllegalArgumentException.class, reader::next);
+            assertThrows(IllegalArgumentException.class, reader::next);
+            assertThrows(IllegalArgumentException.class, reader::next);
+            assertEquals(4, reader.index());
+            assertEquals("INV-4", reader.next().bill().invoiceNumber());
+            assertThrows(IllegalArgumentException.class, reader::next);
+            assertEquals("INV-6", reader.next().bill().invoiceNumber());
+            assertEquals(7, reader.index());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void reportsMissingFieldsThroughTheRecordConstructors() throws IOException {
+        String json = "[" + valid("INV-1").replace("\"buildingId\":\"building-0\",", "") + "]";
+
+        try (BillJsonReader reader = new BillJsonReader(stream(json))) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+            assertEquals("Building id cannot be null", e.getMessage());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void rejectsADocumentThatIsNotAnArray() {
+        assertThrows(IllegalArgumentException.class, () -> new BillJsonReader(stream(valid("INV-1"))));
+    }
+
+    @Test
+    void failsOnMalformedJson() throws IOException {
+        try (BillJsonReader reader = new BillJsonReader(stream("[" + valid("INV-1") + ",{\"invoiceNumber\":"))) {
+            reader.next();
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String valid(String invoice) {
+        return """
+                {"invoiceNumber":"%s","buildingId":"building-0","tenantMeterId":"meter-0",\
+                "period":{"start":"2024-01-01","end":"2024-02-29"},"totalKwh":1249.58,\
+                "charges":{"energyVariable":{"amount":187.43,"unitPrice":0.15},\
+                "transportFixed":{"amount":31.22},"transportPowerQuota":{"amount":19.87},\
+                "exciseAndVat":{"amount":52.18}}}""".formatted(invoice);
+    }
+}
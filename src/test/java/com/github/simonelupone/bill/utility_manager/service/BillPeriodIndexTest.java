@@ -0,0 +1,94 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillChargesRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+
+@SpringBootTest
+class BillPeriodIndexTest {
+
+    @Autowired
+    private BillPeriodIndex index;
+
+    @Autowired
+    private BulkPersistenceService persistenceService;
+
+    @Autowired
+    private BillMapper mapper;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillChargesRepository billChargesRepository;
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild();
+        List<BillEntity> bills = new ArrayList<>();
+        for (int building = 0; building < 5; building++) {
+            for (int bimester = 1; bimester <= 6; bimester++) {
+                bills.add(mapper.toEntity(bill("2024-" + building + "-" + bimester,
+                        BillPeriod.ofBimester(bimester, 2024)), "building-" + building, "meter-" + building));
+            }
+        }
+        persistenceService.saveBills(bills);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        billChargesRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+        index.rebuild();
+    }
+
+    @Test
+    void matchesTheRepositoryRangeQueries() {
+        assertEquals(30, index.size());
+        for (LocalDate date = LocalDate.of(2023, 12, 25); date.isBefore(LocalDate.of(2025, 1, 5)); date = date
+                .plusDays(3)) {
+            assertEquals(ids(billRepository.findCoveringDate(date)), index.findCovering(date));
+            assertEquals(ids(billRepository.findOverlapping(date, date.plusDays(40))),
+                    index.findOverlapping(date, date.plusDays(40)));
+        }
+    }
+
+    @Test
+    void followsCommittedInsertsUpdatesAndDeletes() {
+        LocalDate summer = LocalDate.of(2024, 8, 15);
+        BillEntity moved = billRepository.findByInvoiceNumber("2024-0-4").orElseThrow();
+        moved.setPeriodStart(LocalDate.of(2024, 8, 1));
+        moved.setPeriodEnd(LocalDate.of(2024, 9, 30));
+        billRepository.save(moved);
+
+        assertEquals(5, index.findCovering(summer).size());
+        assertEquals(4, index.findCovering(LocalDate.of(2024, 7, 15)).size());
+        assertEquals(6, index.findCovering(LocalDate.of(2024, 9, 30)).size());
+
+        billRepository.delete(billRepository.findByInvoiceNumber("2024-1-4").orElseThrow());
+        assertEquals(4, index.findCovering(summer).size());
+
+        persistenceService.saveBills(List.of(mapper.toEntity(bill("2024-9-4", BillPeriod.ofBimester(4, 2024)),
+                "building-9", "meter-9")));
+        assertEquals(5, index.findCovering(summer).size());
+        assertEquals(ids(billRepository.findCoveringDate(summer)), index.findCovering(summer));
+    }
+
+    private static List<Long> ids(List<BillEntity> bills) {
+        return bills.stream().map(BillEntity::getId).toList();
+    }
+}
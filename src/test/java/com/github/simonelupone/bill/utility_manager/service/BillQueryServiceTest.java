@@ -0,0 +1,102 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillChargesRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BillQueryServiceTest {
+
+    private static final int BUILDINGS = 20;
+
+    @Autowired
+    private BillQueryService queryService;
+
+    @Autowired
+    private BillMapper mapper;
+
+    @Autowired
+    private BulkPersistenceService persistenceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillChargesRepository billChargesRepository;
+
+    @AfterEach
+    void cleanUp() {
+        billChargesRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void listsAYearOfBillsWithOneStatement() {
+        List<Bill> bills = yearOfBills(2024);
+        Statistics statistics = statistics();
+
+        List<Bill> loaded = queryService.findBills(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+
+        assertEquals(bills.size(), loaded.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(bills.stream().filter(b -> b.invoiceNumber().equals("2024-0-1")).findFirst(),
+                loaded.stream().filter(b -> b.invoiceNumber().equals("2024-0-1")).findFirst());
+    }
+
+    @Test
+    void loadsAPageOfBillsWithConstantStatements() {
+        yearOfBills(2024);
+        Statistics statistics = statistics();
+
+        Page<Bill> page = queryService.findBills("building-3", PageRequest.of(0, 4));
+
+        assertEquals(4, page.getContent().size());
+        assertEquals(6, page.getTotalElements());
+        // Page query plus count query
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private List<Bill> yearOfBills(int year) {
+        List<Bill> bills = new ArrayList<>();
+        List<BillEntity> entities = new ArrayList<>();
+        for (int building = 0; building < BUILDINGS; building++) {
+            for (int bimester = 1; bimester <= 6; bimester++) {
+                Bill bill = bill(year + "-" + building + "-" + bimester, BillPeriod.ofBimester(bimester, year),
+                        bimester % 2 == 0);
+                bills.add(bill);
+                entities.add(mapper.toEntity(bill, "building-" + building, "meter-" + building));
+            }
+        }
+        persistenceService.saveBills(entities);
+        return bills;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity.EntryType;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillChargesRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerBalanceRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerEntryRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+import com.github.simonelupone.bill.utility_manager.service.BillRecomputationService.RecomputationReport;
+import com.github.simonelupone.bill.utility_manager.service.BillRecomputationService.Window;
+
+@SpringBootTest
+@RecordApplicationEvents
+class BillRecomputationServiceTest {
+
+    private static final String METER = "meter-0";
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private BulkPersistenceService persistenceService;
+
+    @Autowired
+    private BillMapper mapper;
+
+    @Autowired
+    private BillReprocessingService reprocessingService;
+
+    @Autowired
+    private SplitLedgerService ledger;
+
+    @Autowired
+    private ReadingSeriesCache readingSeriesCache;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillChargesRepository billChargesRepository;
+
+    @Autowired
+    private LedgerEntryRepository entryRepository;
+
+    @Autowired
+    private LedgerBalanceRepository balanceRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<ReadingEntity> readings = new ArrayList<>();
+        for (int month = 1; month <= 7; month++) {
+            readings.add(reading("building-0", METER, LocalDate.of(2024, month, 1), 1000 + month * 150L));
+        }
+        persistenceService.saveReadings(readings);
+
+        List<BillEntity> bills = new ArrayList<>();
+        for (int bimester = 1; bimester <= 3; bimester++) {
+            bills.add(mapper.toEntity(bill("2024-" + bimester, BillPeriod.ofBimester(bimester, 2024)),
+                    "building-0", METER));
+        }
+        persistenceService.saveBills(bills);
+        reprocessingService.reprocess("seed", ledger);
+        events.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        entryRepository.deleteAllInBatch();
+        balanceRepository.deleteAllInBatch();
+        billChargesRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+        readingRepository.deleteAllInBatch();
+        readingSeriesCache.evictAll();
+    }
+
+    @Test
+    void correctedReadingResplitsOnlyTheBillsBetweenItsNeighbours() {
+        ReadingEntity april = readingRepository.findByMeterIdAndReadingDate(METER, LocalDate.of(2024, 4, 1))
+                .orElseThrow();
+        april.setKwhValue(april.getKwhValue().add(new BigDecimal("40.00")));
+        readingRepository.save(april);
+
+        RecomputationReport report = singleReport();
+        assertEquals(List.of(new Window(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 4, 30))), report.windows());
+        assertEquals(List.of("2024-2"), report.resplitInvoices());
+        assertEquals(List.of("2024-2"), report.changedInvoices());
+        assertEquals(List.of(), report.failedInvoices());
+
+        List<LedgerEntryEntity> entries = entryRepository.findByBuildingIdOrderBySequenceAsc("building-0");
+        assertEquals(8, entries.size());
+        assertEquals(EntryType.ADJUSTMENT, entries.get(6).getEntryType());
+        assertEquals("2024-2", entries.get(6).getInvoiceNumber());
+    }
+
+    @Test
+    void newReadingResplitsTheBillWhoseBoundaryItBrackets() {
+        readingRepository.save(reading("building-0", METER, LocalDate.of(2024, 2, 15), 1380));
+
+        RecomputationReport report = singleReport();
+        assertEquals(List.of(new Window(LocalDate.of(2024, 2, 2), LocalDate.of(2024, 2, 29))), report.windows());
+        assertEquals(List.of("2024-1"), report.resplitInvoices());
+        assertEquals(List.of("2024-1"), report.changedInvoices());
+    }
+
+    @Test
+    void movedReadingCoversBothItsOldAndNewDate() {
+        ReadingEntity march = readingRepository.findByMeterIdAndReadingDate(METER, LocalDate.of(2024, 3, 1))
+                .orElseThrow();
+        march.setReadingDate(LocalDate.of(2024, 3, 10));
+        readingRepository.save(march);
+
+        RecomputationReport report = singleReport();
+        assertEquals(List.of(new Window(LocalDate.of(2024, 2, 2), LocalDate.of(2024, 3, 31))), report.windows());
+        assertEquals(List.of("2024-1", "2024-2"), report.resplitInvoices());
+        assertEquals(List.of("2024-1", "2024-2"), report.changedInvoices());
+    }
+
+    @Test
+    void readingMovedToAnotherMeterRecomputesTheOldMeter() {
+        ReadingEntity april = readingRepository.findByMeterIdAndReadingDate(METER, LocalDate.of(2024, 4, 1))
+                .orElseThrow();
+        april.setMeterId("meter-9");
+        readingRepository.save(april);
+
+        // The other meter has no bills to re-split
+        RecomputationReport report = singleReport();
+        assertEquals(METER, report.meterId());
+        assertEquals(List.of(new Window(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 4, 30))), report.windows());
+        assertEquals(List.of("2024-2"), report.changedInvoices());
+        assertEquals(6, readingSeriesCache.get(METER).size());
+    }
+
+    @Test
+    void readingOutsideEveryBillPeriodPublishesNothing() {
+        readingRepository.save(reading("building-0", METER, LocalDate.of(2024, 9, 1), 2500));
+
+        assertEquals(0, events.stream(RecomputationReport.class).count());
+    }
+
+    private RecomputationReport singleReport() {
+        List<RecomputationReport> reports = events.stream(RecomputationReport.class).toList();
+        assertEquals(1, reports.size());
+        return reports.get(0);
+    }
+}
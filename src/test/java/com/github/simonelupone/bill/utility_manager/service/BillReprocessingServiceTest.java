@@ -0,0 +1,175 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillChargesRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReprocessingCheckpointRepository;
+import com.github.simonelupone.bill.utility_manager.service.BillReprocessingService.ReprocessingReport;
+
+@SpringBootTest(properties = { "utility-manager.reprocessing.chunk-size=4",
+        "utility-manager.reprocessing.max-reported-skips=1" })
+class BillReprocessingServiceTest {
+
+    private static final int BUILDINGS = 3;
+
+    @Autowired
+    private BillReprocessingService service;
+
+    @Autowired
+    private BulkPersistenceService persistenceService;
+
+    @Autowired
+    private BillMapper mapper;
+
+    @Autowired
+    private ReadingSeriesCache readingSeriesCache;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillChargesRepository billChargesRepository;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private ReprocessingCheckpointRepository checkpointRepository;
+
+    private List<String> expectedOrder;
+
+    @BeforeEach
+    void setUp() {
+        List<ReadingEntity> readings = new ArrayList<>();
+        for (int building = 0; building < BUILDINGS; building++) {
+            LocalDate date = LocalDate.of(2023, 12, 1);
+            for (int month = 0; month < 15; month++) {
+                ReadingEntity reading = new ReadingEntity();
+                reading.setBuildingId("building-" + building);
+                reading.setMeterId("meter-" + building);
+                reading.setReadingDate(date.plusMonths(month));
+                reading.setKwhValue(BigDecimal.valueOf(1000 + month * 150L));
+                readings.add(reading);
+            }
+        }
+        persistenceService.saveReadings(readings);
+
+        List<BillEntity> bills = new ArrayList<>();
+        for (int building = 0; building < BUILDINGS; building++) {
+            for (int bimester = 1; bimester <= 6; bimester++) {
+                bills.add(mapper.toEntity(bill("2024-" + building + "-" + bimester,
+                        BillPeriod.ofBimester(bimester, 2024)), "building-" + building, "meter-" + building));
+            }
+        }
+        persistenceService.saveBills(bills);
+
+        expectedOrder = billRepository.findAll().stream()
+                .sorted(Comparator.comparing(BillEntity::getPeriodStart).thenComparingLong(BillEntity::getId))
+                .map(BillEntity::getInvoiceNumber)
+                .toList();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        checkpointRepository.deleteAllInBatch();
+        billChargesRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+        readingRepository.deleteAllInBatch();
+        readingSeriesCache.evictAll();
+    }
+
+    @Test
+    void reprocessesEveryBillInKeysetOrder() {
+        List<String> written = new ArrayList<>();
+
+        ReprocessingReport report = service.reprocess("full", (job, result) -> written.add(job.bill().invoiceNumber()));
+
+        assertFalse(report.resumed());
+        assertEquals(expectedOrder.size(), report.processed());
+        assertEquals(0, report.skipped());
+        assertEquals(expectedOrder, written);
+        assertFalse(checkpointRepository.existsById("full"));
+    }
+
+    @Test
+    void resumesAfterTheLastCommittedChunk() {
+        List<String> committed = new ArrayList<>();
+        List<String> pending = new ArrayList<>();
+        SplitResultWriter failing = (job, result) -> {
+            if (committed.size() + pending.size() == 9) {
+                throw new IllegalStateException("Interrupted");
+            }
+            pending.add(job.bill().invoiceNumber());
+            if (pending.size() == 4) {
+                committed.addAll(pending);
+                pending.clear();
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> service.reprocess("tariff-fix", failing));
+        assertEquals(8, checkpointRepository.findById("tariff-fix").orElseThrow().getProcessed());
+
+        List<String> resumedWrites = new ArrayList<>();
+        ReprocessingReport report = service.reprocess("tariff-fix",
+                (job, result) -> resumedWrites.add(job.bill().invoiceNumber()));
+
+        assertTrue(report.resumed());
+        assertEquals(expectedOrder.size(), report.processed());
+        // The rolled back chunk is split again, the committed ones are not
+        assertEquals(expectedOrder.subList(8, expectedOrder.size()), resumedWrites);
+        Set<String> all = new HashSet<>(committed);
+        all.addAll(resumedWrites);
+        assertEquals(expectedOrder.size(), all.size());
+        assertFalse(checkpointRepository.existsById("tariff-fix"));
+    }
+
+    @Test
+    void skipsBillsWhoseReadingsDoNotCoverThePeriod() {
+        persistenceService.saveBills(List.of(mapper.toEntity(bill("2030-0-1", BillPeriod.ofBimester(1, 2030)),
+                "building-0", "meter-0")));
+        List<String> written = new ArrayList<>();
+
+        ReprocessingReport report = service.reprocess("full", (job, result) -> written.add(job.bill().invoiceNumber()));
+
+        assertEquals(expectedOrder.size(), report.processed());
+        assertEquals(1, report.skipped());
+        assertEquals(List.of("2030-0-1"), report.skippedInvoices());
+        assertEquals(expectedOrder, written);
+    }
+
+    @Test
+    void capsTheReportedSkipsToTheConfiguredLimit() {
+        persistenceService.saveBills(List.of(
+                mapper.toEntity(bill("2030-0-1", BillPeriod.ofBimester(1, 2030)), "building-0", "meter-0"),
+                mapper.toEntity(bill("2030-0-2", BillPeriod.ofBimester(2, 2030)), "building-0", "meter-0")));
+
+        ReprocessingReport report = service.reprocess("full", (job, result) -> {
+        });
+
+        assertEquals(2, report.skipped());
+        assertEquals(List.of("2030-0-1"), report.skippedInvoices());
+    }
+}
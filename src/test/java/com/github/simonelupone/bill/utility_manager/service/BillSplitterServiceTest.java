@@ -0,0 +1,127 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.CostComponent;
+import com.github.simonelupone.bill.utility_manager.domain.model.SocialBonus;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.MultiSplitResult;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.PartyShare;
+
+class BillSplitterServiceTest {
+
+    private final BillSplitterService service = new BillSplitterService();
+
+    @Test
+    void sharesAlwaysSumToBillTotal() {
+        Random random = new Random(11);
+        for (int run = 0; run < 200; run++) {
+            Bill bill = bill(cents(random, 1, 50_000), cents(random, 0, 5_000), cents(random, 0, 5_000),
+                    cents(random, 0, 20_000), random.nextBoolean() ? Optional.of(cents(random, 0, 2_000))
+                            : Optional.empty(),
+                    random.nextBoolean() ? Optional.of(new SocialBonus(2, cents(random, 1, 9_000).negate()))
+                            : Optional.empty());
+
+            int parties = 1 + random.nextInt(400);
+            List<BigDecimal> consumptions = new ArrayList<>();
+            for (int i = 0; i < parties; i++) {
+                consumptions.add(BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(4)));
+            }
+
+            MultiSplitResult result = service.splitBill(bill, consumptions, random.nextInt(parties));
+
+            BigDecimal sum = result.shares().stream().map(PartyShare::amount).reduce(BigDecimal.ZERO,
+                    BigDecimal::add);
+            assertEquals(bill.getTotalAmount().setScale(2), sum);
+            assertEquals(parties, result.shares().size());
+        }
+    }
+
+    @Test
+    void splitsVariableProportionallyFixedEquallyAndPersonalToOwner() {
+        Bill bill = bill(new BigDecimal("90.00"), new BigDecimal("20.00"), new BigDecimal("10.00"),
+                new BigDecimal("0.00"), Optional.of(new BigDecimal("15.00")), Optional.empty());
+
+        MultiSplitResult result = service.splitBill(bill,
+                List.of(new BigDecimal("100"), new BigDecimal("200"), new BigDecimal("0")), 0);
+
+        // Variable 90 split 1:2:0, fixed 30 split 10/10/10, TV tax 15 to the owner
+        assertEquals(new BigDecimal("55.00"), result.shares().get(0).amount());
+        assertEquals(new BigDecimal("70.00"), result.shares().get(1).amount());
+        assertEquals(new BigDecimal("10.00"), result.shares().get(2).amount());
+        assertEquals(new BigDecimal("0.333333"), result.shares().get(0).ratio());
+    }
+
+    @Test
+    void roundingCentsGoToLargestRemainders() {
+        // 10.00 split three ways: 3.33 each, the missing cent goes to the first party
+        Bill bill = bill(new BigDecimal("0.00"), new BigDecimal("10.00"), new BigDecimal("0.00"),
+                new BigDecimal("0.00"), Optional.empty(), Optional.empty());
+
+        MultiSplitResult result = service.splitBill(bill, List.of(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE),
+                2);
+
+        assertEquals(new BigDecimal("3.34"), result.shares().get(0).amount());
+        assertEquals(new BigDecimal("3.33"), result.shares().get(1).amount());
+        assertEquals(new BigDecimal("3.33"), result.shares().get(2).amount());
+    }
+
+    @Test
+    void tiedRemaindersGoToTheLowerIndexes() {
+        // 10.00 split seven ways: 1.42 each, the 6 missing cents go to the first six parties
+        Bill bill = bill(new BigDecimal("0.00"), new BigDecimal("10.00"), new BigDecimal("0.00"),
+                new BigDecimal("0.00"), Optional.empty(), Optional.empty());
+
+        MultiSplitResult result = service.splitBill(bill, List.of(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE,
+                BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE), 3);
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(new BigDecimal("1.43"), result.shares().get(i).amount());
+        }
+        assertEquals(new BigDecimal("1.42"), result.shares().get(6).amount());
+    }
+
+    @Test
+    void variableCostsGoToOwnerWithoutConsumption() {
+        Bill bill = bill(new BigDecimal("40.00"), new BigDecimal("20.00"), new BigDecimal("0.00"),
+                new BigDecimal("0.00"), Optional.empty(), Optional.empty());
+
+        MultiSplitResult result = service.splitBill(bill, List.of(BigDecimal.ZERO, BigDecimal.ZERO), 1);
+
+        assertEquals(new BigDecimal("10.00"), result.shares().get(0).amount());
+        assertEquals(new BigDecimal("50.00"), result.shares().get(1).amount());
+    }
+
+    @Test
+    void rejectsInvalidParties() {
+        Bill bill = bill(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, Optional.empty(),
+                Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> service.splitBill(bill, List.of(), 0));
+        assertThrows(IllegalArgumentException.class, () -> service.splitBill(bill, List.of(BigDecimal.ONE), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.splitBill(bill, List.of(BigDecimal.ONE.negate()), 0));
+    }
+
+    private static BigDecimal cents(Random random, int min, int max) {
+        return BigDecimal.valueOf(min + random.nextInt(max - min + 1), 2);
+    }
+
+    private static Bill bill(BigDecimal energy, BigDecimal transport, BigDecimal power, BigDecimal excise,
+            Optional<BigDecimal> tvTax, Optional<SocialBonus> socialBonus) {
+        BillCharges charges = new BillCharges(CostComponent.ofAmount(energy), CostComponent.ofAmount(transport),
+                CostComponent.ofAmount(power), CostComponent.ofAmount(excise), tvTax, socialBonus);
+        return new Bill("INV-1", BillPeriod.ofBimester(1, 2024), new BigDecimal("1000"), charges);
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedKeyAndStaysNearTheTargetRate() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01, 1 << 20);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("INV-" + i);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("INV-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (filter.mightContain("INV-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.002);
+        assertEquals(0.01, falsePositives / 100_000.0, 0.003, "Measured false positive rate");
+        assertEquals(100_000, filter.size());
+    }
+
+    @Test
+    void spreadsConsecutiveKeys() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01, 1 << 20);
+        for (long day = 0; day < 10_000; day++) {
+            filter.put(day);
+        }
+
+        int falsePositives = 0;
+        for (long day = 10_000; day < 20_000; day++) {
+            if (filter.mightContain(day)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void trimsTheFilterToTheMemoryBudget() {
+        BloomFilter sized = BloomFilter.create(100_000, 0.01, 1 << 20);
+        BloomFilter capped = BloomFilter.create(100_000, 0.01, 32 * 1024);
+        for (int i = 0; i < 100_000; i++) {
+            sized.put(i);
+            capped.put(i);
+        }
+
+        assertTrue(sized.memoryBytes() > 32 * 1024);
+        assertEquals(32 * 1024, capped.memoryBytes());
+        assertTrue(capped.expectedFalsePositiveRate() > 0.05);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(-1, 0.01, 1024));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1, 1024));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 0.01, 4));
+    }
+}
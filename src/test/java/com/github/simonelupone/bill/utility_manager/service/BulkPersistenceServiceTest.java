@@ -0,0 +1,150 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.simonelupone.bill.utility_manager.persistence.BillChargesEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillChargesRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BulkPersistenceServiceTest {
+
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    private BulkPersistenceService service;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillChargesRepository billChargesRepository;
+
+    @AfterEach
+    void cleanUp() {
+        readingRepository.deleteAllInBatch();
+        billChargesRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void insertsReadingsInJdbcBatches() {
+        List<ReadingEntity> readings = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            ReadingEntity reading = new ReadingEntity();
+            reading.setBuildingId("building-1");
+            reading.setMeterId("meter-" + (i % 10));
+            reading.setReadingDate(LocalDate.of(2000, 1, 1).plusDays(i / 10));
+            reading.setKwhValue(BigDecimal.valueOf(i, 2));
+            readings.add(reading);
+        }
+
+        Statistics statistics = statistics();
+        assertEquals(ROWS, service.saveReadings(readings));
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // One statement per JDBC batch plus one sequence call per id block,
+        // instead of one statement per row
+        assertTrue(statistics.getPrepareStatementCount() < ROWS / 10,
+                "Prepared statements: " + statistics.getPrepareStatementCount());
+        assertEquals(ROWS, readingRepository.count());
+    }
+
+    @Test
+    void insertsBillsWithCascadedChargesInJdbcBatches() {
+        int bills = ROWS / 2;
+        List<BillEntity> entities = new ArrayList<>();
+        for (int i = 0; i < bills; i++) {
+            BillEntity bill = new BillEntity();
+            bill.setInvoiceNumber("INV-" + i);
+            bill.setBuildingId("building-" + (i % 100));
+            bill.setTenantMeterId("meter-" + (i % 100));
+            bill.setPeriodStart(LocalDate.of(2024, 1, 1));
+            bill.setPeriodEnd(LocalDate.of(2024, 2, 29));
+            bill.setTotalKwh(new BigDecimal("1234.56"));
+            bill.setCharges(charges());
+            entities.add(bill);
+        }
+
+        Statistics statistics = statistics();
+        assertEquals(bills, service.saveBills(entities));
+
+        assertEquals(2L * bills, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 2L * bills / 10,
+                "Prepared statements: " + statistics.getPrepareStatementCount());
+        assertEquals(bills, billRepository.count());
+        assertEquals(bills, billChargesRepository.count());
+    }
+
+    @Test
+    void keepsTheEntitiesOfAJoinedTransactionManaged() {
+        service.saveReadings(List.of(reading("building-1", "meter-1", LocalDate.of(2024, 1, 1), 100)));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ReadingEntity existing = readingRepository
+                    .findByMeterIdAndReadingDate("meter-1", LocalDate.of(2024, 1, 1)).orElseThrow();
+            ReadingEntity inserted = reading("building-1", "meter-1", LocalDate.of(2024, 2, 1), 200);
+            service.saveReadings(List.of(inserted));
+
+            assertTrue(entityManager.contains(existing));
+            assertFalse(entityManager.contains(inserted));
+            // Written on commit without another save
+            existing.setKwhValue(new BigDecimal("150.00"));
+        });
+
+        assertEquals(0, new BigDecimal("150.00").compareTo(readingRepository
+                .findByMeterIdAndReadingDate("meter-1", LocalDate.of(2024, 1, 1)).orElseThrow().getKwhValue()));
+        assertEquals(2, readingRepository.count());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static BillChargesEntity charges() {
+        BillChargesEntity charges = new BillChargesEntity();
+        charges.setEnergyVariableAmount(new BigDecimal("120.00"));
+        charges.setEnergyVariableUnitPrice(new BigDecimal("0.12"));
+        charges.setTransportFixedAmount(new BigDecimal("20.00"));
+        charges.setTransportPowerAmount(new BigDecimal("15.00"));
+        charges.setExciseVatAmount(new BigDecimal("30.00"));
+        return charges;
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+
+class ConsumptionInterpolationServiceTest {
+
+    private final ConsumptionInterpolationService service = new ConsumptionInterpolationService();
+
+    @Test
+    void batchMatchesSingleCallPath() {
+        Random random = new Random(42);
+        LocalDate origin = LocalDate.of(2020, 1, 1);
+
+        // Irregular readings over ~4 years, shuffled to exercise the sort
+        List<Reading> readings = new ArrayList<>();
+        double counter = 1000;
+        LocalDate date = origin;
+        while (date.isBefore(origin.plusYears(4))) {
+            readings.add(Reading.of(date, counter));
+            date = date.plusDays(1 + random.nextInt(45));
+            counter += random.nextInt(500) + random.nextDouble();
+        }
+        readings.add(Reading.of(date, counter));
+        List<Reading> shuffled = new ArrayList<>(readings);
+        Collections.shuffle(shuffled, random);
+
+        List<BillPeriod> periods = new ArrayList<>();
+        for (int year = 2020; year < 2024; year++) {
+            for (int bimester = 6; bimester >= 1; bimester--) {
+                periods.add(BillPeriod.ofBimester(bimester, year));
+            }
+        }
+        periods.add(BillPeriod.of(LocalDate.of(2021, 3, 15), LocalDate.of(2021, 3, 15)));
+
+        ReadingSeries series = ReadingSeries.of(shuffled);
+        List<BigDecimal> batch = service.calculateConsumption(periods, shuffled);
+        List<BigDecimal> batchOnSeries = service.calculateConsumption(periods, series);
+
+        assertEquals(periods.size(), batch.size());
+        for (int i = 0; i < periods.size(); i++) {
+            BillPeriod period = periods.get(i);
+            BigDecimal single = service.calculateConsumption(period.start(), period.end(), readings);
+            assertEquals(single, batch.get(i), "Mismatch for period " + period);
+            assertEquals(single, batchOnSeries.get(i), "Mismatch for period " + period);
+            assertEquals(single, service.calculateConsumption(period.start(), period.end(), series));
+        }
+    }
+
+    @Test
+    void batchKeepsLastReadingForDuplicateDates() {
+        List<Reading> readings = List.of(
+                Reading.of(LocalDate.of(2023, 1, 1), 100),
+                Reading.of(LocalDate.of(2023, 1, 1), 200),
+                Reading.of(LocalDate.of(2023, 1, 11), 300));
+        BillPeriod period = BillPeriod.of(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 6));
+
+        assertEquals(service.calculateConsumption(period.start(), period.end(), readings),
+                service.calculateConsumption(List.of(period), readings).get(0));
+    }
+
+    @Test
+    void batchRejectsPeriodOutsideReadings() {
+        List<Reading> readings = List.of(
+                Reading.of(LocalDate.of(2023, 1, 1), 100),
+                Reading.of(LocalDate.of(2023, 2, 1), 200));
+
+        assertThrows(IllegalArgumentException.class, () -> service.calculateConsumption(
+                List.of(BillPeriod.ofBimester(1, 2023)), readings));
+    }
+
+    @Test
+    void counterValuesGiveTheSameConsumptionAsPeriods() {
+        Random random = new Random(16);
+        List<Reading> readings = new ArrayList<>();
+        double counter = 500;
+        LocalDate date = LocalDate.of(2022, 1, 1);
+        while (date.isBefore(LocalDate.of(2023, 1, 1))) {
+            readings.add(Reading.of(date, counter));
+            date = date.plusDays(1 + random.nextInt(40));
+            counter += random.nextInt(300) + random.nextDouble();
+        }
+        ReadingSeries series = ReadingSeries.of(readings);
+        LocalDate first = series.dateAt(0);
+        LocalDate last = series.dateAt(series.size() - 1);
+
+        List<BigDecimal> values = service.calculateCounterValues(first, last, series);
+
+        assertEquals(last.toEpochDay() - first.toEpochDay() + 1, values.size());
+        for (int run = 0; run < 500; run++) {
+            int start = random.nextInt(values.size());
+            int end = start + random.nextInt(values.size() - start);
+            BigDecimal expected = service.calculateConsumption(first.plusDays(start), first.plusDays(end), series);
+            assertEquals(expected, values.get(end).subtract(values.get(start)).max(BigDecimal.ZERO));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> service.calculateCounterValues(first.minusDays(1), last, series));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.calculateCounterValues(first, last.plusDays(1), series));
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.simonelupone.bill.utility_manager.persistence.DailyConsumptionEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.DailyConsumptionRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+
+@SpringBootTest
+class DailyConsumptionServiceTest {
+
+    private static final String METER = "meter-1";
+    private static final LocalDate FIRST = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private DailyConsumptionService service;
+
+    @Autowired
+    private MeterConsumptionService meterConsumptionService;
+
+    @Autowired
+    private BulkPersistenceService persistenceService;
+
+    @Autowired
+    private ReadingSeriesCache readingSeriesCache;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private DailyConsumptionRepository dailyRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<ReadingEntity> readings = new ArrayList<>();
+        for (int month = 0; month < 6; month++) {
+            readings.add(reading("building-1", METER, FIRST.plusMonths(month), 1000 + month * 173.25));
+        }
+        persistenceService.saveReadings(readings);
+        service.refreshAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        dailyRepository.deleteAllInBatch();
+        readingRepository.deleteAllInBatch();
+        readingSeriesCache.evictAll();
+    }
+
+    @Test
+    void materializesEveryDayBetweenFirstAndLastReading() {
+        LocalDate last = FIRST.plusMonths(5);
+        List<DailyConsumptionEntity> days = service.findDays(METER, FIRST.minusDays(10), last.plusDays(10));
+
+        assertEquals(last.toEpochDay() - FIRST.toEpochDay() + 1, days.size());
+        assertEquals(FIRST, days.get(0).getConsumptionDate());
+        assertEquals(0, days.get(0).getConsumptionKwh().signum());
+        for (int i = 1; i < days.size(); i++) {
+            assertEquals(0, days.get(i).getCounterKwh().subtract(days.get(i - 1).getCounterKwh())
+                    .compareTo(days.get(i).getConsumptionKwh()));
+        }
+        assertMatchesInterpolation(FIRST, last);
+    }
+
+    @Test
+    void extendsIncrementallyWhenANewReadingArrives() {
+        readingRepository.save(reading("building-1", METER, FIRST.plusMonths(7), 2400));
+        service.refresh();
+
+        assertMatchesInterpolation(FIRST, FIRST.plusMonths(7));
+    }
+
+    @Test
+    void rewritesOnlyAroundACorrectedReading() {
+        ReadingEntity march = readingRepository.findByMeterIdAndReadingDate(METER, FIRST.plusMonths(2)).orElseThrow();
+        march.setKwhValue(march.getKwhValue().add(new BigDecimal("60.00")));
+        readingRepository.save(march);
+        long untouchedId = service.findDays(METER, FIRST.plusMonths(4), FIRST.plusMonths(4)).get(0).getId();
+
+        service.refresh();
+
+        assertMatchesInterpolation(FIRST, FIRST.plusMonths(5));
+        assertEquals(untouchedId, service.findDays(METER, FIRST.plusMonths(4), FIRST.plusMonths(4)).get(0).getId());
+    }
+
+    @Test
+    void dropsTheDaysOfADeletedLastReading() {
+        readingRepository.delete(
+                readingRepository.findByMeterIdAndReadingDate(METER, FIRST.plusMonths(5)).orElseThrow());
+        service.refresh();
+
+        assertEquals(FIRST.plusMonths(4).toEpochDay() - FIRST.toEpochDay() + 1,
+                service.findDays(METER, FIRST, FIRST.plusMonths(6)).size());
+        assertThrows(IllegalArgumentException.class,
+                () -> service.consumptionBetween(METER, FIRST, FIRST.plusMonths(5)));
+    }
+
+    @Test
+    void looksUpOnlyMeterDaysWithoutPendingChanges() {
+        LocalDate start = FIRST.plusDays(20);
+        LocalDate end = FIRST.plusMonths(3);
+        BigDecimal before = service.findConsumptionBetween(METER, start, end).orElseThrow();
+
+        ReadingEntity march = readingRepository.findByMeterIdAndReadingDate(METER, FIRST.plusMonths(2)).orElseThrow();
+        march.setKwhValue(march.getKwhValue().add(new BigDecimal("60.00")));
+        readingRepository.save(march);
+
+        assertTrue(service.findConsumptionBetween(METER, start, end).isEmpty());
+        assertEquals(before, service.consumptionBetween(METER, start, end));
+        service.refresh();
+        assertEquals(0, meterConsumptionService.calculateConsumption(METER, start, end)
+                .compareTo(service.findConsumptionBetween(METER, start, end).orElseThrow()));
+        assertTrue(service.findConsumptionBetween(METER, FIRST.minusDays(1), end).isEmpty());
+    }
+
+    private void assertMatchesInterpolation(LocalDate from, LocalDate to) {
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(11)) {
+            for (LocalDate end = start; !end.isAfter(to); end = end.plusDays(17)) {
+                BigDecimal expected = meterConsumptionService.calculateConsumption(METER, start, end);
+                BigDecimal actual = service.consumptionBetween(METER, start, end);
+                assertEquals(0, expected.compareTo(actual), "Mismatch for " + start + " - " + end);
+            }
+        }
+    }
+}
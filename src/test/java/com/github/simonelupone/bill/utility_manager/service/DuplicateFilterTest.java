@@ -0,0 +1,52 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class DuplicateFilterTest {
+
+    @Test
+    void staysNearTheTargetRateWhenAnImportFarOutgrowsTheFirstFilter() {
+        DuplicateFilter filter = DuplicateFilter.create(0, 0.01, 16 << 20);
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            String key = "INV-" + i;
+            if (filter.mightBeStored(key)) {
+                falsePositives++;
+            }
+            filter.add(key);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightBeStored("INV-" + i));
+        }
+        int laterFalsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (filter.mightBeStored("INV-" + i)) {
+                laterFalsePositives++;
+            }
+        }
+        DuplicateFilter.Report report = filter.report();
+        assertTrue(report.expectedFalsePositiveRate() <= 0.01, "Expected rate: " + report.expectedFalsePositiveRate());
+        // Below the target rate on average, with room for the variance
+        assertTrue(falsePositives <= 1_300, "False positives while importing: " + falsePositives);
+        assertEquals(0.01, laterFalsePositives / 100_000.0, 0.003, "Measured false positive rate");
+        assertEquals(300_000, report.checked());
+    }
+
+    @Test
+    void stopsGrowingAtTheMemoryBudget() {
+        DuplicateFilter filter = DuplicateFilter.create(0, 0.01, 64 * 1024);
+        for (long day = 0; day < 200_000; day++) {
+            filter.addStored(day);
+        }
+
+        DuplicateFilter.Report report = filter.report();
+        assertEquals(200_000, report.storedKeys());
+        assertTrue(report.memoryBytes() <= 64 * 1024, "Memory: " + report.memoryBytes());
+        assertTrue(report.expectedFalsePositiveRate() > 0.01);
+        assertTrue(filter.mightBeStored(199_999L));
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillCharges;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.CostComponent;
+import com.github.simonelupone.bill.utility_manager.domain.model.SocialBonus;
+
+/**
+ * Differential tests: the fixed-point engine must reproduce the
+ * {@link BillSplitterService} results exactly.
+ */
+class FixedPointBillSplitterServiceTest {
+
+    private final BillSplitterService reference = new BillSplitterService();
+    private final FixedPointBillSplitterService fixedPoint = new FixedPointBillSplitterService(reference);
+
+    @Test
+    void matchesBigDecimalEngineOnRandomBills() {
+        Random random = new Random(20240101);
+        for (int run = 0; run < 100_000; run++) {
+            Bill bill = randomBill(random);
+            BigDecimal tenantKwh = randomTenantKwh(random, bill.totalKwh());
+
+            assertEquals(reference.splitBill(bill, tenantKwh), fixedPoint.splitBill(bill, tenantKwh),
+                    "Mismatch for " + bill + " / " + tenantKwh);
+        }
+    }
+
+    @Test
+    void matchesOnRoundingTies() {
+        // 0.5 cent ties on the ratio, the fixed share and the tenant total
+        Bill bill = bill(new BigDecimal("0.01"), new BigDecimal("0.01"), new BigDecimal("0.00"),
+                new BigDecimal("0.00"), new BigDecimal("2"));
+        for (String tenant : new String[] { "0", "0.5", "1", "1.5", "2", "3" }) {
+            BigDecimal tenantKwh = new BigDecimal(tenant);
+            assertEquals(reference.splitBill(bill, tenantKwh), fixedPoint.splitBill(bill, tenantKwh));
+        }
+    }
+
+    @Test
+    void matchesOnAmountsWithTrailingZeroDecimals() {
+        // As read from JSON, which keeps the scale of the numbers
+        Bill bill = bill(new BigDecimal("120.400"), new BigDecimal("30.15"), new BigDecimal("18.9"),
+                new BigDecimal("41.3300"), new BigDecimal("1249.58"));
+        for (String tenant : new String[] { "0", "312.40", "1249.58" }) {
+            BigDecimal tenantKwh = new BigDecimal(tenant);
+            assertEquals(reference.splitBill(bill, tenantKwh), fixedPoint.splitBill(bill, tenantKwh));
+        }
+    }
+
+    @Test
+    void matchesInADecimalCommaLocale() {
+        Locale previous = Locale.getDefault(Locale.Category.FORMAT);
+        Locale.setDefault(Locale.Category.FORMAT, Locale.ITALY);
+        try {
+            Random random = new Random(20240102);
+            for (int run = 0; run < 1_000; run++) {
+                Bill bill = randomBill(random);
+                BigDecimal tenantKwh = randomTenantKwh(random, bill.totalKwh());
+                assertEquals(reference.splitBill(bill, tenantKwh), fixedPoint.splitBill(bill, tenantKwh));
+            }
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, previous);
+        }
+    }
+
+    @Test
+    void splitsRepresentableBillsWithoutTheFallback() {
+        FixedPointBillSplitterService withoutFallback = new FixedPointBillSplitterService(null);
+        Random random = new Random(20240103);
+        for (int run = 0; run < 1_000; run++) {
+            Bill bill = bill(cents(random, 500_000).setScale(2), new BigDecimal("30.15"), new BigDecimal("18.9"),
+                    new BigDecimal("41"), new BigDecimal("1249.58"));
+            BigDecimal tenantKwh = randomTenantKwh(random, bill.totalKwh());
+            assertEquals(reference.splitBill(bill, tenantKwh), withoutFallback.splitBill(bill, tenantKwh));
+        }
+    }
+
+    @Test
+    void fallsBackForUnrepresentableInputs() {
+        Bill bill = bill(new BigDecimal("10.001"), new BigDecimal("5.00"), new BigDecimal("5.00"),
+                new BigDecimal("1.00"), new BigDecimal("100"));
+        BigDecimal tenantKwh = new BigDecimal("33.3333");
+
+        assertEquals(reference.splitBill(bill, tenantKwh), fixedPoint.splitBill(bill, tenantKwh));
+    }
+
+    @Test
+    void roundHalfUpMatchesBigDecimal() {
+        for (long dividend = -50; dividend <= 50; dividend++) {
+            for (long divisor = 1; divisor <= 8; divisor++) {
+                long expected = BigDecimal.valueOf(dividend)
+                        .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP).longValue();
+                assertEquals(expected, FixedPointBillSplitterService.roundHalfUp(dividend, divisor));
+            }
+        }
+    }
+
+    private static Bill randomBill(Random random) {
+        BillCharges charges = new BillCharges(
+                CostComponent.ofAmount(cents(random, 500_000)),
+                CostComponent.ofAmount(cents(random, 50_000)),
+                CostComponent.ofAmount(cents(random, 50_000)),
+                CostComponent.ofAmount(cents(random, 200_000)),
+                random.nextBoolean() ? Optional.of(cents(random, 10_000)) : Optional.empty(),
+                random.nextBoolean()
+                        ? Optional.of(new SocialBonus(1 + random.nextInt(12),
+                                BigDecimal.valueOf(-1 - random.nextInt(20_000), 2)))
+                        : Optional.empty());
+        BigDecimal totalKwh = random.nextInt(50) == 0 ? BigDecimal.ZERO
+                : BigDecimal.valueOf(random.nextInt(10_000_000), random.nextInt(3));
+        return new Bill("INV-" + random.nextInt(), BillPeriod.ofBimester(1 + random.nextInt(6), 2024), totalKwh,
+                charges);
+    }
+
+    private static BigDecimal randomTenantKwh(Random random, BigDecimal totalKwh) {
+        // Interpolated consumptions have 2 decimals and may exceed the bill total
+        long bound = Math.max(1, totalKwh.movePointRight(2).longValue() * 6 / 5);
+        return BigDecimal.valueOf(Math.floorMod(random.nextLong(), bound), 2);
+    }
+
+    private static BigDecimal cents(Random random, int max) {
+        BigDecimal amount = BigDecimal.valueOf(random.nextInt(max), 2);
+        // Now and then with trailing zero decimals
+        return random.nextInt(20) == 0 ? amount.setScale(3 + random.nextInt(2)) : amount;
+    }
+
+    private static Bill bill(BigDecimal energy, BigDecimal transport, BigDecimal power, BigDecimal excise,
+            BigDecimal totalKwh) {
+        BillCharges charges = new BillCharges(CostComponent.ofAmount(energy), CostComponent.ofAmount(transport),
+                CostComponent.ofAmount(power), CostComponent.ofAmount(excise), Optional.empty(), Optional.empty());
+        return new Bill("INV-1", BillPeriod.ofBimester(1, 2024), totalKwh, charges);
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.InstantReading;
+import com.github.simonelupone.bill.utility_manager.domain.model.InstantReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingBlockRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+
+@SpringBootTest(properties = "utility-manager.interval.zone=Europe/Rome")
+class IntervalReadingServiceTest {
+
+    private static final String BUILDING = "building-1";
+    private static final String METER = "meter-1";
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Autowired
+    private IntervalReadingService service;
+
+    @Autowired
+    private MeterConsumptionService meterConsumptionService;
+
+    @Autowired
+    private ReadingSeriesCache readingSeriesCache;
+
+    @Autowired
+    private ReadingBlockRepository blockRepository;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @AfterEach
+    void cleanUp() {
+        blockRepository.deleteAllInBatch();
+        readingRepository.deleteAllInBatch();
+        readingSeriesCache.evictAll();
+    }
+
+    @Test
+    void storesOneBlockPerUtcDayAndRollsUpLocalDays() {
+        // Ten days of quarter-hour readings, 0.1 kWh each
+        assertEquals(10, service.ingest(BUILDING, METER, quarterHours(0, 960)));
+
+        assertEquals(10, blockRepository.count());
+        List<ReadingEntity> daily = readingRepository.findByMeterIdAndReadingDateBetweenOrderByReadingDateAsc(METER,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        // The last reading, 23:45 UTC, is already January 11th in Rome
+        assertEquals(11, daily.size());
+        // Latest reading of January 1st in Rome is 22:45 UTC
+        assertEquals(0, new BigDecimal("1009.10").compareTo(daily.get(0).getKwhValue()));
+
+        assertEquals(0, new BigDecimal("9.60").compareTo(
+                meterConsumptionService.calculateConsumption(METER, LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3))));
+    }
+
+    @Test
+    void interpolatesBetweenReadingsOfAdjacentBlocks() {
+        service.ingest(BUILDING, METER, quarterHours(0, 960));
+
+        BigDecimal consumption = service.calculateConsumption(METER,
+                Instant.parse("2024-01-01T23:52:30Z"), Instant.parse("2024-01-03T00:07:30Z"));
+
+        // 24 hours and 15 minutes at 0.4 kWh per hour
+        assertEquals(0, new BigDecimal("9.70").compareTo(consumption));
+        assertThrows(IllegalArgumentException.class, () -> service.calculateConsumption(METER,
+                Instant.parse("2023-12-31T12:00:00Z"), Instant.parse("2024-01-02T00:00:00Z")));
+    }
+
+    @Test
+    void mergesOverlappingIngestsWithTheNewestValueWinning() {
+        service.ingest(BUILDING, METER, quarterHours(0, 96));
+        List<InstantReading> corrected = new ArrayList<>(quarterHours(48, 144));
+        corrected.add(InstantReading.of(START.plusSeconds(900L * 95), 1009.55));
+
+        assertEquals(2, service.ingest(BUILDING, METER, corrected));
+
+        InstantReadingSeries day = service.findReadings(METER, START, START.plusSeconds(86_399));
+        assertEquals(96, day.size());
+        assertEquals(1009.55, day.kWhAt(95));
+        assertEquals(144, service.findReadings(METER, START, START.plusSeconds(900L * 143)).size());
+    }
+
+    private static List<InstantReading> quarterHours(int from, int to) {
+        List<InstantReading> readings = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            readings.add(InstantReading.of(START.plusSeconds(900L * i), 1000 + i * 0.1));
+        }
+        return readings;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTest {
+
+    private record Interval(long start, long end, long id) {
+    }
+
+    @Test
+    void matchesLinearScanUnderRandomInsertsAndRemovals() {
+        Random random = new Random(15);
+        IntervalTree tree = new IntervalTree();
+        List<Interval> intervals = new ArrayList<>();
+        long nextId = 0;
+
+        for (int step = 0; step < 20_000; step++) {
+            if (intervals.isEmpty() || random.nextInt(3) > 0) {
+                long start = random.nextInt(3_650);
+                Interval interval = new Interval(start, start + random.nextInt(90), nextId++);
+                tree.insert(interval.start(), interval.end(), interval.id());
+                intervals.add(interval);
+            } else {
+                Interval removed = intervals.remove(random.nextInt(intervals.size()));
+                assertTrue(tree.remove(removed.start(), removed.id()));
+            }
+
+            if (step % 50 == 0) {
+                long from = random.nextInt(3_700);
+                long to = from + random.nextInt(3) * random.nextInt(120);
+                assertEquals(scan(intervals, from, to), tree.overlapping(from, to));
+            }
+        }
+        assertEquals(intervals.size(), tree.size());
+    }
+
+    @Test
+    void findsIntervalsTouchingTheQueryBounds() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+        tree.insert(21, 30, 2);
+        tree.insert(5, 9, 3);
+
+        assertEquals(List.of(1L), tree.overlapping(20, 20));
+        assertEquals(List.of(1L, 2L), tree.overlapping(20, 21));
+        assertEquals(List.of(3L, 1L), tree.overlapping(9, 10));
+        assertEquals(List.of(), tree.overlapping(31, 40));
+    }
+
+    @Test
+    void removingAMissingIntervalReturnsFalse() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+
+        assertFalse(tree.remove(10, 2));
+        assertFalse(tree.remove(11, 1));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void rejectsEndBeforeStart() {
+        IntervalTree tree = new IntervalTree();
+
+        assertThrows(IllegalArgumentException.class, () -> tree.insert(10, 9, 1));
+    }
+
+    private static List<Long> scan(List<Interval> intervals, long from, long to) {
+        return intervals.stream()
+                .filter(i -> i.start() <= to && i.end() >= from)
+                .sorted(Comparator.comparingLong(Interval::start).thenComparingLong(Interval::id))
+                .map(Interval::id)
+                .toList();
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+        "utility-manager.reading-store.type=jpa" })
+class JpaReadingStoreTest {
+
+    private static final String METER = "meter-1";
+    private static final LocalDate ORIGIN = LocalDate.of(2000, 1, 1);
+    private static final LocalDate START = LocalDate.of(2010, 3, 1);
+    private static final LocalDate END = LocalDate.of(2010, 4, 30);
+
+    @Autowired
+    private MeterConsumptionService consumptionService;
+
+    @Autowired
+    private BulkPersistenceService persistenceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @AfterEach
+    void cleanUp() {
+        readingRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void onDemandLoadStaysFlatAsTableGrows() {
+        seed(METER, 0, 2_000);
+        Statistics statistics = statistics();
+        BigDecimal fromSmallTable = consumptionService.calculateConsumptionOnDemand(METER, START, END);
+        long rowsFromSmallTable = statistics.getEntityLoadCount();
+        long statementsFromSmallTable = statistics.getPrepareStatementCount();
+
+        // Ten times the history of the meter, and as many readings of other meters
+        seed(METER, 2_000, 20_000);
+        seed("meter-2", 0, 20_000);
+        statistics = statistics();
+        BigDecimal fromLargeTable = consumptionService.calculateConsumptionOnDemand(METER, START, END);
+
+        assertEquals(fromSmallTable, fromLargeTable);
+        assertEquals(rowsFromSmallTable, statistics.getEntityLoadCount());
+        assertEquals(statementsFromSmallTable, statistics.getPrepareStatementCount());
+        // The readings inside the period plus the floor and ceiling readings
+        assertTrue(rowsFromSmallTable <= 23, "Rows fetched: " + rowsFromSmallTable);
+        assertEquals(3, statementsFromSmallTable);
+    }
+
+    @Test
+    void onDemandMatchesFullHistoryInterpolation() {
+        seed(METER, 0, 3_000);
+        ConsumptionInterpolationService interpolationService = new ConsumptionInterpolationService();
+        List<ReadingEntity> history = readingRepository.findByMeterIdOrderByReadingDateAsc(METER);
+
+        for (int offset = 0; offset < 8_900; offset += 397) {
+            LocalDate start = ORIGIN.plusDays(offset);
+            LocalDate end = start.plusDays(59);
+            BigDecimal expected = interpolationService.calculateConsumption(start, end,
+                    ReadingEntityMapper.toSeries(history));
+
+            assertEquals(expected, consumptionService.calculateConsumptionOnDemand(METER, start, end));
+        }
+    }
+
+    /**
+     * Stores readings {@code from} (inclusive) to {@code to} (exclusive) of a
+     * meter, one every third day, so that bill boundaries usually fall between
+     * two readings.
+     */
+    private void seed(String meterId, int from, int to) {
+        List<ReadingEntity> readings = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ReadingEntity entity = new ReadingEntity();
+            entity.setBuildingId("building-1");
+            entity.setMeterId(meterId);
+            entity.setReadingDate(ORIGIN.plusDays(3L * i));
+            entity.setKwhValue(BigDecimal.valueOf(1000 + 17L * i + (i % 7), 1));
+            readings.add(entity);
+        }
+        persistenceService.saveReadings(readings);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", k -> k + loads.incrementAndGet());
+        cache.get("b", k -> k + loads.incrementAndGet());
+        cache.get("a", k -> k + loads.incrementAndGet());
+        cache.get("c", k -> k + loads.incrementAndGet());
+
+        // "b" was the least recently used entry
+        assertEquals("a1", cache.get("a", k -> k + loads.incrementAndGet()));
+        assertEquals("b4", cache.get("b", k -> k + loads.incrementAndGet()));
+
+        LruCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(4, stats.misses());
+        assertEquals(2, stats.evictions());
+        assertEquals(2, stats.size());
+    }
+
+    @Test
+    void invalidationDuringLoadDiscardsLoadedValue() {
+        LruCache<String, String> cache = new LruCache<>(4);
+
+        String loaded = cache.get("a", k -> {
+            cache.invalidate("a");
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertEquals("fresh", cache.get("a", k -> "fresh"));
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void invalidationWithoutLoadInFlightOnlyRemovesTheEntry() {
+        LruCache<String, String> cache = new LruCache<>(4);
+        cache.get("a", k -> "1");
+        cache.invalidate("a");
+        cache.invalidate("b");
+
+        assertEquals("2", cache.get("a", k -> "2"));
+        assertEquals("2", cache.get("a", k -> "3"));
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void invalidateAllDiscardsEverything() {
+        LruCache<String, String> cache = new LruCache<>(4);
+        cache.get("a", k -> "1");
+
+        String loaded = cache.get("b", k -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertEquals(0, cache.stats().size());
+    }
+}
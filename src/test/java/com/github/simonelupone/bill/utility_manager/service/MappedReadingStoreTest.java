@@ -0,0 +1,245 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent.ChangeType;
+
+class MappedReadingStoreTest {
+
+    private static final String BUILDING = "building-1";
+    private static final String METER = "meter/1";
+    private static final LocalDate ORIGIN = LocalDate.of(2020, 1, 1);
+
+    @TempDir
+    Path directory;
+
+    private final List<Object> events = new ArrayList<>();
+    private final List<MappedReadingStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() {
+        stores.forEach(MappedReadingStore::close);
+    }
+
+    @Test
+    void readsBackAppendedReadingsInDateOrder() {
+        MappedReadingStore store = open();
+
+        assertEquals(3, store.append(BUILDING, METER, List.of(
+                Reading.of(ORIGIN.plusDays(20), 300),
+                Reading.of(ORIGIN, 100),
+                Reading.of(ORIGIN.plusDays(10), 200))));
+
+        ReadingSeries series = store.findAll(METER);
+        assertEquals(3, series.size());
+        assertEquals(ORIGIN, series.dateAt(0));
+        assertEquals(300, series.kWhAt(2));
+        assertEquals(List.of(METER), store.findMeterIds());
+        assertTrue(store.findAll("unknown").isEmpty());
+        assertEquals(3, events.size());
+    }
+
+    @Test
+    void findsStoredReadingDates() {
+        MappedReadingStore store = open();
+        store.append(BUILDING, METER, readings(0, 5));
+
+        assertEquals(5, store.findReadingDates(METER).size());
+        assertEquals(ORIGIN.plusDays(12), store.findReadingDates(METER).get(4));
+        assertEquals(List.of(ORIGIN.plusDays(3)), store.findExistingReadingDates(METER,
+                List.of(ORIGIN.minusDays(3), ORIGIN.plusDays(1), ORIGIN.plusDays(3), ORIGIN.plusDays(15))));
+        assertEquals(List.of(), store.findExistingReadingDates("unknown", List.of(ORIGIN)));
+    }
+
+    @Test
+    void correctionsCompactTheSegmentAndTheLatestValueWins() {
+        MappedReadingStore store = open();
+        store.append(BUILDING, METER, readings(0, 30));
+        events.clear();
+
+        assertEquals(1, store.append(BUILDING, METER, List.of(
+                Reading.of(ORIGIN.plusDays(45), 9999),
+                Reading.of(ORIGIN.plusDays(48), 1000 + 16 * 37.5))));
+
+        ReadingSeries series = store.findAll(METER);
+        assertEquals(30, series.size());
+        assertEquals(9999, series.kWhAt(15));
+        assertEquals(List.of(new ReadingChangedEvent(METER, ORIGIN.plusDays(45), null, ChangeType.UPDATED, 9999.0)),
+                events);
+        assertEquals(0, store.append(BUILDING, METER, List.of(Reading.of(ORIGIN.plusDays(45), 9999))));
+        store.close();
+        assertEquals(segmentSize(30), fileSize());
+        assertEquals(9999, open().findAll(METER).kWhAt(15));
+    }
+
+    @Test
+    void lateReadingsKeepBracketingReadsNarrow() {
+        MappedReadingStore store = open();
+        store.append(BUILDING, METER, readings(0, 1_000));
+        // Between two stored readings, and before the first one
+        store.append(BUILDING, METER, List.of(Reading.of(ORIGIN.plusDays(1_501), 1000 + 500 * 37.5 + 10)));
+        store.append(BUILDING, METER, List.of(Reading.of(ORIGIN.minusDays(3), 990)));
+
+        ReadingSeries bracketing = store.findBracketing(METER, ORIGIN.plusDays(1_490), ORIGIN.plusDays(1_510));
+        assertEquals(10, bracketing.size());
+        assertEquals(ORIGIN.plusDays(1_501), bracketing.dateAt(5));
+        assertEquals(1_002, store.findAll(METER).size());
+        store.close();
+        assertEquals(segmentSize(1_002), fileSize());
+    }
+
+    @Test
+    void compactsASegmentLeftOutOfOrderWhenReopened() throws IOException {
+        MappedReadingStore store = open();
+        store.append(BUILDING, METER, readings(0, 10));
+        store.close();
+
+        // Records appended out of order by an interrupted compaction or an older version
+        ByteBuffer records = ByteBuffer.allocate(2 * MappedReadingStore.RECORD_SIZE);
+        putRecord(records, (int) ORIGIN.plusDays(4).toEpochDay(), 1100);
+        putRecord(records, (int) ORIGIN.plusDays(3).toEpochDay(), 1040);
+        Files.write(segmentFile(), records.array(), StandardOpenOption.APPEND);
+
+        MappedReadingStore reopened = open();
+        ReadingSeries series = reopened.findAll(METER);
+        assertEquals(11, series.size());
+        assertEquals(1040, series.kWhAt(1));
+        assertEquals(ORIGIN.plusDays(4), series.dateAt(2));
+        assertEquals(4, reopened.findBracketing(METER, ORIGIN.plusDays(2), ORIGIN.plusDays(5)).size());
+        assertEquals(segmentSize(11), fileSize());
+    }
+
+    @Test
+    void growsTheMappedRegionAcrossManyAppends() {
+        MappedReadingStore store = open();
+        for (int i = 0; i < 10_000; i++) {
+            store.append(BUILDING, METER, readings(i, i + 1));
+        }
+
+        ReadingSeries series = store.findAll(METER);
+        assertEquals(10_000, series.size());
+        assertEquals(1000 + 9_999 * 37.5, series.kWhAt(9_999));
+        assertTrue(fileSize() >= segmentSize(10_000));
+        store.close();
+        assertEquals(segmentSize(10_000), fileSize());
+        assertEquals(10_000, open().findAll(METER).size());
+    }
+
+    @Test
+    void bracketingSeriesInterpolatesLikeTheFullHistory() {
+        MappedReadingStore store = open();
+        // One reading every third day, appended in several batches
+        for (int batch = 0; batch < 10; batch++) {
+            store.append(BUILDING, METER, readings(batch * 100, (batch + 1) * 100));
+        }
+        ConsumptionInterpolationService interpolation = new ConsumptionInterpolationService();
+        ReadingSeries history = store.findAll(METER);
+
+        for (int offset = 0; offset < 2_900; offset += 31) {
+            LocalDate start = ORIGIN.plusDays(offset);
+            LocalDate end = start.plusDays(59);
+            ReadingSeries bracketing = store.findBracketing(METER, start, end);
+
+            assertTrue(bracketing.size() <= 22, "Loaded " + bracketing.size() + " readings");
+            assertEquals(interpolation.calculateConsumption(start, end, history),
+                    interpolation.calculateConsumption(start, end, bracketing));
+        }
+        // Periods past either end only load the nearest reading
+        assertEquals(1, store.findBracketing(METER, ORIGIN.minusDays(20), ORIGIN.minusDays(10)).size());
+        assertEquals(1, store.findBracketing(METER, ORIGIN.plusDays(5000), ORIGIN.plusDays(5010)).size());
+    }
+
+    @Test
+    void truncatesATornAppendWhenReopened() throws IOException {
+        MappedReadingStore store = open();
+        store.append(BUILDING, METER, readings(0, 50));
+        store.close();
+
+        // A crash in the middle of the next record
+        Path segment = segmentFile();
+        Files.write(segment, new byte[] { 1, 2, 3, 4, 5, 6, 7 }, StandardOpenOption.APPEND);
+
+        MappedReadingStore reopened = open();
+        assertEquals(50, reopened.findAll(METER).size());
+        assertEquals(segmentSize(50), fileSize());
+
+        reopened.append(BUILDING, METER, readings(50, 51));
+        ReadingSeries series = reopened.findAll(METER);
+        assertEquals(51, series.size());
+        assertEquals(ORIGIN.plusDays(150), series.dateAt(50));
+    }
+
+    @Test
+    void dropsRecordsFromACorruptedOneOnward() throws IOException {
+        MappedReadingStore store = open();
+        store.append(BUILDING, METER, readings(0, 10));
+        store.close();
+
+        // Flip a byte of the value of the eighth record
+        Path segment = segmentFile();
+        byte[] content = Files.readAllBytes(segment);
+        content[MappedReadingStore.HEADER_SIZE + 7 * MappedReadingStore.RECORD_SIZE + 6] ^= 0x10;
+        Files.write(segment, content);
+
+        assertEquals(7, open().findAll(METER).size());
+        assertEquals(segmentSize(7), fileSize());
+    }
+
+    private MappedReadingStore open() {
+        MappedReadingStore store = new MappedReadingStore(directory, false, events::add);
+        stores.add(store);
+        return store;
+    }
+
+    private Path segmentFile() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private long fileSize() {
+        try {
+            return Files.size(segmentFile());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static long segmentSize(int records) {
+        return MappedReadingStore.HEADER_SIZE + (long) records * MappedReadingStore.RECORD_SIZE;
+    }
+
+    private static void putRecord(ByteBuffer records, int epochDay, double kWh) {
+        int start = records.position();
+        records.putInt(epochDay).putLong(Double.doubleToRawLongBits(kWh));
+        CRC32 crc = new CRC32();
+        crc.update(records.array(), start, MappedReadingStore.RECORD_SIZE - Integer.BYTES);
+        records.putInt((int) crc.getValue());
+    }
+
+    private static List<Reading> readings(int from, int to) {
+        List<Reading> readings = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            readings.add(Reading.of(ORIGIN.plusDays(3L * i), 1000 + i * 37.5));
+        }
+        return readings;
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class MetricsRecorderTest {
+
+    private static final String BUILDING = "building-1";
+    private static final String METER = "meter-1";
+
+    @TempDir
+    Path directory;
+
+    private MappedReadingStore store;
+    private BatchSplitService service;
+
+    @AfterEach
+    void close() {
+        service.destroy();
+        store.close();
+    }
+
+    @Test
+    void recordsEveryPhaseOfASplit() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        service = service(new MetricsRecorder(registry, true));
+
+        service.split(job("INV-1", 1));
+        service.split(job("INV-2", 2));
+
+        assertEquals(2, registry.get("utility.bill.computation").timer().count());
+        assertEquals(2, registry.get("utility.consumption").timer().count());
+        assertEquals(2, registry.get("utility.split").timer().count());
+        assertEquals(4, registry.get("utility.consumption.readings").summary().totalAmount());
+        // The series is loaded once, then served by the cache
+        assertEquals(1, registry.get("utility.persistence").tag("operation", "load").tag("entity", "reading")
+                .timer().count());
+        assertEquals(2, registry.get("utility.persistence.rows").tag("operation", "load").tag("entity", "reading")
+                .counter().count());
+    }
+
+    @Test
+    void recordingShowsEachBillBrokenDownByPhase() throws IOException {
+        service = service(new MetricsRecorder(new SimpleMeterRegistry(), true));
+        Path file = directory.resolve("split.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("utility_manager.BillComputation");
+            recording.enable("utility_manager.Consumption");
+            recording.enable("utility_manager.Split");
+            recording.start();
+            for (int bimester = 1; bimester <= 3; bimester++) {
+                service.split(job("INV-" + bimester, bimester));
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> bills = named(events, "utility_manager.BillComputation");
+        assertEquals(3, bills.size());
+        for (RecordedEvent bill : bills) {
+            String invoice = bill.getString("invoiceNumber");
+            RecordedEvent split = named(events, "utility_manager.Split").stream()
+                    .filter(e -> invoice.equals(e.getString("invoiceNumber")))
+                    .findFirst().orElseThrow();
+            RecordedEvent consumption = named(events, "utility_manager.Consumption").stream()
+                    .filter(e -> within(e, bill))
+                    .findFirst().orElseThrow();
+
+            assertTrue(within(split, bill), invoice);
+            assertEquals(METER, consumption.getString("meterId"));
+            assertEquals(2, consumption.getInt("readings"));
+        }
+    }
+
+    @Test
+    void disabledRecorderSharesOneNoOpSample() {
+        MetricsRecorder metrics = MetricsRecorder.disabled();
+        service = service(metrics);
+
+        assertSame(metrics.startComputation(), metrics.startSplit());
+        assertSame(metrics.startConsumption(), metrics.startLoad());
+        service.split(job("INV-1", 1));
+    }
+
+    private BatchSplitService service(MetricsRecorder metrics) {
+        store = new MappedReadingStore(directory, false, event -> {
+        });
+        store.append(BUILDING, METER, List.of(
+                Reading.of(LocalDate.of(2023, 12, 1), 1000),
+                Reading.of(LocalDate.of(2025, 1, 1), 4000)));
+        MeterConsumptionService consumption = new MeterConsumptionService(
+                new ReadingSeriesCache(store, metrics, 4), new ConsumptionInterpolationService(), store, metrics);
+        return new BatchSplitService(consumption, new BillSplitterService(), new SplitResultCache(0), metrics, 1);
+    }
+
+    private static SplitJob job(String invoice, int bimester) {
+        return new SplitJob(BUILDING, bill(invoice, BillPeriod.ofBimester(bimester, 2024)), METER);
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+
+    private static boolean within(RecordedEvent inner, RecordedEvent outer) {
+        return inner.getThread().getJavaThreadId() == outer.getThread().getJavaThreadId()
+                && !inner.getStartTime().isBefore(outer.getStartTime())
+                && !inner.getEndTime().isAfter(outer.getEndTime());
+    }
+}
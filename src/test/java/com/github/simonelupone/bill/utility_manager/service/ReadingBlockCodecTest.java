@@ -0,0 +1,78 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.InstantReadingSeries;
+
+class ReadingBlockCodecTest {
+
+    private static final long YEAR_START = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+
+    @Test
+    void roundTripsIrregularReadings() {
+        Random random = new Random(17);
+        for (int run = 0; run < 200; run++) {
+            int size = random.nextInt(500);
+            long[] seconds = new long[size];
+            long[] wattHours = new long[size];
+            long second = YEAR_START + random.nextInt(1_000_000);
+            long counter = random.nextInt(10_000_000);
+            for (int i = 0; i < size; i++) {
+                second += 1 + random.nextInt(random.nextBoolean() ? 900 : 86_400);
+                counter += random.nextInt(random.nextBoolean() ? 200 : 1_000_000);
+                seconds[i] = second;
+                wattHours[i] = counter;
+            }
+            InstantReadingSeries series = InstantReadingSeries.ofSorted(seconds, wattHours);
+
+            InstantReadingSeries decoded = ReadingBlockCodec.decode(ReadingBlockCodec.encode(series, 0, size));
+
+            assertEquals(size, decoded.size());
+            for (int i = 0; i < size; i++) {
+                assertEquals(seconds[i], decoded.epochSecondAt(i));
+                assertEquals(wattHours[i], decoded.wattHoursAt(i));
+            }
+        }
+    }
+
+    @Test
+    void aYearOfQuarterHourReadingsStaysCompact() {
+        Random random = new Random(35);
+        int size = 365 * 96;
+        long[] seconds = new long[size];
+        long[] wattHours = new long[size];
+        long counter = 12_500_000;
+        for (int i = 0; i < size; i++) {
+            seconds[i] = YEAR_START + i * 900L;
+            counter += random.nextInt(400);
+            wattHours[i] = counter;
+        }
+        InstantReadingSeries series = InstantReadingSeries.ofSorted(seconds, wattHours);
+
+        int bytes = 0;
+        for (int day = 0; day < 365; day++) {
+            bytes += ReadingBlockCodec.encode(series, day * 96, (day + 1) * 96).length;
+        }
+
+        // 16 bytes per reading as raw primitives
+        assertTrue(bytes < size * 3, "Encoded bytes: " + bytes);
+    }
+
+    @Test
+    void rejectsTruncatedBlocks() {
+        InstantReadingSeries series = InstantReadingSeries.ofSorted(
+                new long[] { YEAR_START, YEAR_START + 900 }, new long[] { 1_000, 1_250 });
+        byte[] block = ReadingBlockCodec.encode(series, 0, 2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadingBlockCodec.decode(Arrays.copyOf(block, block.length - 1)));
+    }
+}
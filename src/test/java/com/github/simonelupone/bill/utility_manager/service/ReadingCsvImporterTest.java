@@ -0,0 +1,183 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.service.ReadingCsvImporter.ImportReport;
+
+class ReadingCsvImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ReadingStore readingStore = mock(ReadingStore.class);
+    private final List<List<Reading>> batches = new ArrayList<>();
+
+    @Test
+    void importsValidRowsAndReportsMalformedOnes() throws IOException {
+        Path file = write(
+                "2023-10-01, 12500",
+                "2023-10-15,12600.5\r",
+                "",
+                "not a reading",
+                "2023-10-20,abc",
+                "2023-02-30,1",
+                "2023-10-10,12700",
+                "2023-11-01 , -3",
+                "  2023-11-15 ,  12800.456  ");
+
+        ImportReport report = importer(2).importFile(file, "building-1", "meter-1");
+
+        assertEquals(9, report.linesRead());
+        assertEquals(3, report.imported());
+        assertEquals(5, report.errorCount());
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L),
+                report.errors().stream().map(ReadingCsvImporter.ImportError::lineNumber).toList());
+        assertEquals("not a reading", report.errors().get(0).line());
+
+        assertEquals(2, batches.size());
+        List<Reading> saved = batches.stream().flatMap(List::stream).toList();
+        assertEquals(LocalDate.of(2023, 10, 1), saved.get(0).date());
+        assertEquals(12500.0, saved.get(0).kWh());
+        assertEquals(12600.5, saved.get(1).kWh());
+        assertEquals(12800.46, saved.get(2).kWh());
+        verify(readingStore, never()).findExistingReadingDates(any(), anyCollection());
+    }
+
+    @Test
+    void handlesLinesSpanningReadBuffers() throws IOException {
+        StringBuilder content = new StringBuilder();
+        LocalDate date = LocalDate.of(2000, 1, 1);
+        int rows = 20_000;
+        for (int i = 0; i < rows; i++) {
+            content.append(date.plusDays(i)).append(",").append(1000 + i).append(".25\n");
+        }
+        Path file = tempDir.resolve("large.csv");
+        Files.writeString(file, content, StandardCharsets.US_ASCII);
+
+        ImportReport report = importer(1000).importFile(file, "building-1", "meter-1");
+
+        assertEquals(rows, report.imported());
+        assertEquals(0, report.errorCount());
+        List<Reading> saved = batches.stream().flatMap(List::stream).toList();
+        assertEquals(date.plusDays(rows - 1), saved.get(rows - 1).date());
+        assertEquals(1000 + rows - 1 + 0.25, saved.get(rows - 1).kWh());
+    }
+
+    @Test
+    void rejectsValuesTooLargeForTheColumnAndOverlongLines() throws IOException {
+        Path file = write(
+                "2023-10-01,99999999.99",
+                "2023-10-02,100000000",
+                "2023-10-03,99999999.999",
+                "2023-10-04," + "1".repeat(10_000),
+                "2023-10-05,12.5");
+
+        ImportReport report = importer(10).importFile(file, "building-1", "meter-1");
+
+        assertEquals(5, report.linesRead());
+        assertEquals(2, report.imported());
+        assertEquals(List.of(2L, 3L, 4L),
+                report.errors().stream().map(ReadingCsvImporter.ImportError::lineNumber).toList());
+        assertEquals("Consumption value exceeds 8 integer digits", report.errors().get(0).message());
+        // Rounded to two decimals, the value needs a ninth integer digit
+        assertEquals("Consumption value exceeds 8 integer digits", report.errors().get(1).message());
+        assertEquals("Line longer than 4096 bytes", report.errors().get(2).message());
+        List<Reading> saved = batches.stream().flatMap(List::stream).toList();
+        assertEquals(99999999.99, saved.get(0).kWh());
+        assertEquals(LocalDate.of(2023, 10, 5), saved.get(1).date());
+    }
+
+    @Test
+    void rejectsDatesAlreadyStoredForTheMeter() throws IOException {
+        List<LocalDate> stored = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            stored.add(LocalDate.of(2020, 1, 1).plusDays(2 * i));
+        }
+        when(readingStore.findReadingDates("meter-1")).thenReturn(stored);
+        when(readingStore.findExistingReadingDates(eq("meter-1"), anyCollection())).thenAnswer(inv -> {
+            List<LocalDate> dates = new ArrayList<>(inv.<Collection<LocalDate>>getArgument(1));
+            dates.retainAll(stored);
+            return dates;
+        });
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(LocalDate.of(2020, 1, 1).plusDays(i)).append(",").append(i).append('\n');
+        }
+        Path file = tempDir.resolve("overlapping.csv");
+        Files.writeString(file, content, StandardCharsets.US_ASCII);
+
+        ImportReport report = importer(64).importFile(file, "building-1", "meter-1");
+
+        assertEquals(500, report.imported());
+        assertEquals(500, report.errorCount());
+        assertEquals("2020-01-03,2", report.errors().get(1).line());
+        assertEquals("Reading date 2020-01-03 already stored", report.errors().get(1).message());
+        List<Reading> saved = batches.stream().flatMap(List::stream).toList();
+        assertTrue(saved.stream().noneMatch(reading -> stored.contains(reading.date())));
+
+        DuplicateFilter.Report check = report.duplicateCheck();
+        assertEquals(500, check.storedKeys());
+        assertEquals(1000, check.checked());
+        assertEquals(500, check.confirmedDuplicates());
+        assertEquals(check.maybeDuplicates() - 500, check.falsePositives());
+        // Only the false positives cost a query without finding a duplicate
+        assertTrue(check.falsePositives() < 50, () -> "False positives: " + check.falsePositives());
+    }
+
+    @Test
+    void importsIntoTheMappedStore() throws IOException {
+        try (MappedReadingStore store = new MappedReadingStore(tempDir.resolve("segments"), false, event -> {
+        })) {
+            ReadingCsvImporter importer = new ReadingCsvImporter(store, MetricsRecorder.disabled(), 2, 100, 0.01,
+                    1 << 20);
+            importer.importFile(write("2023-10-01,100", "2023-10-15,150.25"), "building-1", "meter-1");
+
+            ImportReport report = importer.importFile(write("2023-10-15,999", "2023-11-01,210.5"), "building-1",
+                    "meter-1");
+
+            assertEquals(1, report.imported());
+            assertEquals("Reading date 2023-10-15 already stored", report.errors().get(0).message());
+            ReadingSeries series = store.findAll("meter-1");
+            assertEquals(3, series.size());
+            assertEquals(150.25, series.kWhAt(1));
+            assertEquals(LocalDate.of(2023, 11, 1), series.dateAt(2));
+        }
+    }
+
+    private ReadingCsvImporter importer(int batchSize) {
+        when(readingStore.append(eq("building-1"), eq("meter-1"), anyCollection())).thenAnswer(inv -> {
+            List<Reading> batch = new ArrayList<>(inv.<Collection<Reading>>getArgument(2));
+            batches.add(batch);
+            return batch.size();
+        });
+        return new ReadingCsvImporter(readingStore, MetricsRecorder.disabled(), batchSize, 100, 0.01, 1 << 20);
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path file = tempDir.resolve("readings.csv");
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+}
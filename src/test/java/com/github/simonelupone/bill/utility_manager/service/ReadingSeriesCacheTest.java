@@ -0,0 +1,208 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent.ChangeType;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+import com.github.simonelupone.bill.utility_manager.service.ReadingSeriesCache.Snapshot;
+
+class ReadingSeriesCacheTest {
+
+    private static final String BUILDING = "building-1";
+    private static final String METER = "meter-1";
+
+    private final ReadingRepository repository = mock(ReadingRepository.class);
+    private final ReadingSeriesCache cache = new ReadingSeriesCache(new JpaReadingStore(repository, null),
+            MetricsRecorder.disabled(), 8);
+
+    @Test
+    void repeatedLookupsHitTheCache() {
+        when(repository.findByMeterIdOrderByReadingDateAsc(METER)).thenReturn(List.of(
+                reading(BUILDING, METER, LocalDate.of(2023, 1, 1), 100),
+                reading(BUILDING, METER, LocalDate.of(2023, 2, 1), 200)));
+
+        ReadingSeries first = cache.get(METER);
+        ReadingSeries second = cache.get(METER);
+
+        assertSame(first, second);
+        assertEquals(2, first.size());
+        verify(repository, times(1)).findByMeterIdOrderByReadingDateAsc(METER);
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void readingWriteEvictsTheMeter() {
+        when(repository.findByMeterIdOrderByReadingDateAsc(METER)).thenReturn(List.of(
+                reading(BUILDING, METER, LocalDate.of(2023, 1, 1), 100)));
+
+        cache.get(METER);
+        cache.onReadingChanged(new ReadingChangedEvent(METER, LocalDate.of(2023, 3, 1), ChangeType.INSERTED));
+        cache.get(METER);
+
+        verify(repository, times(2)).findByMeterIdOrderByReadingDateAsc(METER);
+    }
+
+    @Test
+    void insertedReadingsAreMergedIntoANewSnapshotWithoutReloading() {
+        when(repository.findByMeterIdOrderByReadingDateAsc(METER)).thenReturn(List.of(
+                reading(BUILDING, METER, LocalDate.of(2023, 1, 1), 100)));
+        Snapshot before = cache.snapshot(METER);
+
+        cache.onReadingChanged(new ReadingChangedEvent(METER, LocalDate.of(2023, 2, 1), null, ChangeType.INSERTED,
+                200.0));
+        Snapshot after = cache.snapshot(METER);
+
+        assertEquals(1, before.series().size());
+        assertEquals(2, after.series().size());
+        assertEquals(200, after.series().kWhAt(1), 0);
+        assertTrue(after.version() > before.version());
+        verify(repository, times(1)).findByMeterIdOrderByReadingDateAsc(METER);
+    }
+
+    @Test
+    void loadRacingAChangeIsReturnedButNotPublished() {
+        when(repository.findByMeterIdOrderByReadingDateAsc(METER)).thenAnswer(invocation -> {
+            cache.onReadingChanged(new ReadingChangedEvent(METER, LocalDate.of(2023, 3, 1), ChangeType.UPDATED));
+            return List.of(reading(BUILDING, METER, LocalDate.of(2023, 1, 1), 100));
+        });
+
+        assertEquals(1, cache.get(METER).size());
+        cache.get(METER);
+
+        verify(repository, times(2)).findByMeterIdOrderByReadingDateAsc(METER);
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedMeter() {
+        // Accesses are recorded once per millisecond per meter
+        AtomicLong nanoTime = new AtomicLong();
+        long twoMillis = TimeUnit.MILLISECONDS.toNanos(2);
+        ReadingSeriesCache small = new ReadingSeriesCache(new JpaReadingStore(repository, null),
+                MetricsRecorder.disabled(), 2, nanoTime::get);
+        when(repository.findByMeterIdOrderByReadingDateAsc(anyString()))
+                .thenReturn(List.of());
+
+        small.get("meter-1");
+        nanoTime.addAndGet(twoMillis);
+        small.get("meter-2");
+        nanoTime.addAndGet(twoMillis);
+        small.get("meter-1");
+        small.get("meter-3");
+        small.get("meter-1");
+
+        assertEquals(1, small.stats().evictions());
+        assertEquals(2, small.stats().size());
+        assertEquals(2, small.stats().hits());
+        verify(repository, times(1)).findByMeterIdOrderByReadingDateAsc("meter-1");
+    }
+
+    /**
+     * Writers append readings while readers take snapshots. Every snapshot a
+     * reader sees must hold, for each writer, exactly the first readings it
+     * appended (no lost or reordered append), every value must belong to its
+     * date (no torn series) and versions must never go back.
+     */
+    @Test
+    void concurrentAppendsNeverExposeTornOrLostReadings() throws Exception {
+        int writers = 4;
+        int appends = 2000;
+        int readers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        LocalDate origin = LocalDate.of(2020, 1, 1);
+        when(repository.findByMeterIdOrderByReadingDateAsc(METER)).thenReturn(List.of(
+                reading(BUILDING, METER, origin, 0)));
+        cache.get(METER);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < appends; i++) {
+                        int day = 1 + i * writers + writer;
+                        cache.onReadingChanged(new ReadingChangedEvent(METER, origin.plusDays(day), null,
+                                ChangeType.INSERTED, (double) day));
+                    }
+                    return null;
+                }));
+            }
+            List<Future<Long>> reads = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                reads.add(executor.submit(() -> {
+                    start.await();
+                    long lookups = 0;
+                    long lastVersion = Long.MIN_VALUE;
+                    boolean last = false;
+                    while (!last) {
+                        last = !writing.get();
+                        Snapshot snapshot = cache.snapshot(METER);
+                        assertTrue(snapshot.version() >= lastVersion, "Version went back");
+                        lastVersion = snapshot.version();
+                        assertConsistent(snapshot.series(), origin, writers);
+                        lookups++;
+                    }
+                    return lookups;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get(1, TimeUnit.MINUTES);
+            }
+            writing.set(false);
+            for (Future<Long> read : reads) {
+                assertTrue(read.get(1, TimeUnit.MINUTES) > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ReadingSeries series = cache.get(METER);
+        assertEquals(1 + writers * appends, series.size());
+        assertConsistent(series, origin, writers);
+        verify(repository, times(1)).findByMeterIdOrderByReadingDateAsc(METER);
+    }
+
+    private static void assertConsistent(ReadingSeries series, LocalDate origin, int writers) {
+        long originDay = origin.toEpochDay();
+        int[] next = new int[writers];
+        for (int i = 0; i < series.size(); i++) {
+            int day = (int) (series.epochDayAt(i) - originDay);
+            assertEquals(day, series.kWhAt(i), 0, "Torn reading");
+            if (day == 0) {
+                continue;
+            }
+            int writer = (day - 1) % writers;
+            assertEquals(next[writer], (day - 1) / writers, "Lost append");
+            next[writer]++;
+        }
+    }
+}
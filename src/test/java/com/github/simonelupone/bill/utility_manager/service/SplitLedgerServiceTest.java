@@ -0,0 +1,117 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.Bill;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity.EntryType;
+import com.github.simonelupone.bill.utility_manager.persistence.LedgerEntryEntity.Party;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerBalanceRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerEntryRepository;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+import com.github.simonelupone.bill.utility_manager.service.SplitLedgerService.Balance;
+
+@SpringBootTest
+class SplitLedgerServiceTest {
+
+    private static final String BUILDING = "building-1";
+
+    private final BillSplitterService splitter = new BillSplitterService();
+
+    @Autowired
+    private SplitLedgerService ledger;
+
+    @Autowired
+    private LedgerEntryRepository entryRepository;
+
+    @Autowired
+    private LedgerBalanceRepository balanceRepository;
+
+    @AfterEach
+    void cleanUp() {
+        entryRepository.deleteAllInBatch();
+        balanceRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void keepsARunningBalancePerParty() {
+        Bill first = bill("2024-1", BillPeriod.ofBimester(1, 2024));
+        Bill second = bill("2024-2", BillPeriod.ofBimester(2, 2024));
+        SplitResult firstSplit = splitter.splitBill(first, new BigDecimal("300.00"));
+        SplitResult secondSplit = splitter.splitBill(second, new BigDecimal("350.00"));
+
+        assertEquals(2, ledger.append(BUILDING, first, firstSplit));
+        assertEquals(2, ledger.append(BUILDING, second, secondSplit));
+
+        Balance balance = ledger.currentBalance(BUILDING);
+        assertAmount(firstSplit.tenantTotal().add(secondSplit.tenantTotal()), balance.tenantAmount());
+        assertAmount(firstSplit.ownerTotal().add(secondSplit.ownerTotal()), balance.ownerAmount());
+        assertAmount(new BigDecimal("650.00"), balance.tenantKwh());
+        assertAmount(first.totalKwh().add(second.totalKwh()).subtract(new BigDecimal("650.00")), balance.ownerKwh());
+        // Zero-sum: nothing is lost or charged twice
+        assertAmount(first.getTotalAmount().add(second.getTotalAmount()), balance.totalAmount());
+    }
+
+    @Test
+    void answersBalanceAsOfADate() {
+        Bill first = bill("2024-1", BillPeriod.ofBimester(1, 2024));
+        Bill second = bill("2024-2", BillPeriod.ofBimester(2, 2024));
+        SplitResult firstSplit = splitter.splitBill(first, new BigDecimal("300.00"));
+        ledger.append(BUILDING, first, firstSplit);
+        ledger.append(BUILDING, second, splitter.splitBill(second, new BigDecimal("350.00")));
+
+        assertEquals(Balance.ZERO, ledger.balanceAsOf(BUILDING, LocalDate.of(2024, 2, 28)));
+        Balance afterFirst = ledger.balanceAsOf(BUILDING, LocalDate.of(2024, 3, 15));
+        assertAmount(firstSplit.tenantTotal(), afterFirst.tenantAmount());
+        assertAmount(firstSplit.ownerTotal(), afterFirst.ownerAmount());
+        assertEquals(ledger.currentBalance(BUILDING), ledger.balanceAsOf(BUILDING, LocalDate.of(2024, 12, 31)));
+    }
+
+    @Test
+    void carriesOverACorrectedSplitAsAnAdjustment() {
+        Bill first = bill("2024-1", BillPeriod.ofBimester(1, 2024));
+        Bill second = bill("2024-2", BillPeriod.ofBimester(2, 2024));
+        SplitResult estimated = splitter.splitBill(first, new BigDecimal("300.00"));
+        SplitResult corrected = splitter.splitBill(first, new BigDecimal("320.00"));
+        ledger.append(BUILDING, first, estimated);
+        ledger.append(BUILDING, second, splitter.splitBill(second, new BigDecimal("350.00")));
+        Balance beforeCorrection = ledger.currentBalance(BUILDING);
+
+        assertEquals(2, ledger.append(BUILDING, first, corrected));
+        assertEquals(0, ledger.append(BUILDING, first, corrected));
+
+        List<LedgerEntryEntity> entries = entryRepository.findByBuildingIdOrderBySequenceAsc(BUILDING);
+        assertEquals(6, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i + 1, entries.get(i).getSequence());
+        }
+        LedgerEntryEntity adjustment = entries.get(4);
+        assertEquals(EntryType.ADJUSTMENT, adjustment.getEntryType());
+        assertEquals(Party.TENANT, adjustment.getParty());
+        assertAmount(corrected.tenantTotal().subtract(estimated.tenantTotal()), adjustment.getAmount());
+        assertAmount(new BigDecimal("20.00"), adjustment.getKwh());
+        // Posted after the latest entry: past balances do not change
+        assertEquals(LocalDate.of(2024, 4, 30), adjustment.getPostingDate());
+        assertAmount(estimated.tenantTotal(),
+                ledger.balanceAsOf(BUILDING, LocalDate.of(2024, 2, 29)).tenantAmount());
+
+        Balance balance = ledger.currentBalance(BUILDING);
+        assertAmount(beforeCorrection.tenantAmount().add(adjustment.getAmount()), balance.tenantAmount());
+        assertAmount(beforeCorrection.totalAmount(), balance.totalAmount());
+    }
+
+    private static void assertAmount(BigDecimal expected, BigDecimal actual) {
+        assertEquals(0, expected.compareTo(actual), () -> "Expected " + expected + " but was " + actual);
+    }
+}
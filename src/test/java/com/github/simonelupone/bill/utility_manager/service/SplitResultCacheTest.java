@@ -0,0 +1,166 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.domain.model.Reading;
+import com.github.simonelupone.bill.utility_manager.domain.model.ReadingSeries;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingChangedEvent;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+class SplitResultCacheTest {
+
+    private static final String BUILDING = "building-1";
+    private static final String METER = "meter-1";
+    private static final String INVOICE = "INV-2024-1";
+    private static final BillPeriod PERIOD = BillPeriod.ofBimester(1, 2024);
+    private static final Reading FIRST = Reading.of(LocalDate.of(2023, 12, 1), 900);
+    private static final LocalDate LAST_DATE = LocalDate.of(2024, 3, 31);
+
+    @TempDir
+    Path directory;
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private MappedReadingStore store;
+
+    @AfterEach
+    void close() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void repeatedSplitsAreServedFromTheMemo() {
+        SplitResultCache cache = new SplitResultCache(16);
+        BatchSplitService service = service(cache);
+        SplitJob job = new SplitJob(BUILDING, bill(INVOICE, PERIOD), METER);
+
+        SplitResult first = service.split(job);
+        assertEquals(first, service.split(job));
+        assertEquals(first, service.split(job));
+
+        LruCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(2.0 / 3, stats.hitRatio(), 1e-9);
+    }
+
+    @Test
+    void readingOrBillChangesAreSplitAgain() {
+        SplitResultCache cache = new SplitResultCache(16);
+        BatchSplitService service = service(cache);
+        SplitResult before = service.split(new SplitJob(BUILDING, bill(INVOICE, PERIOD), METER));
+
+        store.append(BUILDING, METER, List.of(Reading.of(LAST_DATE, 2600)));
+        SplitResult afterReading = service.split(new SplitJob(BUILDING, bill(INVOICE, PERIOD), METER));
+        SplitResult afterBill = service.split(new SplitJob(BUILDING, bill(INVOICE, PERIOD, true), METER));
+
+        assertNotEquals(before.tenantKwh(), afterReading.tenantKwh());
+        assertNotEquals(afterReading.ownerTotal(), afterBill.ownerTotal());
+        assertEquals(0, cache.stats().hits());
+        assertEquals(3, cache.stats().misses());
+    }
+
+    @Test
+    void disabledMemoSplitsEveryTime() {
+        SplitResultCache cache = new SplitResultCache(0);
+        BatchSplitService service = service(cache);
+        SplitJob job = new SplitJob(BUILDING, bill(INVOICE, PERIOD), METER);
+
+        assertEquals(service.split(job), service.split(job));
+        assertEquals(new LruCache.Stats(0, 0, 0, 0), cache.stats());
+    }
+
+    @Test
+    void neverServesAResultOlderThanACompletedReadingChange() throws Exception {
+        SplitResultCache cache = new SplitResultCache(4);
+        BatchSplitService service = service(cache);
+        SplitJob job = new SplitJob(BUILDING, bill(INVOICE, PERIOD), METER);
+        ConsumptionInterpolationService interpolation = new ConsumptionInterpolationService();
+        int writes = 300;
+        BigDecimal[] expected = new BigDecimal[writes + 1];
+        for (int state = 0; state <= writes; state++) {
+            ReadingSeries series = ReadingSeries.of(List.of(FIRST, Reading.of(LAST_DATE, lastValue(state))));
+            expected[state] = interpolation.calculateConsumption(PERIOD.start(), PERIOD.end(), series);
+        }
+
+        AtomicInteger completed = new AtomicInteger();
+        Queue<String> stale = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 8; r++) {
+                readers.add(executor.submit(() -> {
+                    while (completed.get() < writes) {
+                        int before = completed.get();
+                        BigDecimal tenantKwh = service.split(job).tenantKwh();
+                        // Consumption grows with every write
+                        if (tenantKwh.compareTo(expected[before]) < 0) {
+                            stale.add("Got " + tenantKwh + " after write " + before);
+                        }
+                    }
+                }));
+            }
+            executor.submit(() -> {
+                for (int state = 1; state <= writes; state++) {
+                    store.append(BUILDING, METER, List.of(Reading.of(LAST_DATE, lastValue(state))));
+                    completed.set(state);
+                }
+            }).get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(stale.isEmpty(), () -> stale.size() + " stale results, e.g. " + stale.peek());
+        assertEquals(expected[writes], service.split(job).tenantKwh());
+        assertTrue(cache.stats().hits() > 0);
+    }
+
+    private BatchSplitService service(SplitResultCache cache) {
+        List<Consumer<ReadingChangedEvent>> listeners = new ArrayList<>();
+        store = new MappedReadingStore(directory, false,
+                event -> listeners.forEach(listener -> listener.accept((ReadingChangedEvent) event)));
+        ReadingSeriesCache seriesCache = new ReadingSeriesCache(store, MetricsRecorder.disabled(), 4);
+        // Listener order of the application context
+        listeners.add(seriesCache::onReadingChanged);
+        listeners.add(cache::onReadingChanged);
+        store.append(BUILDING, METER, List.of(FIRST, Reading.of(LAST_DATE, lastValue(0))));
+
+        BatchSplitService service = new BatchSplitService(
+                new MeterConsumptionService(seriesCache, new ConsumptionInterpolationService(), store,
+                        MetricsRecorder.disabled()),
+                new BillSplitterService(), cache, MetricsRecorder.disabled(), 1);
+        resources.add(store);
+        resources.add(service::destroy);
+        return service;
+    }
+
+    private static double lastValue(int state) {
+        return 2000 + state * 10;
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillChargesRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerBalanceRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.LedgerEntryRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillRecomputationService.RecomputationReport;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+@SpringBootTest
+@RecordApplicationEvents
+class SplitResultCacheTransactionTest {
+
+    private static final String BUILDING = "building-0";
+    private static final String METER = "meter-0";
+    private static final String INVOICE = "2024-2";
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private BulkPersistenceService persistenceService;
+
+    @Autowired
+    private BillMapper mapper;
+
+    @Autowired
+    private BillReprocessingService reprocessingService;
+
+    @Autowired
+    private SplitLedgerService ledger;
+
+    @Autowired
+    private BatchSplitService splitService;
+
+    @Autowired
+    private SplitResultCache splitResultCache;
+
+    @Autowired
+    private ReadingSeriesCache readingSeriesCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillChargesRepository billChargesRepository;
+
+    @Autowired
+    private LedgerEntryRepository entryRepository;
+
+    @Autowired
+    private LedgerBalanceRepository balanceRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<ReadingEntity> readings = new ArrayList<>();
+        for (int month = 1; month <= 7; month++) {
+            readings.add(reading(BUILDING, METER, LocalDate.of(2024, month, 1), 1000 + month * 150L));
+        }
+        persistenceService.saveReadings(readings);
+
+        List<BillEntity> bills = new ArrayList<>();
+        for (int bimester = 1; bimester <= 3; bimester++) {
+            bills.add(mapper.toEntity(bill("2024-" + bimester, BillPeriod.ofBimester(bimester, 2024)),
+                    BUILDING, METER));
+        }
+        persistenceService.saveBills(bills);
+        reprocessingService.reprocess("seed", ledger);
+        events.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        entryRepository.deleteAllInBatch();
+        balanceRepository.deleteAllInBatch();
+        billChargesRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+        readingRepository.deleteAllInBatch();
+        readingSeriesCache.evictAll();
+        splitResultCache.invalidateAll();
+    }
+
+    @Test
+    void resultsMemoizedBeforeTheCommitAreNeverServedAfterIt() throws Exception {
+        // The bill as the recomputation rebuilds it from its entity
+        SplitJob job = new SplitJob(BUILDING,
+                mapper.toDomain(billRepository.findWithChargesByInvoiceNumber(INVOICE).orElseThrow()), METER);
+        SplitResult before = splitService.split(job);
+
+        AtomicBoolean committed = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger splitsAfterCommit = new AtomicInteger();
+        CountDownLatch splitBeforeCommit = new CountDownLatch(1);
+        Queue<String> stale = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.executeWithoutResult(status -> {
+                ReadingEntity april = readingRepository.findByMeterIdAndReadingDate(METER, LocalDate.of(2024, 4, 1))
+                        .orElseThrow();
+                april.setKwhValue(april.getKwhValue().add(new BigDecimal("40.00")));
+                readingRepository.saveAndFlush(april);
+
+                // Flushed, not committed: readers still split the previous readings
+                for (int r = 0; r < 4; r++) {
+                    readers.add(executor.submit(() -> {
+                        while (!done.get()) {
+                            boolean afterCommit = committed.get();
+                            BigDecimal tenantKwh = splitService.split(job).tenantKwh();
+                            splitBeforeCommit.countDown();
+                            if (afterCommit) {
+                                if (tenantKwh.compareTo(before.tenantKwh()) == 0) {
+                                    stale.add("Got " + tenantKwh + " after the commit");
+                                }
+                                splitsAfterCommit.incrementAndGet();
+                            }
+                        }
+                    }));
+                }
+                try {
+                    assertTrue(splitBeforeCommit.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            });
+            committed.set(true);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (splitsAfterCommit.get() < 100 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        SplitResult after = splitService.splitUncached(job);
+        assertNotEquals(before.tenantKwh(), after.tenantKwh());
+        assertEquals(after, splitService.split(job));
+        assertTrue(stale.isEmpty(), () -> stale.size() + " stale results, e.g. " + stale.peek());
+
+        // Recomputed in the same commit, from the new readings
+        List<RecomputationReport> reports = events.stream(RecomputationReport.class).toList();
+        assertEquals(1, reports.size());
+        assertEquals(List.of(INVOICE), reports.get(0).resplitInvoices());
+        assertEquals(List.of(INVOICE), reports.get(0).changedInvoices());
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.simonelupone.bill.utility_manager.service;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+
+class SplitResultJsonWriterTest {
+
+    @Test
+    void writesOneElementPerResultWithPlainDecimals() throws IOException {
+        SplitResult result = new SplitResult(new BigDecimal("69.86"), new BigDecimal("221.84"),
+                new BigDecimal("3.0E+2"), new BigDecimal("0.240084"), "details");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SplitResultJsonWriter writer = new SplitResultJsonWriter(out)) {
+            writer.write(new SplitJob("building-1", bill("INV-1", BillPeriod.ofBimester(1, 2024)), "meter-1"), result);
+            writer.write(new SplitJob("building-2", bill("INV-2", BillPeriod.ofBimester(1, 2024)), "meter-2"), result);
+            assertEquals(2, writer.written());
+        }
+
+        String json = out.toString();
+        assertEquals(2, json.split("\"invoiceNumber\"").length - 1);
+        try (JsonParser parser = new JsonFactory().createParser(json)) {
+            assertEquals(JsonToken.START_ARRAY, parser.nextToken());
+            assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+            assertEquals("INV-1", field(parser, "invoiceNumber"));
+            assertEquals("building-1", field(parser, "buildingId"));
+            assertEquals("meter-1", field(parser, "tenantMeterId"));
+            assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+            assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+            parser.skipChildren();
+            assertEquals("300", field(parser, "tenantKwh"));
+            assertEquals("0.240084", field(parser, "tenantRatio"));
+            assertEquals("69.86", field(parser, "tenantTotal"));
+            assertEquals("221.84", field(parser, "ownerTotal"));
+            assertEquals("details", field(parser, "calculationDetails"));
+        }
+    }
+
+    private static String field(JsonParser parser, String name) throws IOException {
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        assertEquals(name, parser.currentName());
+        parser.nextToken();
+        return parser.getText();
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.simonelupone.bill.utility_manager.web;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillChargesRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.BillRepository;
+import com.github.simonelupone.bill.utility_manager.persistence.repository.ReadingRepository;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService;
+import com.github.simonelupone.bill.utility_manager.service.BatchSplitService.SplitJob;
+import com.github.simonelupone.bill.utility_manager.service.BillMapper;
+import com.github.simonelupone.bill.utility_manager.service.BillSplitterService.SplitResult;
+import com.github.simonelupone.bill.utility_manager.service.BulkPersistenceService;
+import com.github.simonelupone.bill.utility_manager.service.MeterConsumptionService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiControllerTest {
+
+    private static final String METER = "meter-0";
+    private static final BillPeriod COVERED = BillPeriod.ofBimester(1, 2024);
+    private static final BillPeriod UNCOVERED = BillPeriod.ofBimester(6, 2024);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper json = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private BulkPersistenceService persistenceService;
+
+    @Autowired
+    private BillMapper mapper;
+
+    @Autowired
+    private MeterConsumptionService consumptionService;
+
+    @Autowired
+    private BatchSplitService splitService;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillChargesRepository billChargesRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<ReadingEntity> readings = new ArrayList<>();
+        for (int month = 1; month <= 7; month++) {
+            readings.add(reading("building-0", METER, LocalDate.of(2024, month, 1), 1000 + month * 150L));
+        }
+        persistenceService.saveReadings(readings);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        billChargesRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+        readingRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void returnsTheConsumptionOfAMeter() throws Exception {
+        HttpResponse<String> response = get("/api/meters/" + METER + "/consumption?start=2024-01-01&end=2024-02-29");
+
+        assertEquals(200, response.statusCode());
+        BigDecimal expected = consumptionService.calculateConsumption(METER, COVERED.start(), COVERED.end());
+        assertEquals(0, expected.compareTo(json.readTree(response.body()).get("kwh").decimalValue()));
+    }
+
+    @Test
+    void rejectsAPeriodNotCoveredByReadings() throws Exception {
+        HttpResponse<String> response = get("/api/meters/" + METER + "/consumption?start=2024-11-01&end=2024-12-31");
+
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    void splitsABillSentInTheRequest() throws Exception {
+        HttpResponse<String> response = post("/api/splits", splitRequest("INV-1", COVERED));
+
+        assertEquals(200, response.statusCode());
+        assertSplit(expectedSplit("INV-1"), json.readTree(response.body()));
+    }
+
+    @Test
+    void rejectsASplitRequestWithoutTenantMeter() throws Exception {
+        HttpResponse<String> response = post("/api/splits",
+                splitRequest("INV-1", COVERED).replace("\"tenantMeterId\":\"" + METER + "\",", ""));
+
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    void splitsAStoredBill() throws Exception {
+        persistenceService.saveBills(List.of(mapper.toEntity(bill("INV-1", COVERED), "building-0", METER)));
+
+        HttpResponse<String> response = get("/api/bills/INV-1/split");
+
+        assertEquals(200, response.statusCode());
+        assertSplit(expectedSplit("INV-1"), json.readTree(response.body()));
+        assertEquals(404, get("/api/bills/INV-2/split").statusCode());
+    }
+
+    @Test
+    void streamsOneLinePerBillOfABatch() throws Exception {
+        int size = 2000;
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            body.append(i == 0 ? "" : ",").append(splitRequest("INV-" + i, i % 100 == 0 ? UNCOVERED : COVERED));
+        }
+        body.append(']');
+
+        HttpResponse<String> response = post("/api/splits/batch", body.toString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("application/x-ndjson"));
+        List<String> lines = response.body().lines().toList();
+        assertEquals(size, lines.size());
+
+        Set<Integer> indexes = new HashSet<>();
+        int errors = 0;
+        for (String line : lines) {
+            JsonNode item = json.readTree(line);
+            int index = item.get("index").asInt();
+            assertTrue(indexes.add(index), () -> "Duplicate line for item " + index);
+            if (index % 100 == 0) {
+                assertTrue(item.hasNonNull("error"), () -> "Item " + index + " should fail: " + line);
+                errors++;
+            } else {
+                assertSplit(expectedSplit("INV-" + index), item.get("result"));
+            }
+        }
+        assertEquals(size, indexes.size());
+        assertEquals(size / 100, errors);
+    }
+
+    @Test
+    void streamsOneLinePerConsumptionOfABatch() throws Exception {
+        String body = """
+                [{"meterId":"%s","start":"2024-01-01","end":"2024-02-29"},
+                 {"meterId":"meter-unknown","start":"2024-01-01","end":"2024-02-29"}]""".formatted(METER);
+
+        HttpResponse<String> response = post("/api/consumption/batch", body);
+
+        assertEquals(200, response.statusCode());
+        List<String> lines = response.body().lines().toList();
+        assertEquals(2, lines.size());
+        for (String line : lines) {
+            JsonNode item = json.readTree(line);
+            assertEquals(item.get("index").asInt() == 1, item.hasNonNull("error"));
+        }
+    }
+
+    private SplitResult expectedSplit(String invoice) {
+        return splitService.split(new SplitJob("building-0", bill(invoice, COVERED), METER));
+    }
+
+    private static void assertSplit(SplitResult expected, JsonNode actual) {
+        assertEquals(0, expected.tenantTotal().compareTo(actual.get("tenantTotal").decimalValue()));
+        assertEquals(0, expected.ownerTotal().compareTo(actual.get("ownerTotal").decimalValue()));
+        assertEquals(0, expected.tenantKwh().compareTo(actual.get("tenantKwh").decimalValue()));
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String splitRequest(String invoice, BillPeriod period) {
+        return """
+                {"buildingId":"building-0","tenantMeterId":"%s","bill":{"invoiceNumber":"%s",\
+                "period":{"start":"%s","end":"%s"},"totalKwh":1249.58,"charges":{\
+                "energyVariable":{"amount":187.43},"transportFixed":{"amount":31.22},\
+                "transportPowerQuota":{"amount":19.87},"exciseAndVat":{"amount":52.18},\
+                "tvTax":null,"socialBonus":null}}}""".formatted(METER, invoice, period.start(), period.end());
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.simonelupone.bill.utility_manager.web;
+
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.bill;
+import static com.github.simonelupone.bill.utility_manager.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.github.simonelupone.bill.utility_manager.UtilityManagerApplication;
+import com.github.simonelupone.bill.utility_manager.domain.model.BillPeriod;
+import com.github.simonelupone.bill.utility_manager.persistence.BillEntity;
+import com.github.simonelupone.bill.utility_manager.persistence.ReadingEntity;
+import com.github.simonelupone.bill.utility_manager.service.BillMapper;
+import com.github.simonelupone.bill.utility_manager.service.BulkPersistenceService;
+
+/**
+ * Many concurrent clients against the server, once on platform threads and
+ * once on virtual threads.
+ * <p>
+ * Every request loads a stored bill through JPA, and every JDBC statement
+ * holds its pooled connection for {@link #LATENCY_MILLIS}, standing in for the
+ * round trip to a remote database that the in-memory one does not have. The
+ * connection pool is larger than the platform thread pool: on platform threads
+ * at most {@link #PLATFORM_THREADS} requests reach the database at once, on
+ * virtual threads, which ignore {@code server.tomcat.threads.max}, only the
+ * connection pool bounds them. The elapsed times of both runs are published as
+ * report entries.
+ * </p>
+ */
+class ApiLoadTest {
+
+    private static final int PLATFORM_THREADS = 4;
+    private static final int CONNECTIONS = 32;
+    private static final int CLIENTS = 200;
+    private static final int BILLS = 50;
+    private static final long LATENCY_MILLIS = 50;
+
+    /**
+     * Outcome of one load run.
+     *
+     * @param elapsedMillis time until every response arrived
+     * @param maxInFlight   most statements executing at once
+     */
+    private record LoadRun(long elapsedMillis, int maxInFlight) {
+    }
+
+    /**
+     * Wraps the data source so that, once enabled, every statement execution
+     * sleeps while holding its connection, counting the executions in flight.
+     */
+    private static final class SlowDatabase implements BeanPostProcessor {
+
+        private static final Set<Class<?>> WRAPPED = Set.of(Connection.class, Statement.class,
+                PreparedStatement.class, CallableStatement.class);
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private volatile boolean enabled;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource ? wrap(DataSource.class, bean) : bean;
+        }
+
+        private Object wrap(Class<?> type, Object target) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+                boolean slow = enabled && target instanceof Statement && method.getName().startsWith("execute");
+                if (slow) {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                }
+                try {
+                    if (slow) {
+                        Thread.sleep(LATENCY_MILLIS);
+                    }
+                    Object result = method.invoke(target, args);
+                    return result != null && WRAPPED.contains(method.getReturnType())
+                            ? wrap(method.getReturnType(), result)
+                            : result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    if (slow) {
+                        inFlight.decrementAndGet();
+                    }
+                }
+            });
+        }
+    }
+
+    // Timings are reported, not compared: their ratio depends on the CPU count
+    @Test
+    void virtualThreadsAreNotBoundByThePlatformThreadPool(TestReporter reporter) {
+        LoadRun platform = run(false);
+        LoadRun virtual = run(true);
+        reporter.publishEntry("platform", platform.toString());
+        reporter.publishEntry("virtual", virtual.toString());
+
+        assertTrue(platform.maxInFlight() <= PLATFORM_THREADS, () -> "Platform threads: " + platform);
+        assertTrue(virtual.maxInFlight() > PLATFORM_THREADS, () -> "Virtual threads: " + virtual);
+        // Every request executes at least one statement
+        long platformBoundMillis = CLIENTS * LATENCY_MILLIS / PLATFORM_THREADS;
+        assertTrue(platform.elapsedMillis() >= platformBoundMillis,
+                () -> "Platform threads: " + platform + ", bound " + platformBoundMillis + " ms");
+    }
+
+    private LoadRun run(boolean virtualThreads) {
+        SlowDatabase database = new SlowDatabase();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UtilityManagerApplication.class)
+                .initializers(initialized -> initialized.getBeanFactory().addBeanPostProcessor(database))
+                // Command line arguments, unlike default properties, override application.properties
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "--server.tomcat.threads.min-spare=" + PLATFORM_THREADS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + CONNECTIONS)) {
+            seed(context);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+
+            database.enabled = true;
+            long start = System.nanoTime();
+            for (int i = 0; i < CLIENTS; i++) {
+                URI uri = URI.create("http://localhost:" + port + "/api/bills/INV-" + (i % BILLS) + "/split");
+                responses.add(client.sendAsync(HttpRequest.newBuilder(uri).GET().build(),
+                        HttpResponse.BodyHandlers.ofString()));
+            }
+            CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0])).join();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            database.enabled = false;
+
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.join().statusCode(), () -> response.join().body());
+            }
+            return new LoadRun(elapsedMillis, database.maxInFlight.get());
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        BulkPersistenceService persistenceService = context.getBean(BulkPersistenceService.class);
+        BillMapper mapper = context.getBean(BillMapper.class);
+
+        List<ReadingEntity> readings = new ArrayList<>();
+        for (int month = 1; month <= 7; month++) {
+            readings.add(reading("building-0", "meter-0", LocalDate.of(2024, month, 1), 1000 + month * 150L));
+        }
+        persistenceService.saveReadings(readings);
+
+        List<BillEntity> bills = new ArrayList<>();
+        for (int i = 0; i < BILLS; i++) {
+            bills.add(mapper.toEntity(bill("INV-" + i, BillPeriod.ofBimester(1, 2024)), "building-0", "meter-0"));
+        }
+        persistenceService.saveBills(bills);
+    }
+}